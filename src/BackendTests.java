@@ -1,259 +1,712 @@
-import java.io.IOException;
-import org.junit.*;
- import org.junit.jupiter.api.Assertions;
- import org.junit.jupiter.api.BeforeEach;
- import org.junit.jupiter.api.Test;
-
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-
-import static org.junit.jupiter.api.Assertions.*;
-import static org.junit.jupiter.api.Assertions.assertTrue;
-
-/**
- * This class contains tests for the Backend implementation that
- * interacts with the Graph_Placeholder.
- * Each test method corresponds to a specific method from the BackendInterface.
- */
-
-
-public class BackendTests {
-  private Backend backend;
-  private GraphADT<String, Double> graph;
-
-  @BeforeEach
-  public void setup() {
-    // Create the graph
-    graph = new Graph_Placeholder();
-    // Assign the new Backend instance to the class field
-    backend = new Backend(graph);
-  }
-
-  /**
-   * Tests the loadGraphData() method.
-   * Verifies that the graph data is successfully loaded from a dot file.
-   *
-   * @throws IOException if the graph data fails to load.
-   */
-  @Test
-  public void roleTest1() {
-    try {
-      backend.loadGraphData("campus.dot");
-    } catch (IOException e) { // if catch block runs tests fail
-      fail("Failed to load graph data: " + e.getMessage());
-    }
-  }
-
-  /**
-   * Tests the findLocationsOnShortestPath method.
-   * Verifies that the shortest path between two locations is correctly computed.
-   * Compares the actual path with the expected list of locations.
-   */
-
-  @Test
-  public void roleTest2(){
-    try {
-      backend.loadGraphData("campus.dot");
-    } catch (IOException e) {
-      fail("Failed to load graph data: " + e.getMessage());
-    }
-    // checks if the functionality works as expected by comparing results
-    List<String> actual =
-        backend.findLocationsOnShortestPath("Union South","Atmospheric, Oceanic and Space Sciences");
-
-
-    List<String> expected = Arrays.asList("Union South", "Computer Sciences and Statistics",
-        "Atmospheric, Oceanic and Space Sciences");
-    Assertions.assertEquals(expected, actual, "test FAILED");
-  }
-
-  /**
-   * Tests the getListOfAllLocations method.
-   * Verifies that all locations in the graph are listed.
-   * Checks if specific key locations are present in the result.
-   */
-
-  @Test
-  public void roleTest3(){
-    try {
-      backend.loadGraphData("campus.dot");
-    } catch (IOException e) {
-      fail("Failed to load graph data: " + e.getMessage());
-    }
-    List<String> actual =
-        backend.getListOfAllLocations();
-
-    assertTrue(actual.contains("Union South"));
-    assertTrue(actual.contains("Atmospheric, Oceanic and Space Sciences"));
-    assertTrue(actual.contains("Computer Sciences and Statistics"));
-
-
-  }
-
-
-  /**
-   * Tests the findTimesOnShortestPath method.
-   * Verifies that the walking times between locations along the shortest path
-   * are correctly calculated.
-   * Compares the actual walking times with the expected values.
-   */
-
-  @Test
-  public void roleTest4(){
-    try {
-      backend.loadGraphData("campus.dot");
-    } catch (IOException e) {
-      // Use fail() instead of just printing the error
-      fail("Failed to load graph data: " + e.getMessage());
-    }
-    {
-      List<Double> actual =
-          backend.findTimesOnShortestPath("Union South","Computer Sciences and Statistics");
-      List<Double> expected= new ArrayList<>();
-      expected.add(1.0);
-      //expected.add(2.0);
-      System.out.println(expected);
-      Assertions.assertEquals(expected, actual);
-    }
-    {
-      List<Double> actual =
-          backend.findTimesOnShortestPath("Union South","Atmospheric, Oceanic and Space Sciences");
-      List<Double> expected= new ArrayList<>();
-      expected.add(1.0);
-      expected.add(2.0);
-      System.out.println(expected);
-      Assertions.assertEquals(expected, actual);
-    }
-  }
-
-
-  /**
-   * Tests the getClosestDestinationFromAll method.
-   * Verifies that the closest destination is correctly identified based on
-   * the list of starting locations.
-   * Compares the actual result with the expected destination.
-   */
-
-  @Test
-  public void roleTest5(){
-    try {
-      backend.loadGraphData("campus.dot");
-    } catch (IOException e) {
-      fail("Failed to load graph data: " + e.getMessage());
-    }
-    //results are based on placeholders currently and edge wait given
-    {
-      List<String> startLocation = new ArrayList<>() ;
-      startLocation.add("Union South");
-      String actual = backend.getClosestDestinationFromAll(startLocation);
-      String expected = "Computer Sciences and Statistics";
-      Assertions.assertEquals(expected, actual);
-    }
-    {
-      List<String> startLocation = new ArrayList<>() ;
-      startLocation.add("Computer Sciences and Statistics");
-      String actual = backend.getClosestDestinationFromAll(startLocation);
-      String expected = "Atmospheric, Oceanic and Space Sciences";
-      Assertions.assertEquals(expected, actual);
-    }
-    {
-      List<String> startLocation = new ArrayList<>() ;
-      startLocation.add("Atmospheric, Oceanic and Space Sciences");
-      String actual = backend.getClosestDestinationFromAll(startLocation);
-      String expected ="Union South" ;
-      Assertions.assertEquals(expected, actual);
-    }
-  }
-
-
-    /**
-     * Integration test for verifying that the backend can correctly load graph data
-     * from a DOT file and retrieve the list of all locations.
-     */
-    @Test
-    public void testLoadGraphIntegration() {
-      Backend backend = new Backend(new DijkstraGraph<>()); // Use DijkstraGraph implementation
-      try {
-        // Load the graph data from a valid DOT file
-        backend.loadGraphData("campus.dot");
-
-        // Retrieve all locations
-        List<String> locations = backend.getListOfAllLocations();
-
-        // Assertions to verify locations
-        assertTrue(locations != null, "The list of locations cannot be null.");
-        assertFalse(locations.isEmpty(), "The list of locations cannot be empty.");
-        assertTrue(locations.contains("Memorial Union"));
-        assertTrue(locations.contains("Union South"));
-      } catch (IOException e) {
-        fail("IOException is not to be thrown" + e.getMessage());
-      }
-    }
-
-
-    /**
-     * Integration test for verifying shortest path calculations using the integrated backend and graph.
-     */
-    @Test
-    public void testShortestPathIntegration() {
-      Backend backend = new Backend(new DijkstraGraph<>()); // Use DijkstraGraph implementation
-      try {
-        backend.loadGraphData("campus.dot");
-
-        // Test shortest path between two locations
-        List<String> path = backend.findLocationsOnShortestPath("Memorial Union", "Mack House");
-
-        // Assertions to verify the path
-        assertTrue(path != null);
-        assertFalse(path.isEmpty());
-        assertEquals("Memorial Union", path.get(0));
-        assertEquals("Mack House", path.get(path.size() - 1));
-            assertTrue(path.size()==13);
-
-      } catch (IOException e) {
-        fail("IOException is not to be thrown"  + e.getMessage());
-      }
-    }
-  /**
-   * Integration test for verifying shortest path time calculations using the  backend
-   * and graph.
-   */
-  @Test
-  public void testTimeIntegration() {
-    Backend backend = new Backend(new DijkstraGraph<>()); // Use DijkstraGraph implementation
-    try {
-      backend.loadGraphData("campus.dot");
-      List<Double> Time = backend.findTimesOnShortestPath("Memorial Union","Science Hall");
-      assertTrue(Time != null);
-      assertTrue(Time.get(0)==105.8);
-    } catch (IOException e) {
-      fail("IOException is not to be thrown"  + e.getMessage());
-    }
-  }
-
-    /**
-     * Integration test for verifying the retrieval of the closest destinations
-     * to a starting location using the backend and graph.
-     */
-    @Test
-    public void testClosestDestinationFromAllIntegration() {
-      Backend backend = new Backend(new DijkstraGraph<>()); // Use DijkstraGraph implementation
-      try {
-        backend.loadGraphData("campus.dot");
-        List<String> start = new ArrayList<>();
-        start.add("Jorns Hall");
-        // Test closest destinations for a valid location
-        String closestDestinations = backend.getClosestDestinationFromAll(start);
-
-        // Assertions to verify the list
-        assertTrue(closestDestinations != null);
-        assertTrue(closestDestinations.equals("Humphrey Hall"));
-      } catch (IOException e) {
-        fail("IOException is not to be thrown"  + e.getMessage());
-      }
-    }
-}
-
-
-
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import org.junit.*;
+ import org.junit.jupiter.api.Assertions;
+ import org.junit.jupiter.api.BeforeEach;
+ import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * This class contains tests for the Backend implementation that
+ * interacts with the Graph_Placeholder.
+ * Each test method corresponds to a specific method from the BackendInterface.
+ */
+
+
+public class BackendTests {
+  private Backend backend;
+  private GraphADT<String, Double> graph;
+
+  @BeforeEach
+  public void setup() {
+    // Create the graph
+    graph = new Graph_Placeholder();
+    // Assign the new Backend instance to the class field
+    backend = new Backend(graph);
+  }
+
+  /**
+   * Tests the loadGraphData() method.
+   * Verifies that the graph data is successfully loaded from a dot file.
+   *
+   * @throws IOException if the graph data fails to load.
+   */
+  @Test
+  public void roleTest1() {
+    try {
+      backend.loadGraphData("campus.dot");
+    } catch (IOException e) { // if catch block runs tests fail
+      fail("Failed to load graph data: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Tests the findLocationsOnShortestPath method.
+   * Verifies that the shortest path between two locations is correctly computed.
+   * Compares the actual path with the expected list of locations.
+   */
+
+  @Test
+  public void roleTest2(){
+    try {
+      backend.loadGraphData("campus.dot");
+    } catch (IOException e) {
+      fail("Failed to load graph data: " + e.getMessage());
+    }
+    // checks if the functionality works as expected by comparing results
+    List<String> actual =
+        backend.findLocationsOnShortestPath("Union South","Atmospheric, Oceanic and Space Sciences");
+
+
+    List<String> expected = Arrays.asList("Union South", "Computer Sciences and Statistics",
+        "Atmospheric, Oceanic and Space Sciences");
+    Assertions.assertEquals(expected, actual, "test FAILED");
+  }
+
+  /**
+   * Tests the getListOfAllLocations method.
+   * Verifies that all locations in the graph are listed.
+   * Checks if specific key locations are present in the result.
+   */
+
+  @Test
+  public void roleTest3(){
+    try {
+      backend.loadGraphData("campus.dot");
+    } catch (IOException e) {
+      fail("Failed to load graph data: " + e.getMessage());
+    }
+    List<String> actual =
+        backend.getListOfAllLocations();
+
+    assertTrue(actual.contains("Union South"));
+    assertTrue(actual.contains("Atmospheric, Oceanic and Space Sciences"));
+    assertTrue(actual.contains("Computer Sciences and Statistics"));
+
+
+  }
+
+
+  /**
+   * Tests the findTimesOnShortestPath method.
+   * Verifies that the walking times between locations along the shortest path
+   * are correctly calculated.
+   * Compares the actual walking times with the expected values.
+   */
+
+  @Test
+  public void roleTest4(){
+    try {
+      backend.loadGraphData("campus.dot");
+    } catch (IOException e) {
+      // Use fail() instead of just printing the error
+      fail("Failed to load graph data: " + e.getMessage());
+    }
+    {
+      List<Double> actual =
+          backend.findTimesOnShortestPath("Union South","Computer Sciences and Statistics");
+      List<Double> expected= new ArrayList<>();
+      expected.add(1.0);
+      //expected.add(2.0);
+      System.out.println(expected);
+      Assertions.assertEquals(expected, actual);
+    }
+    {
+      List<Double> actual =
+          backend.findTimesOnShortestPath("Union South","Atmospheric, Oceanic and Space Sciences");
+      List<Double> expected= new ArrayList<>();
+      expected.add(1.0);
+      expected.add(2.0);
+      System.out.println(expected);
+      Assertions.assertEquals(expected, actual);
+    }
+  }
+
+
+  /**
+   * Tests the getClosestDestinationFromAll method.
+   * Verifies that the closest destination is correctly identified based on
+   * the list of starting locations.
+   * Compares the actual result with the expected destination.
+   */
+
+  @Test
+  public void roleTest5(){
+    try {
+      backend.loadGraphData("campus.dot");
+    } catch (IOException e) {
+      fail("Failed to load graph data: " + e.getMessage());
+    }
+    //results are based on placeholders currently and edge wait given
+    {
+      List<String> startLocation = new ArrayList<>() ;
+      startLocation.add("Union South");
+      String actual = backend.getClosestDestinationFromAll(startLocation);
+      String expected = "Computer Sciences and Statistics";
+      Assertions.assertEquals(expected, actual);
+    }
+    {
+      List<String> startLocation = new ArrayList<>() ;
+      startLocation.add("Computer Sciences and Statistics");
+      String actual = backend.getClosestDestinationFromAll(startLocation);
+      String expected = "Atmospheric, Oceanic and Space Sciences";
+      Assertions.assertEquals(expected, actual);
+    }
+    {
+      List<String> startLocation = new ArrayList<>() ;
+      startLocation.add("Atmospheric, Oceanic and Space Sciences");
+      String actual = backend.getClosestDestinationFromAll(startLocation);
+      String expected ="Union South" ;
+      Assertions.assertEquals(expected, actual);
+    }
+  }
+
+
+    /**
+     * Integration test for verifying that the backend can correctly load graph data
+     * from a DOT file and retrieve the list of all locations.
+     */
+    @Test
+    public void testLoadGraphIntegration() {
+      Backend backend = new Backend(new DijkstraGraph<>()); // Use DijkstraGraph implementation
+      try {
+        // Load the graph data from a valid DOT file
+        backend.loadGraphData("campus.dot");
+
+        // Retrieve all locations
+        List<String> locations = backend.getListOfAllLocations();
+
+        // Assertions to verify locations
+        assertTrue(locations != null, "The list of locations cannot be null.");
+        assertFalse(locations.isEmpty(), "The list of locations cannot be empty.");
+        assertTrue(locations.contains("Memorial Union"));
+        assertTrue(locations.contains("Union South"));
+      } catch (IOException e) {
+        fail("IOException is not to be thrown" + e.getMessage());
+      }
+    }
+
+
+    /**
+     * Integration test for verifying shortest path calculations using the integrated backend and graph.
+     */
+    @Test
+    public void testShortestPathIntegration() {
+      Backend backend = new Backend(new DijkstraGraph<>()); // Use DijkstraGraph implementation
+      try {
+        backend.loadGraphData("campus.dot");
+
+        // Test shortest path between two locations
+        List<String> path = backend.findLocationsOnShortestPath("Memorial Union", "Mack House");
+
+        // Assertions to verify the path
+        assertTrue(path != null);
+        assertFalse(path.isEmpty());
+        assertEquals("Memorial Union", path.get(0));
+        assertEquals("Mack House", path.get(path.size() - 1));
+            assertTrue(path.size()==13);
+
+      } catch (IOException e) {
+        fail("IOException is not to be thrown"  + e.getMessage());
+      }
+    }
+  /**
+   * Integration test for verifying shortest path time calculations using the  backend
+   * and graph.
+   */
+  @Test
+  public void testTimeIntegration() {
+    Backend backend = new Backend(new DijkstraGraph<>()); // Use DijkstraGraph implementation
+    try {
+      backend.loadGraphData("campus.dot");
+      List<Double> Time = backend.findTimesOnShortestPath("Memorial Union","Science Hall");
+      assertTrue(Time != null);
+      assertTrue(Time.get(0)==105.8);
+    } catch (IOException e) {
+      fail("IOException is not to be thrown"  + e.getMessage());
+    }
+  }
+
+  /**
+   * Integration test for verifying that a route found by one search matches the separate path and
+   * time queries using the backend and graph.
+   */
+  @Test
+  public void testRouteIntegration() {
+    Backend backend = new Backend(new DijkstraGraph<>()); // Use DijkstraGraph implementation
+    try {
+      backend.loadGraphData("campus.dot");
+      Route<String> route = backend.findRoute("Memorial Union", "Mack House");
+      List<Double> times = backend.findTimesOnShortestPath("Memorial Union", "Mack House");
+      assertEquals(backend.findLocationsOnShortestPath("Memorial Union", "Mack House"),
+          route.getLocations());
+      assertEquals(times, route.getTimes());
+      assertEquals(times.stream().mapToDouble(Double::doubleValue).sum(), route.getTotalCost(),
+          1e-9);
+      assertThrows(java.util.NoSuchElementException.class,
+          () -> backend.findRoute("Memorial Union", "Nowhere"));
+    } catch (IOException e) {
+      fail("IOException is not to be thrown"  + e.getMessage());
+    }
+  }
+
+  /**
+   * Integration test for verifying that the frontend writes the same shortest path HTML into an
+   * Appendable as it returns, and escapes location names that contain HTML.
+   */
+  @Test
+  public void testFrontendWriteIntegration() {
+    Backend backend = new Backend(new DijkstraGraph<>()); // Use DijkstraGraph implementation
+    try {
+      backend.loadGraphData("campus.dot");
+      Frontend frontend = new Frontend(backend);
+      StringBuilder written = new StringBuilder();
+      frontend.writeShortestPathResponseHTML("Memorial Union", "Mack House", written);
+      assertEquals(frontend.generateShortestPathResponseHTML("Memorial Union", "Mack House"),
+          written.toString());
+      assertTrue(written.toString().contains("<li>Radio Hall</li>"));
+      assertEquals("<p>There is no such path between &lt;b&gt; and A &amp; B</p>",
+          frontend.generateShortestPathResponseHTML("<b>", "A & B"));
+    } catch (IOException e) {
+      fail("IOException is not to be thrown"  + e.getMessage());
+    }
+  }
+
+    /**
+     * Integration test for verifying the retrieval of the closest destinations
+     * to a starting location using the backend and graph.
+     */
+    @Test
+    public void testClosestDestinationFromAllIntegration() {
+      Backend backend = new Backend(new DijkstraGraph<>()); // Use DijkstraGraph implementation
+      try {
+        backend.loadGraphData("campus.dot");
+        List<String> start = new ArrayList<>();
+        start.add("Jorns Hall");
+        // Test closest destinations for a valid location
+        String closestDestinations = backend.getClosestDestinationFromAll(start);
+
+        // Assertions to verify the list
+        assertTrue(closestDestinations != null);
+        assertTrue(closestDestinations.equals("Humphrey Hall"));
+      } catch (IOException e) {
+        fail("IOException is not to be thrown"  + e.getMessage());
+      }
+    }
+
+  /**
+   * Integration test for the ranked list of closest destinations, which starts with the single
+   * closest destination, is ordered by total time, and matches the total of each shortest path.
+   */
+  @Test
+  public void testClosestDestinationsFromAllIntegration() {
+    Backend backend = new Backend(new DijkstraGraph<>()); // Use DijkstraGraph implementation
+    try {
+      backend.loadGraphData("campus.dot");
+      List<String> starts = Arrays.asList("Memorial Union", "Mack House", "Radio Hall");
+      List<Destination<String>> closest = backend.getClosestDestinationsFromAll(starts, 10);
+
+      assertEquals(10, closest.size());
+      assertEquals(backend.getClosestDestinationFromAll(starts), closest.get(0).getLocation());
+      for (int i = 0; i < closest.size(); i++) {
+        if (i > 0)
+          assertTrue(closest.get(i - 1).getTotalCost() <= closest.get(i).getTotalCost());
+        double total = 0;
+        for (String start : starts)
+          total += backend.findRoute(start, closest.get(i).getLocation()).getTotalCost();
+        assertEquals(total, closest.get(i).getTotalCost(), 1e-9);
+      }
+      // asking for more destinations than there are locations returns every reachable one
+      assertTrue(backend.getClosestDestinationsFromAll(Arrays.asList("Memorial Union"), 100000)
+          .size() <= backend.getListOfAllLocations().size());
+      assertThrows(IllegalArgumentException.class,
+          () -> backend.getClosestDestinationsFromAll(starts, 0));
+
+      String html = new Frontend(backend).generateClosestDestinationsFromAllResponseHTML(
+          "Memorial Union,Mack House,Radio Hall");
+      assertTrue(html.contains("<li>" + closest.get(9).getLocation() + " ("));
+    } catch (IOException e) {
+      fail("IOException is not to be thrown"  + e.getMessage());
+    }
+  }
+
+  /**
+   * Tests that DotFileParser reads campus.dot into a batch with the same names and exact weights
+   * as the file, and that it skips malformed lines and stops at the closing brace.
+   */
+  @Test
+  public void testDotFileParser() {
+    try {
+      EdgeBatch<String, Double> batch = DotFileParser.parse("campus.dot");
+      assertEquals(800, batch.getEdgeCount());
+      assertEquals("Memorial Union", batch.getNode(batch.getPredecessor(0)));
+      assertEquals("Science Hall", batch.getNode(batch.getSuccessor(0)));
+      assertEquals(105.8, batch.getWeight(0));
+      assertEquals(156.49999999999997, batch.getWeight(1));
+      assertEquals(batch.getPredecessor(0), batch.getPredecessor(1));
+    } catch (IOException e) {
+      fail("IOException is not to be thrown" + e.getMessage());
+    }
+
+    EdgeBatch<String, Double> batch = new EdgeBatch<>();
+    byte[] lines = ("digraph test {\n  A -> B [seconds=1.5];\n  A B [seconds=2];\n"
+        + "  \"B\" -> \"C\" [seconds=2.5e1];\n  C -> A [seconds=x];\n}\n  C -> D [seconds=1];\n")
+        .getBytes(StandardCharsets.UTF_8);
+    assertFalse(new DotFileParser(batch).parseLines(ByteBuffer.wrap(lines), 0, lines.length));
+    assertEquals(Arrays.asList("A", "B", "C"), batch.getNodes());
+    assertEquals(2, batch.getEdgeCount());
+    assertEquals(1.5, batch.getWeight(0));
+    assertEquals(25.0, batch.getWeight(1));
+
+    // names keep their non-ASCII characters, even at their ends, and a line of them is not empty
+    batch = new EdgeBatch<>();
+    lines = ("digraph test {\n  \"Caf\u00e9\" -> \"\u00c9clair Hall\" [seconds=1.5];\n"
+        + "  \u00dc->\u00e9 [seconds=2];\n}\n").getBytes(StandardCharsets.UTF_8);
+    assertFalse(new DotFileParser(batch).parseLines(ByteBuffer.wrap(lines), 0, lines.length));
+    assertEquals(Arrays.asList("Caf\u00e9", "\u00c9clair Hall", "\u00dc", "\u00e9"),
+        batch.getNodes());
+    assertEquals(2, batch.getEdgeCount());
+  }
+
+  /**
+   * Tests that parsing campus.dot in small chunks on several threads gives the same nodes, in the
+   * same order, and the same edges as parsing it all at once.
+   */
+  @Test
+  public void testDotFileParserInParallel() {
+    try {
+      EdgeBatch<String, Double> whole = DotFileParser.parse("campus.dot", 1, 1 << 22);
+      EdgeBatch<String, Double> chunked = DotFileParser.parse("campus.dot", 4, 1000);
+      assertEquals(whole.getNodes(), chunked.getNodes());
+      assertEquals(whole.getEdgeCount(), chunked.getEdgeCount());
+      for (int edge = 0; edge < whole.getEdgeCount(); edge++) {
+        assertEquals(whole.getPredecessor(edge), chunked.getPredecessor(edge));
+        assertEquals(whole.getSuccessor(edge), chunked.getSuccessor(edge));
+        assertEquals(whole.getWeight(edge), chunked.getWeight(edge));
+      }
+    } catch (IOException e) {
+      fail("IOException is not to be thrown" + e.getMessage());
+    }
+    assertThrows(IllegalArgumentException.class, () -> DotFileParser.parse("campus.dot", 0, 1000));
+  }
+
+  /**
+   * Tests that a graph loaded from a snapshot of campus.dot has the same nodes, ids, edges and
+   * shortest paths as the graph it was written from, and that a snapshot of another version is
+   * rejected.
+   */
+  @Test
+  public void testGraphSnapshotIntegration() {
+    try {
+      DijkstraGraph<String, Double> graph = new DijkstraGraph<>();
+      new Backend(graph).loadGraphData("campus.dot");
+      FrozenGraph<String> frozen = graph.freeze();
+      File file = File.createTempFile("campus", ".snapshot");
+      file.deleteOnExit();
+      GraphSnapshot.write(graph, file.getPath());
+      FrozenGraph<String> loaded = GraphSnapshot.load(file.getPath());
+
+      assertEquals(frozen.getAllNodes(), loaded.getAllNodes());
+      assertEquals(frozen.getEdgeCount(), loaded.getEdgeCount());
+      for (String location : frozen.getAllNodes())
+        assertEquals(frozen.getId(location), loaded.getId(location));
+      assertEquals(-1, loaded.getId("Not A Location"));
+      assertEquals(frozen.getEdge("Memorial Union", "Science Hall"),
+          loaded.getEdge("Memorial Union", "Science Hall"));
+      Backend backend = new Backend(loaded);
+      assertEquals(new Backend(frozen).findRoute("Memorial Union", "Radio Hall").getLocations(),
+          backend.findRoute("Memorial Union", "Radio Hall").getLocations());
+      assertEquals(graph.shortestPathCost("Radio Hall", "Mack House"),
+          loaded.shortestPathCost("Radio Hall", "Mack House"));
+      assertThrows(UnsupportedOperationException.class, () -> loaded.insertNode("New Hall"));
+
+      // a snapshot written in another version of the format is not loaded
+      try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+        raf.seek(4);
+        raf.write(GraphSnapshot.VERSION + 1);
+      }
+      assertThrows(IOException.class, () -> GraphSnapshot.load(file.getPath()));
+    } catch (IOException e) {
+      fail("IOException is not to be thrown" + e.getMessage());
+    }
+  }
+
+  @Test
+  public void testGraphSnapshotCorruption() {
+    try {
+      DijkstraGraph<String, Double> graph = new DijkstraGraph<>();
+      new Backend(graph).loadGraphData("campus.dot");
+      int n = graph.getNodeCount();
+      int m = graph.getEdgeCount();
+      File file = File.createTempFile("campus", ".snapshot");
+      file.deleteOnExit();
+      GraphSnapshot.write(graph, file.getPath());
+      byte[] valid = Files.readAllBytes(file.toPath());
+      // the positions of the sections after the header, each aligned to 8 bytes
+      long targets = (32 + 4L * (n + 1) + 7) & ~7L;
+      long weights = (targets + 4L * m + 7) & ~7L;
+      long nameStarts = (weights + 8L * m + 7) & ~7L;
+      long index = (nameStarts + 4L * (n + 1) + 7) & ~7L;
+      int slotCount = ByteBuffer.wrap(valid, 16, 4).order(ByteOrder.LITTLE_ENDIAN).getInt();
+
+      // an offset that decreases, an edge to a node that does not exist, a name that starts
+      // before the previous one, and an index whose slots all hold the first id
+      long[] positions = {32 + 4, targets, nameStarts + 4};
+      for (long position : positions) {
+        Files.write(file.toPath(), valid);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+          raf.seek(position);
+          raf.writeInt(-1);
+        }
+        assertThrows(IOException.class, () -> GraphSnapshot.load(file.getPath()));
+      }
+      Files.write(file.toPath(), valid);
+      try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+        for (int slot = 0; slot < slotCount; slot++) {
+          raf.seek(index + 8L * slot + 4);
+          raf.writeInt(Integer.reverseBytes(1));
+        }
+      }
+      assertThrows(IOException.class, () -> GraphSnapshot.load(file.getPath()));
+      Files.write(file.toPath(), valid);
+      assertEquals(n, GraphSnapshot.load(file.getPath()).getNodeCount());
+    } catch (IOException e) {
+      fail("IOException is not to be thrown" + e.getMessage());
+    }
+  }
+
+  @Test
+  public void testContractionHierarchyIntegration() {
+    try {
+      DijkstraGraph<String, Double> graph = new DijkstraGraph<>();
+      new Backend(graph).loadGraphData("campus.dot");
+      FrozenGraph<String> frozen = graph.freeze();
+      ContractionHierarchy<String> hierarchy = new ContractionHierarchy<>(frozen, false);
+      ContractionHierarchy<String> parallel = new ContractionHierarchy<>(frozen, true);
+
+      // every route matches the cost of the graph's own shortest path, along the graph's edges
+      for (String start : frozen.getAllNodes())
+        for (String end : frozen.getAllNodes()) {
+          double cost;
+          try {
+            cost = frozen.shortestPathCost(start, end);
+          } catch (NoSuchElementException e) {
+            assertThrows(NoSuchElementException.class, () -> hierarchy.shortestPathData(start, end));
+            continue;
+          }
+          Route<String> route = hierarchy.shortestPathRoute(start, end);
+          assertEquals(cost, route.getTotalCost(), 1e-9);
+          List<String> locations = route.getLocations();
+          assertEquals(start, locations.get(0));
+          assertEquals(end, locations.get(locations.size() - 1));
+          for (int i = 1; i < locations.size(); i++)
+            assertTrue(frozen.containsEdge(locations.get(i - 1), locations.get(i)));
+          // building in parallel gives the same hierarchy
+          assertEquals(locations, parallel.shortestPathData(start, end));
+        }
+      assertThrows(NoSuchElementException.class,
+          () -> hierarchy.shortestPathData("Not A Location", "Memorial Union"));
+
+      assertEquals(hierarchy.getShortcutCount(), parallel.getShortcutCount());
+
+      // saving and loading a hierarchy gives the same hierarchy
+      File file = File.createTempFile("campus", ".hierarchy");
+      file.deleteOnExit();
+      hierarchy.save(file.getPath());
+      ContractionHierarchy<String> loaded = ContractionHierarchy.load(frozen, file.getPath());
+      assertEquals(hierarchy.getShortcutCount(), loaded.getShortcutCount());
+      assertEquals(hierarchy.shortestPathData("Memorial Union", "Radio Hall"),
+          loaded.shortestPathData("Memorial Union", "Radio Hall"));
+
+      // a hierarchy is not loaded for a different graph
+      graph.insertEdge("Memorial Union", "Radio Hall", 1.0);
+      assertThrows(IOException.class, () -> ContractionHierarchy.load(graph.freeze(),
+          file.getPath()));
+    } catch (IOException e) {
+      fail("IOException is not to be thrown" + e.getMessage());
+    }
+  }
+
+  @Test
+  public void testDistanceMatrixIntegration() {
+    try {
+      DijkstraGraph<String, Double> graph = new DijkstraGraph<>();
+      new Backend(graph).loadGraphData("campus.dot");
+      FrozenGraph<String> frozen = graph.freeze();
+      File file = File.createTempFile("campus", ".matrix");
+      file.deleteOnExit();
+      DistanceMatrix<String> matrix = DistanceMatrix.build(frozen, file.getPath(), false);
+      byte[] sequential = Files.readAllBytes(file.toPath());
+      DistanceMatrixGraph<String> lookup = new DistanceMatrixGraph<>(matrix);
+
+      // every route matches the graph's own shortest path, along the graph's edges
+      for (String start : frozen.getAllNodes())
+        for (String end : frozen.getAllNodes()) {
+          double cost;
+          try {
+            cost = frozen.shortestPathCost(start, end);
+          } catch (NoSuchElementException e) {
+            assertThrows(NoSuchElementException.class, () -> lookup.shortestPathCost(start, end));
+            continue;
+          }
+          Route<String> route = lookup.shortestPathRoute(start, end);
+          assertEquals(cost, route.getTotalCost(), 1e-9);
+          assertEquals((float) cost, matrix.getCost(frozen.getId(start), frozen.getId(end)));
+          List<String> locations = route.getLocations();
+          assertEquals(start, locations.get(0));
+          assertEquals(end, locations.get(locations.size() - 1));
+          for (int i = 1; i < locations.size(); i++)
+            assertTrue(frozen.containsEdge(locations.get(i - 1), locations.get(i)));
+        }
+      Backend backend = new Backend(lookup);
+      List<String> starts = Arrays.asList("Memorial Union", "Radio Hall", "Science Hall");
+      assertEquals(new Backend(frozen).getClosestDestinationFromAll(starts),
+          backend.getClosestDestinationFromAll(starts));
+      assertThrows(UnsupportedOperationException.class, () -> lookup.insertNode("New Hall"));
+
+      // building in parallel writes the same file, which is loaded again instead of being built
+      DistanceMatrix.build(frozen, file.getPath(), true);
+      assertArrayEquals(sequential, Files.readAllBytes(file.toPath()));
+      long built = file.lastModified();
+      file.setLastModified(built - 10000);
+      DistanceMatrix<String> loaded = DistanceMatrix.loadOrBuild(frozen, file.getPath());
+      assertEquals(built - 10000, file.lastModified());
+      assertEquals(new DistanceMatrixGraph<>(loaded).shortestPathData("Memorial Union",
+          "Radio Hall"), lookup.shortestPathData("Memorial Union", "Radio Hall"));
+
+      // but it is built again for a changed graph
+      graph.insertEdge("Memorial Union", "Radio Hall", 1.0);
+      assertThrows(IOException.class, () -> DistanceMatrix.load(graph.freeze(), file.getPath()));
+      DistanceMatrix<String> rebuilt = DistanceMatrix.loadOrBuild(graph.freeze(), file.getPath());
+      assertEquals(Arrays.asList("Memorial Union", "Radio Hall"),
+          new DistanceMatrixGraph<>(rebuilt).shortestPathData("Memorial Union", "Radio Hall"));
+    } catch (IOException e) {
+      fail("IOException is not to be thrown" + e.getMessage());
+    }
+  }
+
+  /**
+   * Tests that a DistanceMatrixGraph keeps answering the same shortest paths
+   * as a DijkstraGraph while edges get cheaper, more expensive, are added and
+   * are removed, without changing the matrix file.
+   */
+  @Test
+  public void testDistanceMatrixUpdates() {
+    try {
+      DijkstraGraph<String, Double> reference = new DijkstraGraph<>();
+      new Backend(reference).loadGraphData("campus.dot");
+      FrozenGraph<String> frozen = reference.freeze();
+      File file = File.createTempFile("campus", ".matrix");
+      file.deleteOnExit();
+      DistanceMatrixGraph<String> lookup =
+          new DistanceMatrixGraph<>(DistanceMatrix.build(frozen, file.getPath(), false));
+      byte[] built = Files.readAllBytes(file.toPath());
+
+      assertFalse(lookup.insertEdge("Memorial Union", "New Hall", 1.0));
+      assertFalse(lookup.insertEdge("Memorial Union", "Radio Hall", -1.0));
+      assertFalse(lookup.removeEdge("Memorial Union", "Memorial Union"));
+      List<String> nodes = frozen.getAllNodes();
+      Random random = new Random(25);
+      for (int change = 0; change < 40; change++) {
+        String pred = nodes.get(random.nextInt(nodes.size()));
+        String succ = nodes.get(random.nextInt(nodes.size()));
+        if (change % 2 == 0) {
+          // a shortcut between any two nodes, which only relaxes the matrix
+          double weight = 1.0 + random.nextInt(50);
+          assertTrue(lookup.insertEdge(pred, succ, weight));
+          reference.insertEdge(pred, succ, weight);
+        } else {
+          // a detour or a closure of an existing edge, which searches again from some nodes
+          FrozenGraph<String> current = lookup.getGraph();
+          int edge = random.nextInt(current.getEdgeCount());
+          int predId = 0;
+          while (current.offsets[predId + 1] <= edge)
+            predId++;
+          pred = current.getNode(predId);
+          succ = current.getNode(current.targets[edge]);
+          if (change % 4 == 1) {
+            double weight = current.weights[edge] * (2 + random.nextInt(4));
+            assertTrue(lookup.insertEdge(pred, succ, weight));
+            reference.insertEdge(pred, succ, weight);
+          } else {
+            assertTrue(lookup.removeEdge(pred, succ));
+            reference.removeEdge(pred, succ);
+          }
+        }
+        assertEquals(reference.getEdgeCount(), lookup.getEdgeCount());
+
+        DistanceMatrix<String> matrix = lookup.getMatrix();
+        for (String start : nodes) {
+          ShortestPathTree<String> tree = reference.shortestPathTree(start);
+          for (String end : nodes) {
+            if (!tree.containsNode(end)) {
+              assertThrows(NoSuchElementException.class, () -> lookup.shortestPathRoute(start, end));
+              continue;
+            }
+            double cost = tree.getCost(end);
+            Route<String> route = lookup.shortestPathRoute(start, end);
+            // costs are relaxed in floats, so a path may be chosen over one that costs
+            // the same
+            assertEquals(cost, route.getTotalCost(), 1e-5 * cost);
+            int startId = frozen.getId(start);
+            assertEquals(cost, matrix.getCost(startId, frozen.getId(end)), 1e-5 * cost);
+            List<String> locations = route.getLocations();
+            assertEquals(start, locations.get(0));
+            assertEquals(end, locations.get(locations.size() - 1));
+            for (int i = 1; i < locations.size(); i++)
+              assertTrue(reference.containsEdge(locations.get(i - 1), locations.get(i)));
+          }
+        }
+      }
+      assertArrayEquals(built, Files.readAllBytes(file.toPath()));
+    } catch (IOException e) {
+      fail("IOException is not to be thrown" + e.getMessage());
+    }
+  }
+
+  /**
+   * Checks that a loaded matrix can be updated once its file can no longer be
+   * mapped copy-on-write, by copying it into memory, and that the file is
+   * only ever mapped read-only until then.
+   */
+  @Test
+  public void testDistanceMatrixCopiedOnUpdate() {
+    try {
+      DijkstraGraph<String, Double> reference = new DijkstraGraph<>();
+      new Backend(reference).loadGraphData("campus.dot");
+      FrozenGraph<String> frozen = reference.freeze();
+      File file = File.createTempFile("campus", ".matrix");
+      file.deleteOnExit();
+      DistanceMatrix.build(frozen, file.getPath(), false);
+      DistanceMatrixGraph<String> lookup =
+          new DistanceMatrixGraph<>(DistanceMatrix.load(frozen, file.getPath()));
+      assertTrue(file.delete());
+
+      assertTrue(lookup.insertEdge("Memorial Union", "Radio Hall", 1.0));
+      reference.insertEdge("Memorial Union", "Radio Hall", 1.0);
+      List<String> nodes = frozen.getAllNodes();
+      for (String start : nodes) {
+        ShortestPathTree<String> tree = reference.shortestPathTree(start);
+        for (String end : nodes)
+          if (tree.containsNode(end))
+            assertEquals(tree.getCost(end), lookup.shortestPathCost(start, end),
+                1e-5 * tree.getCost(end));
+      }
+    } catch (IOException e) {
+      fail("IOException is not to be thrown" + e.getMessage());
+    }
+  }
+}
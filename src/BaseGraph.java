@@ -1,224 +1,398 @@
-import java.util.List;
-import java.util.LinkedList;
-import java.util.NoSuchElementException;
-
-/**
- * This BaseGraph class contains stores a set of nodes, along with a set of
- * directed and weighted edges connecting those nodes.
- */
-public class BaseGraph<NodeType, EdgeType extends Number> {
-
-  // Each node contains unique data along with two lists of directed edges
-  protected class Node {
-    public NodeType data;
-    public List<Edge> edgesLeaving = new LinkedList<>();
-    public List<Edge> edgesEntering = new LinkedList<>();
-
-    public Node(NodeType data) {
-      this.data = data;
-    }
-  }
-
-  // Nodes can be retrieved from this map by their unique data
-  protected MapADT<NodeType, Node> nodes = null;
-
-  // Each edge contains data/weight, and two nodes that it connects
-  protected class Edge {
-    public EdgeType data; // the weight or cost of this edge
-    public Node predecessor;
-    public Node successor;
-
-    public Edge(EdgeType data, Node pred, Node succ) {
-      this.data = data;
-      this.predecessor = pred;
-      this.successor = succ;
-    }
-  }
-
-  protected int edgeCount = 0;
-  // Edges can be retrieved through the edge lists in either connected node
-
-  /**
-   * Constructor for BaseGraph that provides the map the graph uses.
-   *
-   * @param map the map the graph uses to map a data object to the node object
-   *        it is stored in
-   */
-  public BaseGraph(MapADT<NodeType, Node> map) {
-    this.nodes = map;
-  }
-
-  /**
-   * Insert a new node into the graph.
-   *
-   * @param data is the data item stored in the new node
-   * @return true if the data is unique and can be inserted into a new node,
-   *         or false if this data is already in the graph
-   * @throws NullPointerException if data is null
-   */
-  public boolean insertNode(NodeType data) {
-    if (nodes.containsKey(data))
-      return false; // throws NPE when data's null
-    nodes.put(data, new Node(data));
-    return true;
-  }
-
-  /**
-   * Remove a node from the graph.
-   * And also remove all edges adjacent to that node.
-   *
-   * @param data is the data item stored in the node to be removed
-   * @return true if a vertex with data is found and removed, or
-   *         false if that data value is not found in the graph
-   * @throws NullPointerException if data is null
-   */
-  public boolean removeNode(NodeType data) {
-    // remove this node from nodes collection
-    if (!nodes.containsKey(data))
-      return false; // throws NPE when data==null
-    Node oldNode = nodes.remove(data);
-    // remove all edges entering neighboring nodes from this one
-    for (Edge edge : oldNode.edgesLeaving)
-      edge.successor.edgesEntering.remove(edge);
-    // remove all edges leaving neighboring nodes toward this one
-    for (Edge edge : oldNode.edgesEntering)
-      edge.predecessor.edgesLeaving.remove(edge);
-    return true;
-  }
-
-  /**
-   * Check whether the graph contains a node with the provided data.
-   *
-   * @param data the node contents to check for
-   * @return true if data item is stored in a node within the graph, or
-   *         false otherwise
-   */
-  public boolean containsNode(NodeType data) {
-    return nodes.containsKey(data);
-  }
-
-  /**
-   * Retrieves a list of all node data from this graph.
-   *
-   * @return list of all node data
-   */
-  public List<NodeType> getAllNodes(){
-    return nodes.getKeys();
-  }
-
-  /**
-   * Return the number of nodes in the graph
-   *
-   * @return the number of nodes in the graph
-   */
-  public int getNodeCount() {
-    return nodes.getSize();
-  }
-
-  /**
-   * Insert a new directed edge with positive edges weight into the graph.
-   * Or if an edge between pred and succ already exists, update the data
-   * stored in hat edge to be weight.
-   *
-   * @param pred   is the data item contained in the new edge's predecesor node
-   * @param succ   is the data item contained in the new edge's successor node
-   * @param weight is the non-negative data item stored in the new edge
-   * @return true if the edge could be inserted or updated, or
-   *         false if the pred or succ data are not found in any graph nodes
-   */
-  public boolean insertEdge(NodeType pred, NodeType succ, EdgeType weight) {
-    // find nodes associated with node data, and return false when not found
-    Node predNode = nodes.get(pred);
-    Node succNode = nodes.get(succ);
-    if (predNode == null || succNode == null)
-      return false;
-    try {
-      // when an edge alread exists within the graph, update its weight
-      Edge existingEdge = getEdgeHelper(pred, succ);
-      existingEdge.data = weight;
-    } catch (NoSuchElementException e) {
-      // otherwise create a new edges
-      Edge newEdge = new Edge(weight, predNode, succNode);
-      this.edgeCount++;
-      // and insert it into each of its adjacent nodes' respective lists
-      predNode.edgesLeaving.add(newEdge);
-      succNode.edgesEntering.add(newEdge);
-    }
-    return true;
-  }
-
-  /**
-   * Remove an edge from the graph.
-   *
-   * @param pred the data item contained in the source node for the edge
-   * @param succ the data item contained in the target node for the edge
-   * @return true if the edge could be removed, or
-   *         false if such an edge is not found in the graph
-   */
-  public boolean removeEdge(NodeType pred, NodeType succ) {
-    try {
-      // when an edge exists
-      Edge oldEdge = getEdgeHelper(pred, succ);
-      // remove it from the edge lists of each adjacent node
-      oldEdge.predecessor.edgesLeaving.remove(oldEdge);
-      oldEdge.successor.edgesEntering.remove(oldEdge);
-      // and decrement the edge count before removing
-      this.edgeCount--;
-      return true;
-    } catch (NoSuchElementException e) {
-      // when no such edge exists, return false instead
-      return false;
-    }
-  }
-
-  /**
-   * Check if edge is in the graph.
-   *
-   * @param pred the data item contained in the source node for the edge
-   * @param succ the data item contained in the target node for the edge
-   * @return true if the edge is found in the graph, or false other
-   */
-  public boolean containsEdge(NodeType pred, NodeType succ) {
-    try {
-      getEdgeHelper(pred, succ);
-      return true;
-    } catch (NoSuchElementException e) {
-      return false;
-    }
-  }
-
-  /**
-   * Return the data associated with a specific edge.
-   *
-   * @param pred the data item contained in the source node for the edge
-   * @param succ the data item contained in the target node for the edge
-   * @return the non-negative data from the edge between those nodes
-   * @throws NoSuchElementException if either node or the edge between them
-   *                                are not found within this graph
-   */
-  public EdgeType getEdge(NodeType pred, NodeType succ) {
-    return getEdgeHelper(pred, succ).data;
-  }
-
-  protected Edge getEdgeHelper(NodeType pred, NodeType succ) {
-    Node predNode = nodes.get(pred);
-    // search for edge through the predecessor's list of leaving edges
-    for (Edge edge : predNode.edgesLeaving)
-      // compare succ to the data in each leaving edge's successor
-      if (edge.successor.data.equals(succ))
-        return edge;
-    // when no such edge can be found, throw NSE
-    throw new NoSuchElementException("No edge from " + pred.toString() + " to " +
-        succ.toString());
-  }
-
-  /**
-   * Return the number of edges in the graph.
-   *
-   * @return the number of edges in the graph
-   */
-  public int getEdgeCount() {
-    return this.edgeCount;
-  }
-
-}
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * This BaseGraph class contains stores a set of nodes, along with a set of
+ * directed and weighted edges connecting those nodes.
+ */
+public class BaseGraph<NodeType, EdgeType extends Number> {
+
+  // Each node contains unique data along with two lists of directed edges
+  protected class Node {
+    public NodeType data;
+    public int id; // this node's position within nodesById
+    public List<Edge> edgesLeaving;
+    public List<Edge> edgesEntering;
+    // maps the data of each successor to the edge leading there, created only
+    // once this node has more than EDGE_INDEX_THRESHOLD edges leaving it
+    public MapADT<NodeType, Edge> edgesLeavingIndex = null;
+
+    public Node(NodeType data) {
+      this.data = data;
+      this.edgesLeaving = new ArrayList<>();
+      this.edgesEntering = new ArrayList<>();
+    }
+
+    // creates a node whose edge lists already have room for this many edges
+    public Node(NodeType data, int leaving, int entering) {
+      this.data = data;
+      this.edgesLeaving = new ArrayList<>(leaving);
+      this.edgesEntering = new ArrayList<>(entering);
+    }
+  }
+
+  // Nodes can be retrieved from this map by their unique data
+  protected MapADT<NodeType, Node> nodes = null;
+
+  // Nodes are also numbered with dense ids from 0 to getNodeCount()-1, so that
+  // searches can keep their per-node state in arrays indexed by these ids
+  protected List<Node> nodesById = new ArrayList<>();
+
+  // Each edge contains data/weight, and two nodes that it connects
+  protected class Edge {
+    public EdgeType data; // the weight or cost of this edge
+    public Node predecessor;
+    public Node successor;
+    public int leavingIndex;  // this edge's position within predecessor.edgesLeaving
+    public int enteringIndex; // this edge's position within successor.edgesEntering
+
+    public Edge(EdgeType data, Node pred, Node succ) {
+      this.data = data;
+      this.predecessor = pred;
+      this.successor = succ;
+    }
+  }
+
+  protected int edgeCount = 0;
+  // Edges can be retrieved through the edge lists in either connected node
+
+  // Nodes with at most this many leaving edges find their edges by scanning
+  // edgesLeaving, while nodes with more of them also keep an edgesLeavingIndex
+  protected static final int EDGE_INDEX_THRESHOLD = 8;
+
+  // Counts every change made to the nodes or edges of this graph, so that
+  // anything computed from the graph can tell when it has become stale
+  protected int modCount = 0;
+
+  /**
+   * Constructor for BaseGraph that provides the map the graph uses.
+   *
+   * @param map the map the graph uses to map a data object to the node object
+   *        it is stored in
+   */
+  public BaseGraph(MapADT<NodeType, Node> map) {
+    this.nodes = map;
+  }
+
+  /**
+   * Insert a new node into the graph.
+   *
+   * @param data is the data item stored in the new node
+   * @return true if the data is unique and can be inserted into a new node,
+   *         or false if this data is already in the graph
+   * @throws NullPointerException if data is null
+   */
+  public boolean insertNode(NodeType data) {
+    if (nodes.containsKey(data))
+      return false; // throws NPE when data's null
+    Node newNode = new Node(data);
+    newNode.id = nodesById.size();
+    nodes.put(data, newNode);
+    nodesById.add(newNode);
+    modCount++;
+    return true;
+  }
+
+  /**
+   * Remove a node from the graph.
+   * And also remove all edges adjacent to that node.
+   *
+   * @param data is the data item stored in the node to be removed
+   * @return true if a vertex with data is found and removed, or
+   *         false if that data value is not found in the graph
+   * @throws NullPointerException if data is null
+   */
+  public boolean removeNode(NodeType data) {
+    // remove this node from nodes collection
+    if (!nodes.containsKey(data))
+      return false; // throws NPE when data==null
+    Node oldNode = nodes.remove(data);
+    // keep ids dense by moving the last node into the removed node's id
+    Node lastNode = nodesById.remove(nodesById.size() - 1);
+    if (lastNode != oldNode) {
+      lastNode.id = oldNode.id;
+      nodesById.set(lastNode.id, lastNode);
+    }
+    // remove all edges entering neighboring nodes from this one, and then all
+    // edges leaving neighboring nodes toward this one (copying each list first,
+    // since unlinking an edge also removes it from these lists)
+    for (Edge edge : new ArrayList<>(oldNode.edgesLeaving))
+      unlinkEdge(edge);
+    for (Edge edge : new ArrayList<>(oldNode.edgesEntering))
+      unlinkEdge(edge);
+    modCount++;
+    return true;
+  }
+
+  /**
+   * Check whether the graph contains a node with the provided data.
+   *
+   * @param data the node contents to check for
+   * @return true if data item is stored in a node within the graph, or
+   *         false otherwise
+   */
+  public boolean containsNode(NodeType data) {
+    return nodes.containsKey(data);
+  }
+
+  /**
+   * Retrieves a list of all node data from this graph.
+   *
+   * @return list of all node data
+   */
+  public List<NodeType> getAllNodes(){
+    return nodes.getKeys();
+  }
+
+  /**
+   * Return the number of nodes in the graph
+   *
+   * @return the number of nodes in the graph
+   */
+  public int getNodeCount() {
+    return nodes.getSize();
+  }
+
+  /**
+   * Insert a new directed edge with positive edges weight into the graph.
+   * Or if an edge between pred and succ already exists, update the data
+   * stored in hat edge to be weight.
+   *
+   * @param pred   is the data item contained in the new edge's predecesor node
+   * @param succ   is the data item contained in the new edge's successor node
+   * @param weight is the non-negative data item stored in the new edge
+   * @return true if the edge could be inserted or updated, or
+   *         false if the pred or succ data are not found in any graph nodes
+   */
+  public boolean insertEdge(NodeType pred, NodeType succ, EdgeType weight) {
+    // find nodes associated with node data, and return false when not found
+    Node predNode = nodes.getOrDefault(pred, null);
+    Node succNode = nodes.getOrDefault(succ, null);
+    if (predNode == null || succNode == null)
+      return false;
+    Edge existingEdge = findEdge(predNode, succ);
+    if (existingEdge != null)
+      // when an edge alread exists within the graph, update its weight
+      existingEdge.data = weight;
+    else
+      // otherwise create a new edge, and link it into its adjacent nodes
+      linkEdge(new Edge(weight, predNode, succNode));
+    modCount++;
+    return true;
+  }
+
+  /**
+   * Insert every node and edge of a batch into the graph, just as calling
+   * insertNode for each of its new nodes and then insertEdge for each of its
+   * edges in order would, but in time linear in the size of the batch. The
+   * node map is grown once to fit every new node, and each new node's edge
+   * lists are created with room for all of its edges in the batch. Edges
+   * between the same two nodes are then merged in a single pass over the
+   * batch's edges grouped by predecessor, so only the first of them is linked
+   * into the graph, with the weight of the last. Only the nodes that already
+   * had leaving edges have to search those for an existing edge to update.
+   *
+   * @param batch the nodes and edges to insert
+   */
+  public void insertEdges(EdgeBatch<NodeType, EdgeType> batch) {
+    int nodeCount = batch.getNodeCount();
+    int edgeCount = batch.getEdgeCount();
+    if (nodeCount == 0)
+      return;
+
+    // count the edges leaving and entering each node of the batch
+    int[] leaving = new int[nodeCount];
+    int[] entering = new int[nodeCount];
+    for (int edge = 0; edge < edgeCount; edge++) {
+      leaving[batch.getPredecessor(edge)]++;
+      entering[batch.getSuccessor(edge)]++;
+    }
+
+    // find the node of each batch id, inserting those not in this graph yet
+    nodes.ensureCapacity(nodes.getSize() + nodeCount);
+    List<Node> batchNodes = new ArrayList<>(nodeCount);
+    boolean[] hadEdges = new boolean[nodeCount]; // whether a node already had leaving edges
+    for (int id = 0; id < nodeCount; id++) {
+      Node node = nodes.getOrDefault(batch.getNode(id), null);
+      if (node == null) {
+        node = new Node(batch.getNode(id), leaving[id], entering[id]);
+        node.id = nodesById.size();
+        nodes.put(node.data, node);
+        nodesById.add(node);
+      } else {
+        hadEdges[id] = !node.edgesLeaving.isEmpty();
+      }
+      batchNodes.add(node);
+    }
+
+    // group the edges by predecessor (keeping them in order within each group)
+    int[] groupStart = new int[nodeCount + 1];
+    for (int id = 0; id < nodeCount; id++)
+      groupStart[id + 1] = groupStart[id] + leaving[id];
+    int[] grouped = new int[edgeCount];
+    int[] next = Arrays.copyOf(groupStart, nodeCount);
+    for (int edge = 0; edge < edgeCount; edge++)
+      grouped[next[batch.getPredecessor(edge)]++] = edge;
+
+    // then within each group, point the first edge to each successor at the
+    // last edge to that successor, whose weight it ends up with, while marking
+    // every later edge to that successor as a duplicate with -1
+    int[] lastDuplicate = new int[edgeCount];
+    int[] seenFrom = new int[nodeCount]; // the group (plus one) each successor was last seen in
+    int[] firstEdgeTo = new int[nodeCount];
+    for (int pred = 0; pred < nodeCount; pred++) {
+      for (int i = groupStart[pred]; i < groupStart[pred + 1]; i++) {
+        int edge = grouped[i];
+        int succ = batch.getSuccessor(edge);
+        if (seenFrom[succ] == pred + 1) {
+          lastDuplicate[firstEdgeTo[succ]] = edge;
+          lastDuplicate[edge] = -1;
+        } else {
+          seenFrom[succ] = pred + 1;
+          firstEdgeTo[succ] = edge;
+          lastDuplicate[edge] = edge;
+        }
+      }
+    }
+
+    // finally link the first of each distinct edge in batch order, unless an
+    // edge between the same nodes was already in the graph
+    for (int edge = 0; edge < edgeCount; edge++) {
+      if (lastDuplicate[edge] == -1)
+        continue;
+      EdgeType weight = batch.getWeight(lastDuplicate[edge]);
+      Node predNode = batchNodes.get(batch.getPredecessor(edge));
+      Node succNode = batchNodes.get(batch.getSuccessor(edge));
+      Edge existingEdge = hadEdges[batch.getPredecessor(edge)]
+          ? findEdge(predNode, succNode.data) : null;
+      if (existingEdge != null)
+        existingEdge.data = weight;
+      else
+        linkEdge(new Edge(weight, predNode, succNode));
+    }
+    modCount++;
+  }
+
+  /**
+   * Remove an edge from the graph.
+   *
+   * @param pred the data item contained in the source node for the edge
+   * @param succ the data item contained in the target node for the edge
+   * @return true if the edge could be removed, or
+   *         false if such an edge is not found in the graph
+   */
+  public boolean removeEdge(NodeType pred, NodeType succ) {
+    Node predNode = nodes.getOrDefault(pred, null);
+    Edge oldEdge = predNode == null ? null : findEdge(predNode, succ);
+    // when no such edge exists, return false instead
+    if (oldEdge == null)
+      return false;
+    unlinkEdge(oldEdge);
+    modCount++;
+    return true;
+  }
+
+  /**
+   * Check if edge is in the graph.
+   *
+   * @param pred the data item contained in the source node for the edge
+   * @param succ the data item contained in the target node for the edge
+   * @return true if the edge is found in the graph, or false other
+   */
+  public boolean containsEdge(NodeType pred, NodeType succ) {
+    Node predNode = nodes.getOrDefault(pred, null);
+    return predNode != null && findEdge(predNode, succ) != null;
+  }
+
+  /**
+   * Return the data associated with a specific edge.
+   *
+   * @param pred the data item contained in the source node for the edge
+   * @param succ the data item contained in the target node for the edge
+   * @return the non-negative data from the edge between those nodes
+   * @throws NoSuchElementException if either node or the edge between them
+   *                                are not found within this graph
+   */
+  public EdgeType getEdge(NodeType pred, NodeType succ) {
+    return getEdgeHelper(pred, succ).data;
+  }
+
+  protected Edge getEdgeHelper(NodeType pred, NodeType succ) {
+    Node predNode = nodes.getOrDefault(pred, null);
+    Edge edge = predNode == null ? null : findEdge(predNode, succ);
+    // when no such edge can be found, throw NSE
+    if (edge == null)
+      throw new NoSuchElementException("No edge from " + pred.toString() + " to " +
+          succ.toString());
+    return edge;
+  }
+
+  /**
+   * Finds the edge leaving predNode toward the node containing succ. Nodes with
+   * an edgesLeavingIndex look the edge up there, while other nodes have few
+   * enough leaving edges to scan them.
+   *
+   * @param predNode the node the edge leaves
+   * @param succ     the data item contained in the target node for the edge
+   * @return the edge from predNode to succ, or null when there is no such edge
+   */
+  protected Edge findEdge(Node predNode, NodeType succ) {
+    if (predNode.edgesLeavingIndex != null)
+      return predNode.edgesLeavingIndex.getOrDefault(succ, null);
+    // compare succ to the data in each leaving edge's successor
+    for (Edge edge : predNode.edgesLeaving)
+      if (edge.successor.data.equals(succ))
+        return edge;
+    return null;
+  }
+
+  // appends a new edge to the edge lists (and index) of its adjacent nodes
+  private void linkEdge(Edge edge) {
+    Node pred = edge.predecessor;
+    edge.leavingIndex = pred.edgesLeaving.size();
+    pred.edgesLeaving.add(edge);
+    edge.enteringIndex = edge.successor.edgesEntering.size();
+    edge.successor.edgesEntering.add(edge);
+    if (pred.edgesLeavingIndex != null) {
+      pred.edgesLeavingIndex.put(edge.successor.data, edge);
+    } else if (pred.edgesLeaving.size() > EDGE_INDEX_THRESHOLD) {
+      // this node has just become a hub, so index all of its leaving edges
+      pred.edgesLeavingIndex = new OpenHashtableMap<>(4 * pred.edgesLeaving.size());
+      for (Edge leaving : pred.edgesLeaving)
+        pred.edgesLeavingIndex.put(leaving.successor.data, leaving);
+    }
+    edgeCount++;
+  }
+
+  // removes an edge from the edge lists (and index) of its adjacent nodes, by
+  // moving the last edge of each list into the position that edge leaves empty
+  private void unlinkEdge(Edge edge) {
+    List<Edge> leaving = edge.predecessor.edgesLeaving;
+    Edge lastLeaving = leaving.remove(leaving.size() - 1);
+    if (lastLeaving != edge) {
+      lastLeaving.leavingIndex = edge.leavingIndex;
+      leaving.set(edge.leavingIndex, lastLeaving);
+    }
+    List<Edge> entering = edge.successor.edgesEntering;
+    Edge lastEntering = entering.remove(entering.size() - 1);
+    if (lastEntering != edge) {
+      lastEntering.enteringIndex = edge.enteringIndex;
+      entering.set(edge.enteringIndex, lastEntering);
+    }
+    if (edge.predecessor.edgesLeavingIndex != null)
+      edge.predecessor.edgesLeavingIndex.remove(edge.successor.data);
+    edgeCount--;
+  }
+
+  /**
+   * Return the number of edges in the graph.
+   *
+   * @return the number of edges in the graph
+   */
+  public int getEdgeCount() {
+    return this.edgeCount;
+  }
+
+}
@@ -0,0 +1,163 @@
+import java.util.NoSuchElementException;
+
+/**
+ * This BoundedMaxHeap keeps the best entries out of all that are offered to
+ * it, holding at most capacity of them at once. Each entry is an integer id
+ * with a double key and an integer rank: an entry is better than another when
+ * its key is smaller, or when their keys are equal and its rank is larger.
+ *
+ * The worst entry kept is stored at the root of the heap, so once the heap is
+ * full, each offered entry only has to be compared against that one, and then
+ * replaces it in O(log capacity) time if the offered entry is better. Selecting
+ * the best k of n entries this way takes O(n log k) time, instead of sorting
+ * all n of them.
+ */
+public class BoundedMaxHeap {
+
+  private int[] ids;      // ids stored in heap order, worst entry first
+  private int[] ranks;    // rank of the entry at each index of ids
+  private double[] keys;  // key of the entry at each index of ids
+  private int size = 0;
+
+  /**
+   * Creates an empty heap that keeps up to capacity entries.
+   *
+   * @param capacity the largest number of entries kept at once
+   * @throws IllegalArgumentException if capacity is not positive
+   */
+  public BoundedMaxHeap(int capacity) {
+    if (capacity <= 0)
+      throw new IllegalArgumentException("Capacity must be positive");
+    ids = new int[capacity];
+    ranks = new int[capacity];
+    keys = new double[capacity];
+  }
+
+  /**
+   * Checks whether there are any entries in the heap.
+   *
+   * @return true if no entries are stored in the heap, false otherwise
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Returns the number of entries currently kept in the heap.
+   *
+   * @return the number of entries in the heap
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the largest key that an offered entry can have and still be kept:
+   * the key of the worst entry once the heap is full, or infinity before that.
+   * An entry with exactly this key is only kept when its rank is larger than
+   * the worst entry's rank.
+   *
+   * @return the key that offered entries are compared against
+   */
+  public double getBound() {
+    return size < ids.length ? Double.POSITIVE_INFINITY : keys[0];
+  }
+
+  /**
+   * Offers an entry to the heap, which keeps it when the heap is not full yet,
+   * or when it is better than the worst entry kept, which is then dropped.
+   *
+   * @param id   the id of the entry
+   * @param rank the rank that breaks ties between entries with equal keys
+   * @param key  the key of the entry
+   * @return true if the entry was kept, false otherwise
+   */
+  public boolean offer(int id, int rank, double key) {
+    if (size < ids.length) {
+      set(size, id, rank, key);
+      siftUp(size++);
+      return true;
+    }
+    if (!isWorse(0, rank, key))
+      return false;
+    set(0, id, rank, key);
+    siftDown(0);
+    return true;
+  }
+
+  /**
+   * Returns the key of the worst entry in the heap.
+   *
+   * @return the largest key in the heap
+   * @throws NoSuchElementException if the heap is empty
+   */
+  public double peekKey() {
+    if (size == 0)
+      throw new NoSuchElementException("Heap is empty");
+    return keys[0];
+  }
+
+  /**
+   * Removes the worst entry from the heap, so that repeatedly removing every
+   * entry returns them from worst to best.
+   *
+   * @return the id of the removed entry
+   * @throws NoSuchElementException if the heap is empty
+   */
+  public int removeMax() {
+    if (size == 0)
+      throw new NoSuchElementException("Heap is empty");
+    int id = ids[0];
+    size--;
+    set(0, ids[size], ranks[size], keys[size]);
+    siftDown(0);
+    return id;
+  }
+
+  // stores an entry at index i of the heap arrays
+  private void set(int i, int id, int rank, double key) {
+    ids[i] = id;
+    ranks[i] = rank;
+    keys[i] = key;
+  }
+
+  // checks whether the entry at index i is worse than an entry with this rank and key
+  private boolean isWorse(int i, int rank, double key) {
+    return keys[i] > key || (keys[i] == key && ranks[i] < rank);
+  }
+
+  // swaps the entries at two indexes of the heap arrays
+  private void swap(int i, int j) {
+    int id = ids[i];
+    int rank = ranks[i];
+    double key = keys[i];
+    set(i, ids[j], ranks[j], keys[j]);
+    set(j, id, rank, key);
+  }
+
+  // moves the entry at index i up until its parent is worse than it
+  private void siftUp(int i) {
+    while (i > 0) {
+      int parent = (i - 1) / 2;
+      if (isWorse(parent, ranks[i], keys[i]))
+        break;
+      swap(i, parent);
+      i = parent;
+    }
+  }
+
+  // moves the entry at index i down until it is worse than both of its children
+  private void siftDown(int i) {
+    while (true) {
+      int worst = i;
+      for (int child = 2 * i + 1; child <= 2 * i + 2 && child < size; child++)
+        if (!isWorse(worst, ranks[child], keys[child]))
+          worst = child;
+      if (worst == i)
+        return;
+      swap(i, worst);
+      i = worst;
+    }
+  }
+
+}
@@ -0,0 +1,924 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.IntStream;
+
+/**
+ * This ContractionHierarchy answers shortest path queries on a FrozenGraph by
+ * searching only a small part of it, after preprocessing the graph once.
+ *
+ * Preprocessing contracts the nodes one at a time, from the least important
+ * to the most important. Contracting a node removes it from the graph, and
+ * adds a shortcut edge between each pair of its neighbors whose shortest
+ * path ran through it, unless a witness search finds another path that is
+ * no longer. Each shortcut remembers the node it was added for, so that it
+ * can be unpacked into the two edges it replaces. A node's importance is
+ * four times the number of shortcuts contracting it would add, minus the
+ * edges it would remove, plus the number of its neighbors that were
+ * contracted already and twice its depth in the hierarchy, so that
+ * contraction spreads evenly over the graph.
+ *
+ * Nodes are contracted in rounds: every node that is less important than
+ * every node within two edges of it is contracted in the same round, since
+ * no two of them share a neighbor. The witness searches of each round, and the importance of
+ * the neighbors they change, are computed in parallel when more than one
+ * processor is available, and always give the same hierarchy.
+ *
+ * Every shortest path then climbs from its start to its most important node
+ * along edges (or shortcuts) that lead to more important nodes, and descends
+ * from there to its end. So a query runs a search upward from the start and
+ * another upward from the end along reversed edges, which meet at that node.
+ * A node that either search reaches more cheaply down an edge from a more
+ * important node is not on such a path, so its edges are not relaxed.
+ *
+ * On one core, a grid of 10,000 nodes with random weights takes about 4.5
+ * seconds to preprocess, and one of 90,000 nodes and 359,000 edges about 40
+ * seconds, after which its queries take about 0.6 ms. This does not reach
+ * sub-millisecond queries on a graph of a million nodes: preprocessing grows
+ * faster than the graph does, and has not been run at that size.
+ *
+ * A hierarchy can be saved to a file alongside the graph it was built for,
+ * such as a GraphSnapshot, and loaded back for that same graph.
+ *
+ * @param NodeType is the data type stored at each graph node
+ */
+public class ContractionHierarchy<NodeType> {
+
+  /** The first four bytes of every saved hierarchy: "CNCH" in ASCII. */
+  public static final int MAGIC = 0x43_4E_43_48;
+
+  /** The version of the file format written by save, the only one load reads. */
+  public static final int VERSION = 1;
+
+  private static final int HEADER_BYTES = 32;
+
+  // witness searches give up after settling this many nodes, and then add the shortcut, which
+  // is never wrong, only unnecessary
+  private static final int WITNESS_LIMIT = 100;
+  // the limit used when a node's importance is estimated, which happens much more often
+  private static final int ESTIMATE_LIMIT = 30;
+
+  private final FrozenGraph<NodeType> graph;
+  private final long preprocessingNanos;
+
+  // the order each node was contracted in, where more important nodes have larger ranks
+  private final int[] ranks;
+  // the edges leaving node id toward more important nodes are stored from upOffsets[id] to
+  // upOffsets[id+1]-1, each with the node it leads to, its weight, and the node it was added
+  // for (or -1 for the graph's own edges)
+  private final int[] upOffsets;
+  private final int[] upTargets;
+  private final double[] upWeights;
+  private final int[] upMiddles;
+  // the edges entering node id from more important nodes, stored the same way, each with the
+  // node it comes from
+  private final int[] downOffsets;
+  private final int[] downSources;
+  private final double[] downWeights;
+  private final int[] downMiddles;
+
+  // the searches and the unpacking stack of each thread that queries this hierarchy
+  private final ThreadLocal<Query> queries;
+
+  /**
+   * Builds a hierarchy for the graph that a DijkstraGraph holds now.
+   *
+   * @param graph the graph to build a hierarchy for
+   * @return a hierarchy for a frozen snapshot of that graph
+   */
+  public static <NodeType> ContractionHierarchy<NodeType> build(DijkstraGraph<NodeType, ?> graph) {
+    return new ContractionHierarchy<>(graph.freeze());
+  }
+
+  /**
+   * Builds a hierarchy for a graph, in parallel when more than one processor
+   * is available.
+   *
+   * @param graph the graph to build a hierarchy for
+   */
+  public ContractionHierarchy(FrozenGraph<NodeType> graph) {
+    this(graph, Runtime.getRuntime().availableProcessors() > 1);
+  }
+
+  /**
+   * Builds a hierarchy for a graph, either in parallel or on the calling
+   * thread, which gives the same hierarchy either way.
+   *
+   * @param graph    the graph to build a hierarchy for
+   * @param parallel true to run each round's searches in parallel, false otherwise
+   */
+  public ContractionHierarchy(FrozenGraph<NodeType> graph, boolean parallel) {
+    long startTime = System.nanoTime();
+    this.graph = graph;
+    int n = graph.getNodeCount();
+    Contraction contraction = new Contraction(graph, parallel);
+    contraction.run();
+    ranks = contraction.ranks;
+
+    // copy each node's remaining edges when it was contracted into the upward and downward arrays
+    upOffsets = new int[n + 1];
+    downOffsets = new int[n + 1];
+    for (int v = 0; v < n; v++) {
+      upOffsets[v + 1] = upOffsets[v] + contraction.out[v].size;
+      downOffsets[v + 1] = downOffsets[v] + contraction.in[v].size;
+    }
+    upTargets = new int[upOffsets[n]];
+    upWeights = new double[upOffsets[n]];
+    upMiddles = new int[upOffsets[n]];
+    downSources = new int[downOffsets[n]];
+    downWeights = new double[downOffsets[n]];
+    downMiddles = new int[downOffsets[n]];
+    for (int v = 0; v < n; v++) {
+      contraction.out[v].copyTo(upTargets, upWeights, upMiddles, upOffsets[v]);
+      contraction.in[v].copyTo(downSources, downWeights, downMiddles, downOffsets[v]);
+      contraction.out[v] = null;
+      contraction.in[v] = null;
+    }
+    queries = ThreadLocal.withInitial(() -> new Query(n));
+    preprocessingNanos = System.nanoTime() - startTime;
+  }
+
+  // creates a hierarchy from arrays that were loaded from a file
+  private ContractionHierarchy(FrozenGraph<NodeType> graph, int[] ranks, int[] upOffsets,
+      int[] upTargets, double[] upWeights, int[] upMiddles, int[] downOffsets,
+      int[] downSources, double[] downWeights, int[] downMiddles) {
+    this.graph = graph;
+    this.preprocessingNanos = 0;
+    this.ranks = ranks;
+    this.upOffsets = upOffsets;
+    this.upTargets = upTargets;
+    this.upWeights = upWeights;
+    this.upMiddles = upMiddles;
+    this.downOffsets = downOffsets;
+    this.downSources = downSources;
+    this.downWeights = downWeights;
+    this.downMiddles = downMiddles;
+    int n = graph.getNodeCount();
+    queries = ThreadLocal.withInitial(() -> new Query(n));
+  }
+
+  /**
+   * Returns the graph that this hierarchy was built for.
+   *
+   * @return the graph whose shortest paths this hierarchy finds
+   */
+  public FrozenGraph<NodeType> getGraph() {
+    return graph;
+  }
+
+  /**
+   * Returns the position of a node in the order the nodes were contracted,
+   * where more important nodes, which more shortest paths run through, have
+   * larger ranks.
+   *
+   * @param id the id of the node
+   * @return the rank of that node, from 0 to the number of nodes minus 1
+   */
+  public int getRank(int id) {
+    return ranks[id];
+  }
+
+  /**
+   * Returns the number of shortcuts that preprocessing added, which are the
+   * edges of this hierarchy that were not in the graph.
+   *
+   * @return the number of shortcut edges
+   */
+  public int getShortcutCount() {
+    int shortcuts = 0;
+    for (int middle : upMiddles)
+      if (middle != -1)
+        shortcuts++;
+    for (int middle : downMiddles)
+      if (middle != -1)
+        shortcuts++;
+    return shortcuts;
+  }
+
+  /**
+   * Returns how long building this hierarchy took.
+   *
+   * @return the preprocessing time in nanoseconds, or 0 for a hierarchy that
+   *         was loaded from a file
+   */
+  public long getPreprocessingNanos() {
+    return preprocessingNanos;
+  }
+
+  /**
+   * Returns the list of data values from nodes along the shortest path from
+   * the node with the start value through the node with the end value, just
+   * like DijkstraGraph.shortestPathData does.
+   *
+   * @param start the data item in the starting node for the path
+   * @param end   the data item in the destination node for the path
+   * @return list of data item from node along this shortest path
+   * @throws NoSuchElementException when no path from start to end is found
+   *                                or when either start or end data do not
+   *                                correspond to a graph node
+   */
+  public List<NodeType> shortestPathData(NodeType start, NodeType end) {
+    return shortestPathRoute(start, end).getLocations();
+  }
+
+  /**
+   * Returns the cost of the shortest path from the node containing the start
+   * data to the node containing the end data, which is the sum of the
+   * weights of its edges from start to end.
+   *
+   * @param start the data item in the starting node for the path
+   * @param end   the data item in the destination node for the path
+   * @return the cost of the shortest path between these nodes
+   * @throws NoSuchElementException when no path from start to end is found
+   *                                or when either start or end data do not
+   *                                correspond to a graph node
+   */
+  public double shortestPathCost(NodeType start, NodeType end) {
+    return shortestPathRoute(start, end).getTotalCost();
+  }
+
+  /**
+   * Returns the shortest path from the node containing the start data to the
+   * node containing the end data as a route, with every shortcut along it
+   * unpacked into the graph's own edges.
+   *
+   * @param start the data item in the starting node for the path
+   * @param end   the data item in the destination node for the path
+   * @return the route along the shortest path between these nodes
+   * @throws NoSuchElementException when no path from start to end is found
+   *                                or when either start or end data do not
+   *                                correspond to a graph node
+   */
+  public Route<NodeType> shortestPathRoute(NodeType start, NodeType end) {
+    int startId = graph.getId(start);
+    int endId = graph.getId(end);
+    if (startId == -1 || endId == -1)
+      throw new NoSuchElementException("The start or end node is not found");
+    Query query = queries.get();
+    Search forward = query.forward;
+    Search backward = query.backward;
+    int meeting = search(startId, endId, forward, backward);
+    if (meeting == -1)
+      throw new NoSuchElementException("No path found");
+
+    // push the edges of the path onto the stack from end to start, so that they are popped in
+    // order: first those descending from the meeting node to end, and then those climbing to it
+    query.size = 0;
+    for (int id = meeting; id != endId; id = backward.parents[id])
+      query.push(backward.parents[id], ~backward.edges[id]);
+    query.reverse();
+    for (int id = meeting; id != startId; id = forward.parents[id])
+      query.push(forward.parents[id], forward.edges[id]);
+    // then unpack each edge popped into the two edges it stands for, until it is the graph's own
+    List<NodeType> locations = new LinkedList<>();
+    locations.add(start);
+    double[] times = new double[8];
+    double total = 0.0;
+    int legs = 0;
+    while (query.size > 0) {
+      int edge = query.stack[--query.size];
+      int owner = query.stack[--query.size];
+      // an upward edge leaves its owner, and a downward edge enters its owner
+      int pred = edge >= 0 ? owner : downSources[~edge];
+      int succ = edge >= 0 ? upTargets[edge] : owner;
+      int middle = edge >= 0 ? upMiddles[edge] : downMiddles[~edge];
+      if (middle == -1) {
+        double weight = edge >= 0 ? upWeights[edge] : downWeights[~edge];
+        locations.add(graph.getNode(succ));
+        if (legs == times.length)
+          times = Arrays.copyOf(times, 2 * legs);
+        times[legs++] = weight;
+        total += weight;
+        continue;
+      }
+      // the edge from pred to middle enters middle from above, and the edge from middle to succ
+      // leaves middle upward, since middle was contracted before both
+      query.push(middle, findEdge(upOffsets, upTargets, middle, succ));
+      query.push(middle, ~findEdge(downOffsets, downSources, middle, pred));
+    }
+    return new Route<>(locations, Arrays.copyOf(times, legs), total);
+  }
+
+  // returns the position of the edge of node id that leads to (or comes from) other
+  private static int findEdge(int[] offsets, int[] others, int id, int other) {
+    for (int edge = offsets[id]; edge < offsets[id + 1]; edge++)
+      if (others[edge] == other)
+        return edge;
+    throw new IllegalStateException("Shortcut through " + id + " has no edge to " + other);
+  }
+
+  // runs the upward searches from start and from end, and returns the node where the shortest
+  // path between them is most important, or -1 when there is no path
+  private int search(int startId, int endId, Search forward, Search backward) {
+    forward.start(startId);
+    backward.start(endId);
+    double best = startId == endId ? 0.0 : Double.POSITIVE_INFINITY;
+    int meeting = startId == endId ? startId : -1;
+    while (Math.min(forward.peekKey(), backward.peekKey()) < best) {
+      // settle the next node of the search with the closer one
+      boolean isForward = forward.peekKey() <= backward.peekKey();
+      Search search = isForward ? forward : backward;
+      Search other = isForward ? backward : forward;
+      int current = search.poll();
+      double cost = search.costs[current];
+      if (other.isReached(current) && cost + other.costs[current] < best) {
+        best = cost + other.costs[current];
+        meeting = current;
+      }
+      if (isStalled(current, cost, search, isForward))
+        continue;
+      if (isForward) {
+        for (int edge = upOffsets[current]; edge < upOffsets[current + 1]; edge++)
+          search.relax(upTargets[edge], cost + upWeights[edge], current, edge);
+      } else {
+        for (int edge = downOffsets[current]; edge < downOffsets[current + 1]; edge++)
+          search.relax(downSources[edge], cost + downWeights[edge], current, edge);
+      }
+    }
+    return meeting;
+  }
+
+  // checks whether a search reached a more important node from which an edge leads down to id
+  // more cheaply than cost, in which case no shortest path climbs through id, and the search
+  // need not relax id's edges
+  private boolean isStalled(int id, double cost, Search search, boolean isForward) {
+    if (isForward) {
+      for (int edge = downOffsets[id]; edge < downOffsets[id + 1]; edge++)
+        if (search.isReached(downSources[edge])
+            && search.costs[downSources[edge]] + downWeights[edge] < cost)
+          return true;
+    } else {
+      for (int edge = upOffsets[id]; edge < upOffsets[id + 1]; edge++)
+        if (search.isReached(upTargets[edge])
+            && search.costs[upTargets[edge]] + upWeights[edge] < cost)
+          return true;
+    }
+    return false;
+  }
+
+  /**
+   * Saves this hierarchy to a file, which holds a header followed by these
+   * sections, each starting at a multiple of 8 bytes, with every number
+   * stored in little-endian order:
+   *
+   *     header  int MAGIC, int VERSION, int nodeCount, int upCount,
+   *             int downCount, int 0, long the graph's fingerprint
+   *     ranks   int[nodeCount]
+   *     up      int[nodeCount + 1] offsets, int[upCount] targets,
+   *             int[upCount] middles, double[upCount] weights
+   *     down    int[nodeCount + 1] offsets, int[downCount] sources,
+   *             int[downCount] middles, double[downCount] weights
+   *
+   * @param filename the path of the file to write
+   * @throws IOException if the file cannot be written, or would be larger
+   *                     than 2 GB
+   */
+  public void save(String filename) throws IOException {
+    Layout layout = new Layout(ranks.length, upTargets.length, downSources.length);
+    if (layout.size > Integer.MAX_VALUE)
+      throw new IOException("Hierarchy of " + layout.size + " bytes is larger than 2 GB");
+    ByteBuffer buffer = ByteBuffer.allocate((int) layout.size).order(ByteOrder.LITTLE_ENDIAN);
+    buffer.putInt(MAGIC).putInt(VERSION).putInt(ranks.length).putInt(upTargets.length)
+        .putInt(downSources.length).putInt(0).putLong(graph.fingerprint());
+    int[][] ints = {ranks, upOffsets, upTargets, upMiddles, downOffsets, downSources, downMiddles};
+    for (int i = 0; i < ints.length; i++) {
+      buffer.position(layout.ints[i]);
+      buffer.asIntBuffer().put(ints[i]);
+    }
+    buffer.position(layout.upWeights);
+    buffer.asDoubleBuffer().put(upWeights);
+    buffer.position(layout.downWeights);
+    buffer.asDoubleBuffer().put(downWeights);
+    GraphSnapshot.writeFile(buffer, filename);
+  }
+
+  /**
+   * Loads a hierarchy that was saved for a graph with the same nodes and
+   * edges (in the same order) as graph.
+   *
+   * @param graph    the graph that the hierarchy was built for
+   * @param filename the path of the file to read
+   * @return the hierarchy that was saved to that file
+   * @throws IOException if the file cannot be read, is not a complete
+   *                     hierarchy of this version, or was built for a
+   *                     different graph
+   */
+  public static <NodeType> ContractionHierarchy<NodeType> load(FrozenGraph<NodeType> graph,
+      String filename) throws IOException {
+    MappedByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+      if (channel.size() < HEADER_BYTES || channel.size() > Integer.MAX_VALUE)
+        throw new IOException("Not a contraction hierarchy: " + filename);
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+    buffer.order(ByteOrder.LITTLE_ENDIAN);
+    if (buffer.getInt(0) != MAGIC)
+      throw new IOException("Not a contraction hierarchy: " + filename);
+    if (buffer.getInt(4) != VERSION)
+      throw new IOException("Unsupported contraction hierarchy version " + buffer.getInt(4)
+          + " in " + filename + ", expected version " + VERSION);
+    int n = buffer.getInt(8);
+    int upCount = buffer.getInt(12);
+    int downCount = buffer.getInt(16);
+    if (n != graph.getNodeCount() || buffer.getLong(24) != graph.fingerprint())
+      throw new IOException("Contraction hierarchy " + filename + " was built for another graph");
+    Layout layout = new Layout(n, upCount, downCount);
+    if (upCount < 0 || downCount < 0 || layout.size != buffer.capacity())
+      throw new IOException("Incomplete or corrupt contraction hierarchy: " + filename);
+
+    int[] lengths = {n, n + 1, upCount, upCount, n + 1, downCount, downCount};
+    int[][] ints = new int[lengths.length][];
+    for (int i = 0; i < ints.length; i++) {
+      ints[i] = new int[lengths[i]];
+      buffer.position(layout.ints[i]);
+      buffer.asIntBuffer().get(ints[i]);
+    }
+    double[] upWeights = new double[upCount];
+    buffer.position(layout.upWeights);
+    buffer.asDoubleBuffer().get(upWeights);
+    double[] downWeights = new double[downCount];
+    buffer.position(layout.downWeights);
+    buffer.asDoubleBuffer().get(downWeights);
+    return new ContractionHierarchy<>(graph, ints[0], ints[1], ints[2], upWeights, ints[3],
+        ints[4], ints[5], downWeights, ints[6]);
+  }
+
+  @Override
+  public String toString() {
+    return "ContractionHierarchy[nodes=" + ranks.length + ", edges=" + graph.getEdgeCount()
+        + ", shortcuts=" + getShortcutCount() + ", preprocessing=" + preprocessingNanos / 1000000
+        + " ms]";
+  }
+
+  // the position of each section within a saved hierarchy
+  private static class Layout {
+    // ranks, upOffsets, upTargets, upMiddles, downOffsets, downSources and downMiddles
+    private final int[] ints = new int[7];
+    private final int upWeights;
+    private final int downWeights;
+    private final long size;
+
+    private Layout(int n, int upCount, int downCount) {
+      long position = HEADER_BYTES;
+      long[] lengths = {n, n + 1L, upCount, upCount};
+      for (int i = 0; i < 4; i++) {
+        ints[i] = (int) position;
+        position = align(position + 4L * lengths[i]);
+      }
+      upWeights = (int) position;
+      position = align(position + 8L * upCount);
+      lengths = new long[] {n + 1L, downCount, downCount};
+      for (int i = 0; i < 3; i++) {
+        ints[4 + i] = (int) position;
+        position = align(position + 4L * lengths[i]);
+      }
+      downWeights = (int) position;
+      size = position + 8L * downCount;
+    }
+
+    // rounds a position up to the next multiple of 8
+    private static long align(long position) {
+      return (position + 7) & ~7L;
+    }
+  }
+
+  // a Dijkstra search that can be run many times over the same nodes, which only clears the
+  // nodes it reached when the next search starts, and keeps its queue as a binary heap that may
+  // hold stale entries for nodes whose cost has since been lowered
+  private static class Search {
+    private final double[] costs;
+    private final int[] parents; // the node each node was reached from, or -1 for the start
+    private final int[] edges;   // the position of the edge each node was reached along
+    private final int[] reached; // the number of the search that last reached each node
+    private final int[] settled; // the number of the search that last settled each node
+    private int number = 0;
+    private int[] heapIds = new int[64];
+    private double[] heapKeys = new double[64];
+    private int heapSize = 0;
+
+    private Search(int n) {
+      costs = new double[n];
+      parents = new int[n];
+      edges = new int[n];
+      reached = new int[n];
+      settled = new int[n];
+    }
+
+    // starts a new search from start, forgetting every node reached by the last one
+    private void start(int start) {
+      if (++number == Integer.MAX_VALUE) {
+        Arrays.fill(reached, 0);
+        Arrays.fill(settled, 0);
+        number = 1;
+      }
+      heapSize = 0;
+      relax(start, 0.0, -1, -1);
+    }
+
+    private boolean isReached(int id) {
+      return reached[id] == number;
+    }
+
+    // lowers the cost of id to cost, along an edge from parent, if that is lower than its cost
+    private void relax(int id, double cost, int parent, int edge) {
+      if (settled[id] == number || (reached[id] == number && cost >= costs[id]))
+        return;
+      reached[id] = number;
+      costs[id] = cost;
+      parents[id] = parent;
+      edges[id] = edge;
+      if (heapSize == heapIds.length) {
+        heapIds = Arrays.copyOf(heapIds, 2 * heapSize);
+        heapKeys = Arrays.copyOf(heapKeys, 2 * heapSize);
+      }
+      // sift the new entry up from the end of the heap
+      int i = heapSize++;
+      while (i > 0 && heapKeys[(i - 1) / 2] > cost) {
+        heapIds[i] = heapIds[(i - 1) / 2];
+        heapKeys[i] = heapKeys[(i - 1) / 2];
+        i = (i - 1) / 2;
+      }
+      heapIds[i] = id;
+      heapKeys[i] = cost;
+    }
+
+    // returns the smallest cost of a node that is not settled yet, or infinity
+    private double peekKey() {
+      // drop the entries of nodes that have already been settled at a lower cost
+      while (heapSize > 0 && settled[heapIds[0]] == number)
+        removeTop();
+      return heapSize == 0 ? Double.POSITIVE_INFINITY : heapKeys[0];
+    }
+
+    // settles and returns the node with the smallest cost, which peekKey has found
+    private int poll() {
+      peekKey();
+      int id = heapIds[0];
+      removeTop();
+      settled[id] = number;
+      return id;
+    }
+
+    // removes the entry at the top of the heap
+    private void removeTop() {
+      heapSize--;
+      int id = heapIds[heapSize];
+      double key = heapKeys[heapSize];
+      int i = 0;
+      while (2 * i + 1 < heapSize) {
+        int child = 2 * i + 1;
+        if (child + 1 < heapSize && heapKeys[child + 1] < heapKeys[child])
+          child++;
+        if (heapKeys[child] >= key)
+          break;
+        heapIds[i] = heapIds[child];
+        heapKeys[i] = heapKeys[child];
+        i = child;
+      }
+      heapIds[i] = id;
+      heapKeys[i] = key;
+    }
+  }
+
+  // the searches that one thread answers queries with, along with a stack of the edges it has
+  // yet to unpack, as pairs of the node each edge belongs to and its position: an upward edge
+  // leaving that node at position edge is pushed as edge, and a downward edge entering that node
+  // as ~edge
+  private static class Query {
+    private final Search forward;
+    private final Search backward;
+    private int[] stack = new int[64];
+    private int size = 0;
+
+    private Query(int n) {
+      forward = new Search(n);
+      backward = new Search(n);
+    }
+
+    private void push(int owner, int edge) {
+      if (size == stack.length)
+        stack = Arrays.copyOf(stack, 2 * size);
+      stack[size++] = owner;
+      stack[size++] = edge;
+    }
+
+    // reverses the order of the pairs on the stack
+    private void reverse() {
+      for (int i = 0, j = size - 2; i < j; i += 2, j -= 2) {
+        int owner = stack[i];
+        int edge = stack[i + 1];
+        stack[i] = stack[j];
+        stack[i + 1] = stack[j + 1];
+        stack[j] = owner;
+        stack[j + 1] = edge;
+      }
+    }
+  }
+
+  // the edges of one node that have not been contracted yet, which grow as shortcuts are added
+  private static class Edges {
+    private int[] nodes;
+    private double[] weights;
+    private int[] middles;
+    private int size = 0;
+
+    private Edges(int capacity) {
+      nodes = new int[Math.max(capacity, 2)];
+      weights = new double[nodes.length];
+      middles = new int[nodes.length];
+    }
+
+    // adds an edge to node, or lowers the weight of the edge to node that is already here
+    private void addOrLower(int node, double weight, int middle) {
+      for (int i = 0; i < size; i++)
+        if (nodes[i] == node) {
+          if (weight < weights[i]) {
+            weights[i] = weight;
+            middles[i] = middle;
+          }
+          return;
+        }
+      if (size == nodes.length) {
+        nodes = Arrays.copyOf(nodes, 2 * size);
+        weights = Arrays.copyOf(weights, 2 * size);
+        middles = Arrays.copyOf(middles, 2 * size);
+      }
+      nodes[size] = node;
+      weights[size] = weight;
+      middles[size++] = middle;
+    }
+
+    // removes the edges to every node that has been contracted
+    private void removeContracted(boolean[] contracted) {
+      int kept = 0;
+      for (int i = 0; i < size; i++)
+        if (!contracted[nodes[i]]) {
+          nodes[kept] = nodes[i];
+          weights[kept] = weights[i];
+          middles[kept++] = middles[i];
+        }
+      size = kept;
+    }
+
+    // copies these edges into arrays of every node's edges, starting at position
+    private void copyTo(int[] nodes, double[] weights, int[] middles, int position) {
+      System.arraycopy(this.nodes, 0, nodes, position, size);
+      System.arraycopy(this.weights, 0, weights, position, size);
+      System.arraycopy(this.middles, 0, middles, position, size);
+    }
+  }
+
+  // the shortcuts found while contracting one node, as parallel lists of their ends and weights
+  private static class Shortcuts {
+    private int[] froms = new int[8];
+    private int[] tos = new int[8];
+    private double[] weights = new double[8];
+    private int size = 0;
+
+    private void add(int from, int to, double weight) {
+      if (size == froms.length) {
+        froms = Arrays.copyOf(froms, 2 * size);
+        tos = Arrays.copyOf(tos, 2 * size);
+        weights = Arrays.copyOf(weights, 2 * size);
+      }
+      froms[size] = from;
+      tos[size] = to;
+      weights[size++] = weight;
+    }
+  }
+
+  // the search that each thread runs to look for witness paths, along with a mark on each node
+  // that the current search is looking for a witness path to
+  private static class Witnesses {
+    private final Search search;
+    private final int[] marks;
+    private int mark = 0;
+
+    private Witnesses(int n) {
+      search = new Search(n);
+      marks = new int[n];
+    }
+
+    // marks each node that edges lead to, other than from and the contracted nodes, and returns
+    // how many were marked
+    private int markTargets(Edges edges, int from, boolean[] contracted) {
+      if (++mark == Integer.MAX_VALUE) {
+        Arrays.fill(marks, 0);
+        mark = 1;
+      }
+      int count = 0;
+      for (int j = 0; j < edges.size; j++) {
+        int target = edges.nodes[j];
+        if (target != from && !contracted[target] && marks[target] != mark) {
+          marks[target] = mark;
+          count++;
+        }
+      }
+      return count;
+    }
+
+    private boolean isTarget(int id) {
+      return marks[id] == mark;
+    }
+  }
+
+  // the state of the graph while its nodes are being contracted
+  private static class Contraction {
+    private final int n;
+    private final boolean parallel;
+    // the edges leaving and entering each node, which are left holding the edges to more
+    // important nodes once that node is contracted
+    private final Edges[] out;
+    private final Edges[] in;
+    private final boolean[] contracted;
+    private final int[] ranks;
+    private final int[] priorities;
+    private final int[] levels;              // how deep in the hierarchy each node is
+    private final int[] contractedNeighbors; // the number of each node's contracted neighbors
+    private final ThreadLocal<Witnesses> witnesses;
+
+    private Contraction(FrozenGraph<?> graph, boolean parallel) {
+      n = graph.getNodeCount();
+      this.parallel = parallel;
+      out = new Edges[n];
+      in = new Edges[n];
+      int[] inDegrees = new int[n];
+      for (int target : graph.targets)
+        inDegrees[target]++;
+      for (int v = 0; v < n; v++) {
+        out[v] = new Edges(graph.offsets[v + 1] - graph.offsets[v]);
+        in[v] = new Edges(inDegrees[v]);
+      }
+      for (int v = 0; v < n; v++)
+        for (int edge = graph.offsets[v]; edge < graph.offsets[v + 1]; edge++) {
+          int target = graph.targets[edge];
+          if (target == v)
+            continue; // a loop is never part of a shortest path
+          out[v].addOrLower(target, graph.weights[edge], -1);
+          in[target].addOrLower(v, graph.weights[edge], -1);
+        }
+      contracted = new boolean[n];
+      ranks = new int[n];
+      priorities = new int[n];
+      levels = new int[n];
+      contractedNeighbors = new int[n];
+      witnesses = ThreadLocal.withInitial(() -> new Witnesses(n));
+    }
+
+    // returns the ids from 0 to count-1 as a stream, in parallel when requested
+    private IntStream range(int count) {
+      IntStream range = IntStream.range(0, count);
+      return parallel ? range.parallel() : range;
+    }
+
+    // contracts every node, in rounds of nodes that are less important than the nodes near them
+    private void run() {
+      int[] remaining = IntStream.range(0, n).toArray();
+      range(n).forEach(v -> priorities[v] = priority(v));
+      int nextRank = 0;
+      boolean[] affected = new boolean[n];
+      while (remaining.length > 0) {
+        int[] round = remaining;
+        int[] chosen = range(round.length).filter(i -> isLocalMinimum(round[i]))
+            .map(i -> round[i]).toArray();
+        for (int v : chosen)
+          contracted[v] = true;
+        // find every shortcut first, so that witness searches avoid all of this round's nodes
+        Shortcuts[] shortcuts = new Shortcuts[chosen.length];
+        range(chosen.length).forEach(i -> {
+          shortcuts[i] = new Shortcuts();
+          findShortcuts(chosen[i], WITNESS_LIMIT, shortcuts[i]);
+        });
+
+        int[] neighbors = new int[16];
+        int neighborCount = 0;
+        for (int i = 0; i < chosen.length; i++) {
+          int v = chosen[i];
+          ranks[v] = nextRank++;
+          for (int j = 0; j < shortcuts[i].size; j++) {
+            out[shortcuts[i].froms[j]].addOrLower(shortcuts[i].tos[j], shortcuts[i].weights[j], v);
+            in[shortcuts[i].tos[j]].addOrLower(shortcuts[i].froms[j], shortcuts[i].weights[j], v);
+          }
+          for (Edges edges : new Edges[] {out[v], in[v]})
+            for (int j = 0; j < edges.size; j++) {
+              int neighbor = edges.nodes[j];
+              levels[neighbor] = Math.max(levels[neighbor], levels[v] + 1);
+              contractedNeighbors[neighbor]++;
+              if (!affected[neighbor]) {
+                affected[neighbor] = true;
+                if (neighborCount == neighbors.length)
+                  neighbors = Arrays.copyOf(neighbors, 2 * neighborCount);
+                neighbors[neighborCount++] = neighbor;
+              }
+            }
+        }
+        // then drop the contracted nodes from their neighbors' edges, and estimate again how
+        // important those neighbors are
+        int[] changed = Arrays.copyOf(neighbors, neighborCount);
+        for (int v : changed) {
+          affected[v] = false;
+          out[v].removeContracted(contracted);
+          in[v].removeContracted(contracted);
+        }
+        range(changed.length).forEach(i -> priorities[changed[i]] = priority(changed[i]));
+        remaining = Arrays.stream(round).filter(v -> !contracted[v]).toArray();
+      }
+    }
+
+    // estimates how important it is to contract v late
+    private int priority(int v) {
+      int shortcuts = findShortcuts(v, ESTIMATE_LIMIT, null);
+      int edgeDifference = shortcuts - out[v].size - in[v].size;
+      return 4 * edgeDifference + contractedNeighbors[v] + 2 * levels[v];
+    }
+
+    // checks whether v is less important than every node within two edges of it, so that the
+    // nodes of a round are spread out over the graph and never share a neighbor
+    private boolean isLocalMinimum(int v) {
+      for (Edges edges : new Edges[] {out[v], in[v]})
+        for (int j = 0; j < edges.size; j++) {
+          int u = edges.nodes[j];
+          if (isBefore(u, v))
+            return false;
+          for (Edges next : new Edges[] {out[u], in[u]})
+            for (int k = 0; k < next.size; k++)
+              if (next.nodes[k] != v && isBefore(next.nodes[k], v))
+                return false;
+        }
+      return true;
+    }
+
+    // checks whether u is less important than v, breaking ties with a hash of each id
+    private boolean isBefore(int u, int v) {
+      return priorities[u] < priorities[v]
+          || (priorities[u] == priorities[v] && mix(u) < mix(v))
+          || (priorities[u] == priorities[v] && mix(u) == mix(v) && u < v);
+    }
+
+    // scrambles the bits of an id, so that ties between neighbors are not broken by id order
+    private static int mix(int id) {
+      int hash = id * 0x9E3779B9;
+      return hash ^ (hash >>> 16);
+    }
+
+    // finds the shortcuts that contracting v needs, between each node with an edge to v and each
+    // node with an edge from v, adding them to shortcuts unless that is null, and returns how many
+    // there are
+    private int findShortcuts(int v, int limit, Shortcuts shortcuts) {
+      Witnesses witnesses = this.witnesses.get();
+      Search search = witnesses.search;
+      Edges ins = in[v];
+      Edges outs = out[v];
+      double longestOut = 0.0;
+      for (int j = 0; j < outs.size; j++)
+        if (!contracted[outs.nodes[j]])
+          longestOut = Math.max(longestOut, outs.weights[j]);
+      int count = 0;
+      for (int i = 0; i < ins.size; i++) {
+        int u = ins.nodes[i];
+        if (contracted[u])
+          continue;
+        // look for paths from u that avoid v and are no longer than the paths through v, until
+        // every node that v has an edge to is settled
+        int targets = witnesses.markTargets(outs, u, contracted);
+        double bound = ins.weights[i] + longestOut;
+        search.start(u);
+        for (int settled = 0; targets > 0 && settled < limit && search.peekKey() <= bound;
+            settled++) {
+          int current = search.poll();
+          if (witnesses.isTarget(current))
+            targets--;
+          Edges edges = out[current];
+          double cost = search.costs[current];
+          for (int j = 0; j < edges.size; j++) {
+            int next = edges.nodes[j];
+            // a path longer than bound is never a witness, so it is not queued
+            if (cost + edges.weights[j] <= bound && next != v && !contracted[next])
+              search.relax(next, cost + edges.weights[j], current, -1);
+          }
+        }
+        for (int j = 0; j < outs.size; j++) {
+          int w = outs.nodes[j];
+          if (w == u || contracted[w])
+            continue;
+          double through = ins.weights[i] + outs.weights[j];
+          if (!search.isReached(w) || search.costs[w] > through) {
+            count++;
+            if (shortcuts != null)
+              shortcuts.add(u, w, through);
+          }
+        }
+      }
+      return count;
+    }
+  }
+
+}
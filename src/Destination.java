@@ -0,0 +1,47 @@
+/**
+ * This class stores one destination that was found for a group of start
+ * locations, along with the total cost of reaching it: the sum of the costs of
+ * the shortest paths to it from every one of those start locations.
+ *
+ * @param NodeType is the data type stored at each graph node
+ */
+public class Destination<NodeType> {
+
+  protected NodeType location;
+  protected double totalCost;
+
+  /**
+   * Creates a destination with the total cost of reaching it.
+   *
+   * @param location  the location of this destination
+   * @param totalCost the sum of the shortest path costs from every start location
+   */
+  public Destination(NodeType location, double totalCost) {
+    this.location = location;
+    this.totalCost = totalCost;
+  }
+
+  /**
+   * Returns the location of this destination.
+   *
+   * @return the location of this destination
+   */
+  public NodeType getLocation() {
+    return location;
+  }
+
+  /**
+   * Returns the total cost of reaching this destination.
+   *
+   * @return the sum of the shortest path costs from every start location
+   */
+  public double getTotalCost() {
+    return totalCost;
+  }
+
+  @Override
+  public String toString() {
+    return location + " (" + totalCost + ")";
+  }
+
+}
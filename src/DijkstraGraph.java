@@ -1,454 +1,1170 @@
-
-
-import java.util.PriorityQueue;
-import java.util.List;
-import java.util.LinkedList;
-import java.util.NoSuchElementException;
-import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.Assertions;
-import java.util.Arrays;
-
-/**
- * This class extends the BaseGraph data structure with additional methods for
- * computing the total cost and list of node data along the shortest path
- * connecting a provided starting to ending nodes. This class makes use of
- * Dijkstra's shortest path algorithm.
- */
-public class DijkstraGraph<NodeType, EdgeType extends Number>
-    extends BaseGraph<NodeType, EdgeType>
-    implements GraphADT<NodeType, EdgeType> {
-
-  /**
-   * While searching for the shortest path between two nodes, a SearchNode contains data about one
-   * specific path between the start node and another node in the graph. The final node in this path
-   * is stored in its node field. The total cost of this path is stored in its cost field. And the
-   * predecessor SearchNode within this path is referened by the predecessor field (this field is
-   * null within the SearchNode containing the starting node in its node field).
-   *
-   * SearchNodes are Comparable and are sorted by cost so that the lowest cost SearchNode has the
-   * highest priority within a java.util.PriorityQueue.
-   */
-  protected class SearchNode implements Comparable<SearchNode> {
-    public Node node;
-    public double cost;
-    public SearchNode predecessor;
-
-    public SearchNode(Node node, double cost, SearchNode predecessor) {
-      this.node = node;
-      this.cost = cost;
-      this.predecessor = predecessor;
-    }
-
-    public int compareTo(SearchNode other) {
-      if (cost < other.cost) {
-        return -1;
-      }
-      if (cost > other.cost) {
-        return +1;
-      }
-      return 0;
-    }
-  }
-
-  /**
-   * Constructor that sets the map that the graph uses.
-   */
-  public DijkstraGraph() {
-    super(new HashtableMap<>());
-  }
-
-  /**
-   * This helper method creates a network of SearchNodes while computing the shortest path between
-   * the provided start and end locations. The SearchNode that is returned by this method is
-   * represents the end of the shortest path that is found: it's cost is the cost of that shortest
-   * path, and the nodes linked together through predecessor references represent all of the nodes
-   * along that shortest path (ordered from end to start).
-   *
-   * @param start the data item in the starting node for the path
-   * @param end   the data item in the destination node for the path
-   * @return SearchNode for the final end node within the shortest path
-   * @throws NoSuchElementException when no path from start to end is found or when either start or
-   *                                end data do not correspond to a graph node
-   */
-  protected SearchNode computeShortestPath(NodeType start, NodeType end) {
-    // implement in step 5.3
-    if (start == null || !this.containsNode(start) || end == null || !this.containsNode(end))
-      throw new NoSuchElementException("The start or end node is not found");
-    //throws exception for null elements
-    // Retrieve the starting node from the graph then
-    // Maps nodes to their corresponding SearchNodes to track the shortest path
-    // at last building a Priority queue for selecting the node with the lowest path cost
-    BaseGraph<NodeType, EdgeType>.Node startNodeType = this.nodes.get(start);
-    HashtableMap<NodeType, SearchNode> visited = new HashtableMap<>();
-    PriorityQueue<SearchNode> queue = new PriorityQueue<SearchNode>();
-    SearchNode toStart = new SearchNode(startNodeType, 0, null);
-    //adding the first element to the queue
-    //visited.put(start, toStart);
-    queue.add(toStart);
-    while (!queue.isEmpty()) {
-      //checking if the current node is already visited or not
-      SearchNode current = queue.remove();
-      if (!visited.containsKey(current.node.data)) {
-        visited.put(current.node.data, current);
-
-        if (visited.containsKey(current.node.data)) {
-          if (visited.get(current.node.data).cost > current.cost) {
-            visited.get(current.node.data).cost = current.cost;
-          }
-        }
-        // Explore all outgoing edges from the current node
-        for (Edge next : current.node.edgesLeaving) {
-          SearchNode nextNode =
-              new SearchNode(next.successor, current.cost + next.data.doubleValue(), current);
-
-          if (!visited.containsKey(nextNode.node.data)) {
-            queue.add(nextNode);
-
-          }
-        }
-      }
-    }
-    //returns the last search node with the path or throws exception
-    if (visited.containsKey(end))
-      return visited.get(end);
-    else
-      throw new NoSuchElementException("No path found");
-  }
-
-  /**
-   * Returns the list of data values from nodes along the shortest path from the node with the
-   * provided start value through the node with the provided end value. This list of data values
-   * starts with the start value, ends with the end value, and contains intermediary values in the
-   * order they are encountered while traversing this shorteset path. This method uses Dijkstra's
-   * shortest path algorithm to find this solution.
-   *
-   * @param start the data item in the starting node for the path
-   * @param end   the data item in the destination node for the path
-   * @return list of data item from node along this shortest path
-   */
-  public List<NodeType> shortestPathData(NodeType start, NodeType end) {
-    // implement in step 5.4
-    //makes new objects
-    SearchNode result = computeShortestPath(start, end);
-    LinkedList<NodeType> EndResult = new LinkedList<NodeType>();
-    while (result.predecessor != null) {
-      //cycles and adds elements from the search node
-      EndResult.add(0, result.node.data);
-      result = result.predecessor;
-    }
-    //adds the start node, predecessor is null and not added in loop
-    EndResult.add(0, result.node.data);
-    return EndResult;
-  }
-
-  /**
-   * Returns the cost of the path (sum over edge weights) of the shortest path freom the node
-   * containing the start data to the node containing the end data. This method uses Dijkstra's
-   * shortest path algorithm to find this solution.
-   *
-   * @param start the data item in the starting node for the path
-   * @param end   the data item in the destination node for the path
-   * @return the cost of the shortest path between these nodes
-   */
-  public double shortestPathCost(NodeType start, NodeType end) {
-    // implement in step 5.4
-    //gets the value with the end node
-    SearchNode result = computeShortestPath(start, end);
-    return result.cost;
-  }
-
-
-
-
-  // TODO: implement 3+ tests in step 4.1
-
-  /**
-   * Tests the DijkstraGraph class by finding the shortest path and its cost from node "A" to node
-   * "E". The test uses a directed graph and validates that the computed path and cost match the
-   * expected results based on the lecture example. The expected shortest path is ["A", "B", "D",
-   * "E"], and the expected cost is 8.0. This test ensures that the Dijkstra algorithm correctly
-   * computes the shortest path and cost in a directed graph.
-   */
-  @Test
-  public void testShortestPathAtoE() {
-    // Creating a new graph object and adding all node objects
-    DijkstraGraph<String, Double> example = new DijkstraGraph<>();
-    example.insertNode("A");
-    example.insertNode("B");
-    example.insertNode("C");
-    example.insertNode("D");
-    example.insertNode("E");
-    example.insertNode("F");
-    example.insertNode("G");
-    example.insertNode("H");
-
-    // Inserting all weighted edges, THIS IS A DIRECTED GRAPH AS PER THE LECTURE
-    example.insertEdge("A", "B", 4.0);
-    //example.insertEdge("B", "A", 4.0);
-    example.insertEdge("A", "C", 2.0);
-    //example.insertEdge("C", "A", 2.0);
-    example.insertEdge("B", "D", 1.0);
-    //example.insertEdge("D", "B", 1.0);
-    example.insertEdge("B", "E", 10.0);
-    // example.insertEdge("E", "B", 10.0);
-    example.insertEdge("C", "D", 5.0);
-    //example.insertEdge("D", "C", 5.0);
-    example.insertEdge("D", "E", 3.0);
-    //  example.insertEdge("E", "D", 3.0);
-    example.insertEdge("D", "F", 0.0);
-    example.insertEdge("F", "D", 2.0);
-    // example.insertEdge("E", "F", 0.0);
-    //   example.insertEdge("F", "E", 0.0);
-    //  example.insertEdge("E", "G", 0.0);
-    // example.insertEdge("G", "E", 0.0);
-    example.insertEdge("F", "H", 4.0);
-    //  example.insertEdge("H", "F", 4.0);
-    example.insertEdge("G", "H", 4.0);
-    // example.insertEdge("H", "G", 4.0);
-
-    List<String> shortestPath = example.shortestPathData("A", "E");
-
-    // Expected path and cost based on the class example
-    List<String> expectedPath = Arrays.asList("A", "B", "D", "E");
-    double expectedCost = 8.0;
-
-    // Assert the path and cost to verify correctness
-    Assertions.assertEquals(expectedPath, shortestPath,
-        "The shortest path should match the expected path.");
-    Assertions.assertEquals(expectedCost, example.shortestPathCost("A", "E"),
-        "The shortest path cost should match the expected cost.");
-  }
-
-  /**
-   * Tests the DijkstraGraph class by finding the shortest path and its cost from node "C" to node
-   * "H". The test ensures that the Dijkstra algorithm correctly computes the shortest path and cost
-   * between the specified start and end nodes, with the expected path ["C", "D", "F", "H"] and
-   * expected cost 9.0. This test verifies that the algorithm handles different node pairs
-   * properly.
-   */
-  @Test
-  public void testShortestPathCtoH() {
-    // Creating a new graph object and adding all node objects
-    DijkstraGraph<String, Double> example = new DijkstraGraph<>();
-    example.insertNode("A");
-    example.insertNode("B");
-    example.insertNode("C");
-    example.insertNode("D");
-    example.insertNode("E");
-    example.insertNode("F");
-    example.insertNode("G");
-    example.insertNode("H");
-
-    example.insertEdge("A", "B", 4.0);
-    example.insertEdge("A", "C", 2.0);
-    example.insertEdge("B", "D", 1.0);
-    example.insertEdge("B", "E", 10.0);
-    example.insertEdge("C", "D", 5.0);
-    example.insertEdge("D", "E", 3.0);
-    example.insertEdge("D", "F", 0.0);
-    example.insertEdge("F", "D", 2.0);
-    example.insertEdge("F", "H", 4.0);
-    example.insertEdge("G", "H", 4.0);
-
-    List<String> expectedPath = Arrays.asList("C", "D", "F", "H");
-    double expectedCost = 9.0;
-
-    // Assert the path and cost to verify correctness
-    Assertions.assertEquals(expectedPath, example.shortestPathData("C", "H"),
-        "The shortest path should match the expected path.");
-    Assertions.assertEquals(expectedCost, example.shortestPathCost("C", "H"),
-        "The shortest path cost should match the expected cost.");
-  }
-
-  /**
-   * Tests the DijkstraGraph class by verifying that an exception is thrown when no path exists
-   * between two nodes in the graph. Specifically, the test checks the case where there is no path
-   * between nodes "E" and "A". The expected exception is a NoSuchElementException with the message
-   * "There is no path found", which is tested to ensure proper exception handling when no valid
-   * path exists.
-   */
-  @Test
-  public void testIncompletePath() {
-    DijkstraGraph<String, Double> example = new DijkstraGraph<>();
-    example.insertNode("A");
-    example.insertNode("B");
-    example.insertNode("C");
-    example.insertNode("D");
-    example.insertNode("E");
-    example.insertNode("F");
-    example.insertNode("G");
-    example.insertNode("H");
-
-    example.insertEdge("A", "B", 4.0);
-    example.insertEdge("A", "C", 2.0);
-    example.insertEdge("B", "D", 1.0);
-    example.insertEdge("B", "E", 10.0);
-    example.insertEdge("C", "D", 5.0);
-    example.insertEdge("D", "E", 3.0);
-    example.insertEdge("D", "F", 0.0);
-    example.insertEdge("F", "D", 2.0);
-    example.insertEdge("F", "H", 4.0);
-    example.insertEdge("G", "H", 4.0);
-
-    Exception exceptionMethod = Assertions.assertThrows(NoSuchElementException.class, () -> {
-      example.shortestPathData("E", "A");
-    });
-
-    String expectedMessage = "No path found";
-    String actualMessage = exceptionMethod.getMessage();
-
-    //tests the methods of the class, making sure the calculated values match properly
-    Assertions.assertTrue(actualMessage.contains(expectedMessage), "test FAILED");
-  }
-
-  /**
-   * Tests the DijkstraGraph class by finding the shortest path and its cost from node "A" to node
-   * "E". The test uses an Undirected graph and validates that the computed path and cost match the
-   * expected results based on the lecture example. The expected shortest path is ["A", "B", "D",
-   * "F", "E"], and the expected cost is 5.0. This test ensures that the Dijkstra algorithm
-   * correctly computes the shortest path and cost in an undirected graph.
-   */
-  @Test
-  public void testShortestPathUndirectedAtoE() {
-    // Creating a new graph object and adding all node objects
-    DijkstraGraph<String, Double> example = new DijkstraGraph<>();
-    example.insertNode("A");
-    example.insertNode("B");
-    example.insertNode("C");
-    example.insertNode("D");
-    example.insertNode("E");
-    example.insertNode("F");
-    example.insertNode("G");
-    example.insertNode("H");
-
-    // Inserting all weighted edges, THIS IS A DIRECTED GRAPH AS PER THE LECTURE
-    example.insertEdge("A", "B", 4.0);
-    example.insertEdge("B", "A", 4.0);
-    example.insertEdge("A", "C", 2.0);
-    example.insertEdge("C", "A", 2.0);
-    example.insertEdge("B", "D", 1.0);
-    example.insertEdge("D", "B", 1.0);
-    example.insertEdge("B", "E", 10.0);
-    example.insertEdge("E", "B", 10.0);
-    example.insertEdge("C", "D", 5.0);
-    example.insertEdge("D", "C", 5.0);
-    example.insertEdge("D", "E", 3.0);
-    example.insertEdge("E", "D", 3.0);
-    example.insertEdge("D", "F", 0.0);
-    example.insertEdge("F", "D", 2.0);
-    example.insertEdge("E", "F", 0.0);
-    example.insertEdge("F", "E", 0.0);
-    example.insertEdge("E", "G", 0.0);
-    example.insertEdge("G", "E", 0.0);
-    example.insertEdge("F", "H", 4.0);
-    example.insertEdge("H", "F", 4.0);
-    example.insertEdge("G", "H", 4.0);
-    example.insertEdge("H", "G", 4.0);
-
-    List<String> shortestPath = example.shortestPathData("A", "E");
-
-    // Expected path and cost based on the class example
-    List<String> expectedPath = Arrays.asList("A", "B", "D", "F", "E");
-    double expectedCost = 5.0;
-
-    // Assert the path and cost to verify correctness
-    Assertions.assertEquals(expectedPath, shortestPath,
-        "The shortest path should match the expected path.");
-    Assertions.assertEquals(expectedCost, example.shortestPathCost("A", "E"),
-        "The shortest path cost should match the expected cost.");
-  }
-
-  /**
-   * This test checks if the algorithm correctly handles the case where the start and
-   * end nodes are the same and there are no edges.
-   */
-  @Test
-  public void testSingleNodeGraph() {
-    DijkstraGraph<String, Double> example = new DijkstraGraph<>();
-    example.insertNode("A");
-
-    // In this case, the start node is the same as the end node
-    List<String> shortestPath = example.shortestPathData("A", "A");
-    double shortestCost = example.shortestPathCost("A", "A");
-
-    // The shortest path should just be ["A"], and cost should be 0.0
-    Assertions.assertEquals(Arrays.asList("A"), shortestPath, "The path should be just ['A']");
-    Assertions.assertEquals(0.0, shortestCost, "The cost should be 0.0");
-  }
-  /**
-   * Edge case for testing shortest path when end and starting Destinations are the same
-   */
-  @Test
-  public void testShortestPathUndirectedAtoA() {
-    // Creating a new graph object and adding all node objects
-    DijkstraGraph<String, Double> example = new DijkstraGraph<>();
-    example.insertNode("A");
-    example.insertNode("B");
-    example.insertNode("C");
-    example.insertNode("D");
-    example.insertNode("E");
-    example.insertNode("F");
-    example.insertNode("G");
-    example.insertNode("H");
-
-    // Inserting all weighted edges, THIS IS A DIRECTED GRAPH AS PER THE LECTURE
-    example.insertEdge("A", "B", 4.0);
-    example.insertEdge("B", "A", 4.0);
-    example.insertEdge("A", "C", 2.0);
-    example.insertEdge("C", "A", 2.0);
-    example.insertEdge("B", "D", 1.0);
-    example.insertEdge("D", "B", 1.0);
-    example.insertEdge("B", "E", 10.0);
-    example.insertEdge("E", "B", 10.0);
-    example.insertEdge("C", "D", 5.0);
-    example.insertEdge("D", "C", 5.0);
-    example.insertEdge("D", "E", 3.0);
-    example.insertEdge("E", "D", 3.0);
-    example.insertEdge("D", "F", 0.0);
-    example.insertEdge("F", "D", 2.0);
-    example.insertEdge("E", "F", 0.0);
-    example.insertEdge("F", "E", 0.0);
-    example.insertEdge("E", "G", 0.0);
-    example.insertEdge("G", "E", 0.0);
-    example.insertEdge("F", "H", 4.0);
-    example.insertEdge("H", "F", 4.0);
-    example.insertEdge("G", "H", 4.0);
-    example.insertEdge("H", "G", 4.0);
-
-    List<String> shortestPath = example.shortestPathData("A", "A");
-
-    // Expected path and cost based on the class example
-    List<String> expectedPath = Arrays.asList("A");
-    double expectedCost = 0.0;
-    Assertions.assertEquals(expectedPath, shortestPath,
-        "The shortest path should match the expected path.");
-    Assertions.assertEquals(expectedCost, example.shortestPathCost("A", "A"),
-        "The shortest path cost should match the expected cost.");
-  }
-
-  /**
-   * Test when the graph contains a cycle
-   */
-
-  @Test
-  public void testCyclicGraph() {
-    DijkstraGraph<String, Double> example = new DijkstraGraph<>();
-    example.insertNode("A");
-    example.insertNode("B");
-    example.insertNode("C");
-
-    example.insertEdge("A", "B", 5.0);
-    example.insertEdge("B", "C", 10.0);
-    example.insertEdge("C", "A", 15.0); // This creates a cycle
-
-    List<String> shortestPath = example.shortestPathData("A", "C");
-    double shortestCost = example.shortestPathCost("A", "C");
-
-    List<String> expectedPath = Arrays.asList("A", "B", "C");
-    double expectedCost = 15.0;
-
-    Assertions.assertEquals(expectedPath, shortestPath);
-    Assertions.assertEquals(expectedCost, shortestCost);
-  }
-
-}
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.LinkedList;
+import java.util.NoSuchElementException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Assertions;
+import java.util.Arrays;
+
+/**
+ * This class extends the BaseGraph data structure with additional methods for
+ * computing the total cost and list of node data along the shortest path
+ * connecting a provided starting to ending nodes. This class makes use of
+ * Dijkstra's shortest path algorithm.
+ */
+public class DijkstraGraph<NodeType, EdgeType extends Number>
+    extends BaseGraph<NodeType, EdgeType>
+    implements GraphADT<NodeType, EdgeType> {
+
+  /**
+   * The algorithms that point to point shortest path queries can be answered with. Every mode
+   * finds a path with the same (shortest) cost.
+   */
+  public enum SearchMode {
+    DIJKSTRA,      // a single search growing forward from the start node
+    BIDIRECTIONAL, // searches forward from the start and backward from the end until they meet
+    ALT            // an A* search toward the end node, guided by bounds from landmark costs
+  }
+
+  /**
+   * While searching for the shortest path between two nodes, a SearchNode contains data about one
+   * specific path between the start node and another node in the graph. The final node in this path
+   * is stored in its node field. The total cost of this path is stored in its cost field. And the
+   * predecessor SearchNode within this path is referened by the predecessor field, and the edge
+   * from that predecessor's node to this one by the edge field (both fields are null within the
+   * SearchNode containing the starting node in its node field).
+   *
+   * SearchNodes are Comparable and are sorted by cost so that the lowest cost SearchNode has the
+   * highest priority. The search itself orders nodes by id in an IndexedMinHeap, and SearchNodes
+   * are only linked together for the path that it finds.
+   */
+  protected class SearchNode implements Comparable<SearchNode> {
+    public Node node;
+    public double cost;
+    public SearchNode predecessor;
+    public Edge edge;
+
+    public SearchNode(Node node, double cost, SearchNode predecessor) {
+      this(node, cost, predecessor, null);
+    }
+
+    public SearchNode(Node node, double cost, SearchNode predecessor, Edge edge) {
+      this.node = node;
+      this.cost = cost;
+      this.predecessor = predecessor;
+      this.edge = edge;
+    }
+
+    public int compareTo(SearchNode other) {
+      if (cost < other.cost) {
+        return -1;
+      }
+      if (cost > other.cost) {
+        return +1;
+      }
+      return 0;
+    }
+  }
+
+  // the snapshot most recently returned by freeze(), and the modCount it was built at
+  protected FrozenGraph<NodeType> frozen = null;
+  protected int frozenModCount = -1;
+
+  // remembers recently found routes for shortestPathRoute(start, end), or null for no caching
+  protected RouteCache<NodeType> routeCache = null;
+
+  // the landmark costs that ALT searches are guided by, the modCount they were computed at, and
+  // the number of landmarks to choose when they are computed again
+  protected LandmarkIndex landmarks = null;
+  protected int landmarksModCount = -1;
+  protected int landmarkCount = LandmarkIndex.DEFAULT_LANDMARKS;
+
+  // the hub labels that shortestPathCost answers from once they have been computed, and the
+  // modCount they were computed at
+  protected HubLabelIndex<NodeType> hubLabels = null;
+  protected int hubLabelsModCount = -1;
+
+  /**
+   * Constructor that sets the map that the graph uses.
+   */
+  public DijkstraGraph() {
+    super(new OpenHashtableMap<>());
+  }
+
+  /**
+   * This helper method runs Dijkstra's algorithm from the start node over the graph's dense node
+   * ids. Each node is kept in the queue at most once: when a shorter path to a queued node is
+   * found, its cost is lowered in place instead of queueing a duplicate. The search stops as soon
+   * as the end node is settled, or settles every reachable node when end is null.
+   *
+   * @param start        the node to start searching from
+   * @param end          the node to stop at once it is settled, or null to settle every node
+   * @param predecessors filled with the id of each settled node's predecessor (-1 for start)
+   * @param settled      filled with the ids of the settled nodes, in the order they are settled
+   * @return the queue used for this search, whose keys hold the costs of the settled nodes
+   */
+  protected IndexedMinHeap search(Node start, Node end, int[] predecessors, int[] settled) {
+    return search(start, end, predecessors, null, settled);
+  }
+
+  // creates an array with room for one edge per node id, such as the edge each node was reached by
+  @SuppressWarnings("unchecked")
+  protected Edge[] newEdgeArray() {
+    return (Edge[]) new BaseGraph.Edge[nodesById.size()];
+  }
+
+  /**
+   * This helper method runs the same search as search(start, end, predecessors, settled), and
+   * also records the edge that reaches each settled node, so that the weights along a path can
+   * be read without looking for its edges again.
+   *
+   * @param start            the node to start searching from
+   * @param end              the node to stop at once it is settled, or null to settle every node
+   * @param predecessors     filled with the id of each settled node's predecessor (-1 for start)
+   * @param predecessorEdges filled with the edge from each settled node's predecessor, or null
+   *                         when these are not needed
+   * @param settled          filled with the ids of the settled nodes, in the order they are
+   *                         settled
+   * @return the queue used for this search, whose keys hold the costs of the settled nodes
+   */
+  protected IndexedMinHeap search(Node start, Node end, int[] predecessors, Edge[] predecessorEdges,
+      int[] settled) {
+    IndexedMinHeap queue = new IndexedMinHeap(nodesById.size());
+    int settledCount = 0;
+    queue.addOrDecrease(start.id, 0.0);
+    predecessors[start.id] = -1;
+    while (!queue.isEmpty()) {
+      int current = queue.removeMin();
+      settled[settledCount++] = current;
+      if (nodesById.get(current) == end)
+        break;
+      // relax all outgoing edges from the current node
+      double cost = queue.getKey(current);
+      for (Edge next : nodesById.get(current).edgesLeaving)
+        if (queue.addOrDecrease(next.successor.id, cost + next.data.doubleValue())) {
+          predecessors[next.successor.id] = current;
+          if (predecessorEdges != null)
+            predecessorEdges[next.successor.id] = next;
+        }
+    }
+    // mark the end of the settled ids when fewer than all nodes were settled
+    if (settledCount < settled.length)
+      settled[settledCount] = -1;
+    return queue;
+  }
+
+  /**
+   * This helper method creates a network of SearchNodes while computing the shortest path between
+   * the provided start and end locations. The SearchNode that is returned by this method is
+   * represents the end of the shortest path that is found: it's cost is the cost of that shortest
+   * path, and the nodes linked together through predecessor references represent all of the nodes
+   * along that shortest path (ordered from end to start).
+   *
+   * @param start the data item in the starting node for the path
+   * @param end   the data item in the destination node for the path
+   * @return SearchNode for the final end node within the shortest path
+   * @throws NoSuchElementException when no path from start to end is found or when either start or
+   *                                end data do not correspond to a graph node
+   */
+  protected SearchNode computeShortestPath(NodeType start, NodeType end) {
+    return computeShortestPath(start, end, SearchMode.DIJKSTRA);
+  }
+
+  /**
+   * This helper method computes the shortest path between the provided start and end locations
+   * with the requested search mode, and returns the SearchNode at the end of that path just like
+   * computeShortestPath(start, end) does.
+   *
+   * @param start the data item in the starting node for the path
+   * @param end   the data item in the destination node for the path
+   * @param mode  the algorithm used to search for the path
+   * @return SearchNode for the final end node within the shortest path
+   * @throws NoSuchElementException when no path from start to end is found or when either start or
+   *                                end data do not correspond to a graph node
+   */
+  protected SearchNode computeShortestPath(NodeType start, NodeType end, SearchMode mode) {
+    if (start == null || !this.containsNode(start) || end == null || !this.containsNode(end))
+      throw new NoSuchElementException("The start or end node is not found");
+    Node startNode = this.nodes.get(start);
+    Node endNode = this.nodes.get(end);
+    if (mode == SearchMode.BIDIRECTIONAL)
+      return computeBidirectionalPath(startNode, endNode);
+    if (mode == SearchMode.ALT)
+      return computeLandmarkPath(startNode, endNode);
+
+    // search from start, stopping once end has been settled
+    int[] predecessors = new int[nodesById.size()];
+    Edge[] predecessorEdges = newEdgeArray();
+    int[] settled = new int[nodesById.size()];
+    IndexedMinHeap queue = search(startNode, endNode, predecessors, predecessorEdges, settled);
+    if (!queue.isSettled(endNode.id))
+      throw new NoSuchElementException("No path found");
+    // link SearchNodes along the path found, from start through end
+    SearchNode result = null;
+    LinkedList<Integer> path = new LinkedList<>();
+    for (int id = endNode.id; id != -1; id = predecessors[id])
+      path.addFirst(id);
+    for (int id : path)
+      result = new SearchNode(nodesById.get(id), queue.getKey(id), result, predecessorEdges[id]);
+    return result;
+  }
+
+  /**
+   * This helper method searches forward from the start node along edgesLeaving and backward from
+   * the end node along edgesEntering at the same time, always expanding whichever frontier has the
+   * lower cost. Whenever an edge joins a node reached by one search to a node reached by the other,
+   * the path through that edge becomes a candidate. The search stops once the two frontiers' lowest
+   * costs add up to at least the best candidate's cost, as no shorter path can be found after that.
+   *
+   * @param startNode the node in which the path starts
+   * @param endNode   the node in which the path ends
+   * @return SearchNode for the final end node within the shortest path
+   * @throws NoSuchElementException when no path from start to end is found
+   */
+  protected SearchNode computeBidirectionalPath(Node startNode, Node endNode) {
+    if (startNode == endNode)
+      return new SearchNode(startNode, 0.0, null);
+    IndexedMinHeap forward = new IndexedMinHeap(nodesById.size());
+    IndexedMinHeap backward = new IndexedMinHeap(nodesById.size());
+    // the previous node on the path from start, and the next node on the path to end, along with
+    // the edges to and from them
+    int[] predecessors = new int[nodesById.size()];
+    int[] successors = new int[nodesById.size()];
+    Edge[] predecessorEdges = newEdgeArray();
+    Edge[] successorEdges = newEdgeArray();
+    forward.addOrDecrease(startNode.id, 0.0);
+    backward.addOrDecrease(endNode.id, 0.0);
+    predecessors[startNode.id] = -1;
+    successors[endNode.id] = -1;
+
+    // the cost of the best path found so far, and the edge where its two halves meet
+    double best = Double.POSITIVE_INFINITY;
+    int meetFrom = -1;
+    int meetTo = -1;
+    Edge meetEdge = null;
+    while (!forward.isEmpty() && !backward.isEmpty()
+        && forward.peekKey() + backward.peekKey() < best) {
+      if (forward.peekKey() <= backward.peekKey()) {
+        // settle the next node of the forward search, and relax the edges leaving it
+        int current = forward.removeMin();
+        double cost = forward.getKey(current);
+        for (Edge next : nodesById.get(current).edgesLeaving) {
+          int id = next.successor.id;
+          double weight = next.data.doubleValue();
+          if (forward.addOrDecrease(id, cost + weight)) {
+            predecessors[id] = current;
+            predecessorEdges[id] = next;
+          }
+          if (backward.isReached(id) && cost + weight + backward.getKey(id) < best) {
+            best = cost + weight + backward.getKey(id);
+            meetFrom = current;
+            meetTo = id;
+            meetEdge = next;
+          }
+        }
+      } else {
+        // settle the next node of the backward search, and relax the edges entering it
+        int current = backward.removeMin();
+        double cost = backward.getKey(current);
+        for (Edge next : nodesById.get(current).edgesEntering) {
+          int id = next.predecessor.id;
+          double weight = next.data.doubleValue();
+          if (backward.addOrDecrease(id, cost + weight)) {
+            successors[id] = current;
+            successorEdges[id] = next;
+          }
+          if (forward.isReached(id) && forward.getKey(id) + weight + cost < best) {
+            best = forward.getKey(id) + weight + cost;
+            meetFrom = id;
+            meetTo = current;
+            meetEdge = next;
+          }
+        }
+      }
+    }
+    if (meetFrom == -1)
+      throw new NoSuchElementException("No path found");
+
+    // link SearchNodes from start to the meeting edge, and then on from there to end
+    LinkedList<Integer> path = new LinkedList<>();
+    for (int id = meetFrom; id != -1; id = predecessors[id])
+      path.addFirst(id);
+    SearchNode result = null;
+    for (int id : path)
+      result = new SearchNode(nodesById.get(id), forward.getKey(id), result, predecessorEdges[id]);
+    Edge edge = meetEdge;
+    for (int id = meetTo; id != -1; edge = successorEdges[id], id = successors[id])
+      result = new SearchNode(nodesById.get(id), best - backward.getKey(id), result, edge);
+    return result;
+  }
+
+  /**
+   * This helper method runs an A* search from the start node toward the end node, where each
+   * node's key is the cost of the path found to it plus the landmarks' lower bound on the cost of
+   * the rest of the path to end. Since those bounds never overestimate, and never drop by more
+   * than the weight of an edge from one node to the next, every node is still settled with the
+   * cost of its shortest path, but nodes leading away from end are settled much later, if at all.
+   *
+   * @param startNode the node in which the path starts
+   * @param endNode   the node in which the path ends
+   * @return SearchNode for the final end node within the shortest path
+   * @throws NoSuchElementException when no path from start to end is found
+   */
+  protected SearchNode computeLandmarkPath(Node startNode, Node endNode) {
+    int[] predecessors = new int[nodesById.size()];
+    Edge[] predecessorEdges = newEdgeArray();
+    double[] costs = new double[nodesById.size()];
+    IndexedMinHeap queue = searchWithLandmarks(startNode, endNode, getLandmarks(), predecessors,
+        predecessorEdges, costs);
+    if (!queue.isSettled(endNode.id))
+      throw new NoSuchElementException("No path found");
+    // link SearchNodes along the path found, from start through end
+    SearchNode result = null;
+    LinkedList<Integer> path = new LinkedList<>();
+    for (int id = endNode.id; id != -1; id = predecessors[id])
+      path.addFirst(id);
+    for (int id : path)
+      result = new SearchNode(nodesById.get(id), costs[id], result, predecessorEdges[id]);
+    return result;
+  }
+
+  /**
+   * This helper method runs the A* search of computeLandmarkPath, stopping as soon as the end
+   * node is settled. Nodes that the landmarks show cannot reach end are never queued.
+   *
+   * @param start        the node to start searching from
+   * @param end          the node to search toward
+   * @param index        the landmark costs to compute lower bounds from
+   * @param predecessors     filled with the id of each reached node's predecessor (-1 for start)
+   * @param predecessorEdges filled with the edge from each reached node's predecessor
+   * @param costs            filled with the cost of the path found to each reached node
+   * @return the queue used for this search, whose keys hold the costs plus the lower bounds
+   */
+  protected IndexedMinHeap searchWithLandmarks(Node start, Node end, LandmarkIndex index,
+      int[] predecessors, Edge[] predecessorEdges, double[] costs) {
+    IndexedMinHeap queue = new IndexedMinHeap(nodesById.size());
+    queue.addOrDecrease(start.id, index.lowerBound(start.id, end.id));
+    predecessors[start.id] = -1;
+    costs[start.id] = 0.0;
+    while (!queue.isEmpty()) {
+      int current = queue.removeMin();
+      if (current == end.id)
+        break;
+      // relax all outgoing edges from the current node
+      double cost = costs[current];
+      for (Edge next : nodesById.get(current).edgesLeaving) {
+        int id = next.successor.id;
+        double newCost = cost + next.data.doubleValue();
+        if (queue.isSettled(id) || (queue.isReached(id) && newCost >= costs[id]))
+          continue;
+        double bound = index.lowerBound(id, end.id);
+        if (bound == Double.POSITIVE_INFINITY)
+          continue; // end cannot be reached from id
+        predecessors[id] = current;
+        predecessorEdges[id] = next;
+        costs[id] = newCost;
+        queue.addOrDecrease(id, newCost + bound);
+      }
+    }
+    return queue;
+  }
+
+  /**
+   * Chooses landmarks and computes the costs from and to each of them, which ALT searches are
+   * guided by. ALT searches compute these with the same number of landmarks as was last
+   * requested here (or LandmarkIndex.DEFAULT_LANDMARKS) on their own, the first time they run
+   * after this graph was modified, so calling this method is only needed to choose that number,
+   * or to compute them ahead of the first query.
+   *
+   * @param count the largest number of landmarks to choose
+   * @return the landmark costs for this graph as it is now
+   * @throws IllegalArgumentException if count is not positive
+   */
+  public synchronized LandmarkIndex preprocessLandmarks(int count) {
+    if (count <= 0)
+      throw new IllegalArgumentException("At least one landmark must be requested");
+    landmarkCount = count;
+    landmarks = new LandmarkIndex(freeze(), count);
+    landmarksModCount = modCount;
+    return landmarks;
+  }
+
+  // returns the landmark costs for this graph as it is now, computing them again if needed
+  protected synchronized LandmarkIndex getLandmarks() {
+    if (landmarks == null || landmarksModCount != modCount)
+      preprocessLandmarks(landmarkCount);
+    return landmarks;
+  }
+
+  /**
+   * Computes hub labels for this graph as it is now, which shortestPathCost(start, end) then
+   * answers from, without searching, until this graph is modified. After that, it searches again
+   * until this method is called again, since computing the labels takes much longer than a search.
+   * Costs from the labels may differ from the costs a search finds in their last bits.
+   *
+   * @return the hub labels for this graph as it is now
+   */
+  public synchronized HubLabelIndex<NodeType> preprocessHubLabels() {
+    hubLabels = new HubLabelIndex<>(freeze());
+    hubLabelsModCount = modCount;
+    return hubLabels;
+  }
+
+  // returns the hub labels for this graph as it is now, or null when there are none
+  protected synchronized HubLabelIndex<NodeType> getHubLabels() {
+    return hubLabelsModCount == modCount ? hubLabels : null;
+  }
+
+  /**
+   * Returns the list of data values from nodes along the shortest path from the node with the
+   * provided start value through the node with the provided end value. This list of data values
+   * starts with the start value, ends with the end value, and contains intermediary values in the
+   * order they are encountered while traversing this shorteset path. This method uses Dijkstra's
+   * shortest path algorithm to find this solution.
+   *
+   * @param start the data item in the starting node for the path
+   * @param end   the data item in the destination node for the path
+   * @return list of data item from node along this shortest path
+   */
+  public List<NodeType> shortestPathData(NodeType start, NodeType end) {
+    return shortestPathData(start, end, SearchMode.DIJKSTRA);
+  }
+
+  /**
+   * Returns the list of data values from nodes along the shortest path from the node with the
+   * provided start value through the node with the provided end value, using the requested search
+   * mode to find it.
+   *
+   * @param start the data item in the starting node for the path
+   * @param end   the data item in the destination node for the path
+   * @param mode  the algorithm used to search for the path
+   * @return list of data item from node along this shortest path
+   */
+  public List<NodeType> shortestPathData(NodeType start, NodeType end, SearchMode mode) {
+    //makes new objects
+    SearchNode result = computeShortestPath(start, end, mode);
+    LinkedList<NodeType> EndResult = new LinkedList<NodeType>();
+    while (result.predecessor != null) {
+      //cycles and adds elements from the search node
+      EndResult.add(0, result.node.data);
+      result = result.predecessor;
+    }
+    //adds the start node, predecessor is null and not added in loop
+    EndResult.add(0, result.node.data);
+    return EndResult;
+  }
+
+  /**
+   * Returns the cost of the path (sum over edge weights) of the shortest path freom the node
+   * containing the start data to the node containing the end data. This method uses Dijkstra's
+   * shortest path algorithm to find this solution, unless hub labels were computed for this graph
+   * as it is now by preprocessHubLabels, which answer it without a search.
+   *
+   * @param start the data item in the starting node for the path
+   * @param end   the data item in the destination node for the path
+   * @return the cost of the shortest path between these nodes
+   */
+  public double shortestPathCost(NodeType start, NodeType end) {
+    HubLabelIndex<NodeType> labels = getHubLabels();
+    if (labels != null)
+      return labels.shortestPathCost(start, end);
+    return shortestPathCost(start, end, SearchMode.DIJKSTRA);
+  }
+
+  /**
+   * Returns the cost of the shortest path from the node containing the start data to the node
+   * containing the end data, using the requested search mode to find it.
+   *
+   * @param start the data item in the starting node for the path
+   * @param end   the data item in the destination node for the path
+   * @param mode  the algorithm used to search for the path
+   * @return the cost of the shortest path between these nodes
+   */
+  public double shortestPathCost(NodeType start, NodeType end, SearchMode mode) {
+    //gets the value with the end node
+    SearchNode result = computeShortestPath(start, end, mode);
+    return result.cost;
+  }
+
+  /**
+   * Returns the shortest path from the node containing the start data to the node containing the
+   * end data as a route, which holds the data along the path, the weight of each edge along it,
+   * and its total cost. When this graph has a route cache, routes found since the graph was last
+   * modified are returned from the cache instead of being searched for again.
+   *
+   * @param start the data item in the starting node for the path
+   * @param end   the data item in the destination node for the path
+   * @return the route along the shortest path between these nodes
+   */
+  public Route<NodeType> shortestPathRoute(NodeType start, NodeType end) {
+    if (routeCache == null)
+      return shortestPathRoute(start, end, SearchMode.DIJKSTRA);
+    // read the modification count once, so that a route found before a concurrent change is
+    // never cached under the version after it
+    int version = modCount;
+    Route<NodeType> route = routeCache.get(start, end, version);
+    if (route == null) {
+      route = shortestPathRoute(start, end, SearchMode.DIJKSTRA);
+      routeCache.put(start, end, version, route);
+    }
+    return route;
+  }
+
+  /**
+   * Sets the cache that shortestPathRoute(start, end) keeps its routes in. Each cached route is
+   * tagged with this graph's modification count, so that inserting or removing any node or edge
+   * invalidates every route cached before that change.
+   *
+   * @param routeCache the cache to use, or null to stop caching routes
+   */
+  public void setRouteCache(RouteCache<NodeType> routeCache) {
+    this.routeCache = routeCache;
+  }
+
+  /**
+   * Returns the cache that shortestPathRoute(start, end) keeps its routes in.
+   *
+   * @return the route cache, or null when routes are not cached
+   */
+  public RouteCache<NodeType> getRouteCache() {
+    return routeCache;
+  }
+
+  /**
+   * Returns the shortest path from the node containing the start data to the node containing the
+   * end data as a route, using the requested search mode to find it.
+   *
+   * @param start the data item in the starting node for the path
+   * @param end   the data item in the destination node for the path
+   * @param mode  the algorithm used to search for the path
+   * @return the route along the shortest path between these nodes
+   */
+  public Route<NodeType> shortestPathRoute(NodeType start, NodeType end, SearchMode mode) {
+    SearchNode result = computeShortestPath(start, end, mode);
+    int legs = 0;
+    for (SearchNode step = result; step.predecessor != null; step = step.predecessor)
+      legs++;
+    // walk back from end to start, reading the weight of the edge that each node was reached by
+    LinkedList<NodeType> locations = new LinkedList<>();
+    double[] times = new double[legs];
+    SearchNode step = result;
+    for (; step.predecessor != null; step = step.predecessor) {
+      locations.addFirst(step.node.data);
+      times[--legs] = step.edge.data.doubleValue();
+    }
+    locations.addFirst(step.node.data);
+    return new Route<>(locations, times, result.cost);
+  }
+
+  /**
+   * Returns the costs of and predecessors along the shortest paths from the node containing the
+   * start data to every node that can be reached from it. Unlike computeShortestPath, this search
+   * does not have a destination: every reachable node is settled and recorded in the tree, so one
+   * run answers the shortest path to all of them.
+   *
+   * @param start the data item in the starting node for all paths
+   * @return the tree of shortest paths leaving the start node
+   * @throws NoSuchElementException when start does not correspond to a graph node
+   */
+  public ShortestPathTree<NodeType> shortestPathTree(NodeType start) {
+    if (start == null || !this.containsNode(start))
+      throw new NoSuchElementException("The start node is not found");
+    // search from start without a destination, so that every reachable node is settled
+    int[] predecessors = new int[nodesById.size()];
+    int[] settled = new int[nodesById.size()];
+    IndexedMinHeap queue = search(this.nodes.get(start), null, predecessors, settled);
+    return ShortestPathTree.fromSearch(id -> nodesById.get(id).data, predecessors, settled, queue);
+  }
+
+  /**
+   * Returns an immutable snapshot of this graph in compressed sparse row form, which answers
+   * shortest path queries by searching over primitive arrays. Node ids in the snapshot match this
+   * graph's dense node ids. The same snapshot is returned until this graph is modified, and a new
+   * one is built on the first call after that.
+   *
+   * @return a frozen copy of this graph's current nodes and edges
+   */
+  public synchronized FrozenGraph<NodeType> freeze() {
+    if (frozen != null && frozenModCount == modCount)
+      return frozen;
+    // count the edges leaving each node to find where each node's edges start
+    int[] offsets = new int[nodesById.size() + 1];
+    for (Node node : nodesById)
+      offsets[node.id + 1] = offsets[node.id] + node.edgesLeaving.size();
+    // then copy each edge's target id and weight into place
+    int[] targets = new int[offsets[nodesById.size()]];
+    double[] weights = new double[targets.length];
+    List<NodeType> names = new ArrayList<>(nodesById.size());
+    for (Node node : nodesById) {
+      names.add(node.data);
+      int edge = offsets[node.id];
+      for (Edge next : node.edgesLeaving) {
+        targets[edge] = next.successor.id;
+        weights[edge++] = next.data.doubleValue();
+      }
+    }
+    frozen = new FrozenGraph<>(names, offsets, targets, weights);
+    frozenModCount = modCount;
+    return frozen;
+  }
+
+
+
+
+  // TODO: implement 3+ tests in step 4.1
+
+  /**
+   * Tests the DijkstraGraph class by finding the shortest path and its cost from node "A" to node
+   * "E". The test uses a directed graph and validates that the computed path and cost match the
+   * expected results based on the lecture example. The expected shortest path is ["A", "B", "D",
+   * "E"], and the expected cost is 8.0. This test ensures that the Dijkstra algorithm correctly
+   * computes the shortest path and cost in a directed graph.
+   */
+  @Test
+  public void testShortestPathAtoE() {
+    // Creating a new graph object and adding all node objects
+    DijkstraGraph<String, Double> example = new DijkstraGraph<>();
+    example.insertNode("A");
+    example.insertNode("B");
+    example.insertNode("C");
+    example.insertNode("D");
+    example.insertNode("E");
+    example.insertNode("F");
+    example.insertNode("G");
+    example.insertNode("H");
+
+    // Inserting all weighted edges, THIS IS A DIRECTED GRAPH AS PER THE LECTURE
+    example.insertEdge("A", "B", 4.0);
+    //example.insertEdge("B", "A", 4.0);
+    example.insertEdge("A", "C", 2.0);
+    //example.insertEdge("C", "A", 2.0);
+    example.insertEdge("B", "D", 1.0);
+    //example.insertEdge("D", "B", 1.0);
+    example.insertEdge("B", "E", 10.0);
+    // example.insertEdge("E", "B", 10.0);
+    example.insertEdge("C", "D", 5.0);
+    //example.insertEdge("D", "C", 5.0);
+    example.insertEdge("D", "E", 3.0);
+    //  example.insertEdge("E", "D", 3.0);
+    example.insertEdge("D", "F", 0.0);
+    example.insertEdge("F", "D", 2.0);
+    // example.insertEdge("E", "F", 0.0);
+    //   example.insertEdge("F", "E", 0.0);
+    //  example.insertEdge("E", "G", 0.0);
+    // example.insertEdge("G", "E", 0.0);
+    example.insertEdge("F", "H", 4.0);
+    //  example.insertEdge("H", "F", 4.0);
+    example.insertEdge("G", "H", 4.0);
+    // example.insertEdge("H", "G", 4.0);
+
+    List<String> shortestPath = example.shortestPathData("A", "E");
+
+    // Expected path and cost based on the class example
+    List<String> expectedPath = Arrays.asList("A", "B", "D", "E");
+    double expectedCost = 8.0;
+
+    // Assert the path and cost to verify correctness
+    Assertions.assertEquals(expectedPath, shortestPath,
+        "The shortest path should match the expected path.");
+    Assertions.assertEquals(expectedCost, example.shortestPathCost("A", "E"),
+        "The shortest path cost should match the expected cost.");
+  }
+
+  /**
+   * Tests the DijkstraGraph class by finding the shortest path and its cost from node "C" to node
+   * "H". The test ensures that the Dijkstra algorithm correctly computes the shortest path and cost
+   * between the specified start and end nodes, with the expected path ["C", "D", "F", "H"] and
+   * expected cost 9.0. This test verifies that the algorithm handles different node pairs
+   * properly.
+   */
+  @Test
+  public void testShortestPathCtoH() {
+    // Creating a new graph object and adding all node objects
+    DijkstraGraph<String, Double> example = new DijkstraGraph<>();
+    example.insertNode("A");
+    example.insertNode("B");
+    example.insertNode("C");
+    example.insertNode("D");
+    example.insertNode("E");
+    example.insertNode("F");
+    example.insertNode("G");
+    example.insertNode("H");
+
+    example.insertEdge("A", "B", 4.0);
+    example.insertEdge("A", "C", 2.0);
+    example.insertEdge("B", "D", 1.0);
+    example.insertEdge("B", "E", 10.0);
+    example.insertEdge("C", "D", 5.0);
+    example.insertEdge("D", "E", 3.0);
+    example.insertEdge("D", "F", 0.0);
+    example.insertEdge("F", "D", 2.0);
+    example.insertEdge("F", "H", 4.0);
+    example.insertEdge("G", "H", 4.0);
+
+    List<String> expectedPath = Arrays.asList("C", "D", "F", "H");
+    double expectedCost = 9.0;
+
+    // Assert the path and cost to verify correctness
+    Assertions.assertEquals(expectedPath, example.shortestPathData("C", "H"),
+        "The shortest path should match the expected path.");
+    Assertions.assertEquals(expectedCost, example.shortestPathCost("C", "H"),
+        "The shortest path cost should match the expected cost.");
+  }
+
+  /**
+   * Tests the DijkstraGraph class by verifying that an exception is thrown when no path exists
+   * between two nodes in the graph. Specifically, the test checks the case where there is no path
+   * between nodes "E" and "A". The expected exception is a NoSuchElementException with the message
+   * "There is no path found", which is tested to ensure proper exception handling when no valid
+   * path exists.
+   */
+  @Test
+  public void testIncompletePath() {
+    DijkstraGraph<String, Double> example = new DijkstraGraph<>();
+    example.insertNode("A");
+    example.insertNode("B");
+    example.insertNode("C");
+    example.insertNode("D");
+    example.insertNode("E");
+    example.insertNode("F");
+    example.insertNode("G");
+    example.insertNode("H");
+
+    example.insertEdge("A", "B", 4.0);
+    example.insertEdge("A", "C", 2.0);
+    example.insertEdge("B", "D", 1.0);
+    example.insertEdge("B", "E", 10.0);
+    example.insertEdge("C", "D", 5.0);
+    example.insertEdge("D", "E", 3.0);
+    example.insertEdge("D", "F", 0.0);
+    example.insertEdge("F", "D", 2.0);
+    example.insertEdge("F", "H", 4.0);
+    example.insertEdge("G", "H", 4.0);
+
+    Exception exceptionMethod = Assertions.assertThrows(NoSuchElementException.class, () -> {
+      example.shortestPathData("E", "A");
+    });
+
+    String expectedMessage = "No path found";
+    String actualMessage = exceptionMethod.getMessage();
+
+    //tests the methods of the class, making sure the calculated values match properly
+    Assertions.assertTrue(actualMessage.contains(expectedMessage), "test FAILED");
+  }
+
+  /**
+   * Tests the DijkstraGraph class by finding the shortest path and its cost from node "A" to node
+   * "E". The test uses an Undirected graph and validates that the computed path and cost match the
+   * expected results based on the lecture example. The expected shortest path is ["A", "B", "D",
+   * "F", "E"], and the expected cost is 5.0. This test ensures that the Dijkstra algorithm
+   * correctly computes the shortest path and cost in an undirected graph.
+   */
+  @Test
+  public void testShortestPathUndirectedAtoE() {
+    // Creating a new graph object and adding all node objects
+    DijkstraGraph<String, Double> example = new DijkstraGraph<>();
+    example.insertNode("A");
+    example.insertNode("B");
+    example.insertNode("C");
+    example.insertNode("D");
+    example.insertNode("E");
+    example.insertNode("F");
+    example.insertNode("G");
+    example.insertNode("H");
+
+    // Inserting all weighted edges, THIS IS A DIRECTED GRAPH AS PER THE LECTURE
+    example.insertEdge("A", "B", 4.0);
+    example.insertEdge("B", "A", 4.0);
+    example.insertEdge("A", "C", 2.0);
+    example.insertEdge("C", "A", 2.0);
+    example.insertEdge("B", "D", 1.0);
+    example.insertEdge("D", "B", 1.0);
+    example.insertEdge("B", "E", 10.0);
+    example.insertEdge("E", "B", 10.0);
+    example.insertEdge("C", "D", 5.0);
+    example.insertEdge("D", "C", 5.0);
+    example.insertEdge("D", "E", 3.0);
+    example.insertEdge("E", "D", 3.0);
+    example.insertEdge("D", "F", 0.0);
+    example.insertEdge("F", "D", 2.0);
+    example.insertEdge("E", "F", 0.0);
+    example.insertEdge("F", "E", 0.0);
+    example.insertEdge("E", "G", 0.0);
+    example.insertEdge("G", "E", 0.0);
+    example.insertEdge("F", "H", 4.0);
+    example.insertEdge("H", "F", 4.0);
+    example.insertEdge("G", "H", 4.0);
+    example.insertEdge("H", "G", 4.0);
+
+    List<String> shortestPath = example.shortestPathData("A", "E");
+
+    // Expected path and cost based on the class example
+    List<String> expectedPath = Arrays.asList("A", "B", "D", "F", "E");
+    double expectedCost = 5.0;
+
+    // Assert the path and cost to verify correctness
+    Assertions.assertEquals(expectedPath, shortestPath,
+        "The shortest path should match the expected path.");
+    Assertions.assertEquals(expectedCost, example.shortestPathCost("A", "E"),
+        "The shortest path cost should match the expected cost.");
+  }
+
+  /**
+   * This test checks if the algorithm correctly handles the case where the start and
+   * end nodes are the same and there are no edges.
+   */
+  @Test
+  public void testSingleNodeGraph() {
+    DijkstraGraph<String, Double> example = new DijkstraGraph<>();
+    example.insertNode("A");
+
+    // In this case, the start node is the same as the end node
+    List<String> shortestPath = example.shortestPathData("A", "A");
+    double shortestCost = example.shortestPathCost("A", "A");
+
+    // The shortest path should just be ["A"], and cost should be 0.0
+    Assertions.assertEquals(Arrays.asList("A"), shortestPath, "The path should be just ['A']");
+    Assertions.assertEquals(0.0, shortestCost, "The cost should be 0.0");
+  }
+  /**
+   * Edge case for testing shortest path when end and starting Destinations are the same
+   */
+  @Test
+  public void testShortestPathUndirectedAtoA() {
+    // Creating a new graph object and adding all node objects
+    DijkstraGraph<String, Double> example = new DijkstraGraph<>();
+    example.insertNode("A");
+    example.insertNode("B");
+    example.insertNode("C");
+    example.insertNode("D");
+    example.insertNode("E");
+    example.insertNode("F");
+    example.insertNode("G");
+    example.insertNode("H");
+
+    // Inserting all weighted edges, THIS IS A DIRECTED GRAPH AS PER THE LECTURE
+    example.insertEdge("A", "B", 4.0);
+    example.insertEdge("B", "A", 4.0);
+    example.insertEdge("A", "C", 2.0);
+    example.insertEdge("C", "A", 2.0);
+    example.insertEdge("B", "D", 1.0);
+    example.insertEdge("D", "B", 1.0);
+    example.insertEdge("B", "E", 10.0);
+    example.insertEdge("E", "B", 10.0);
+    example.insertEdge("C", "D", 5.0);
+    example.insertEdge("D", "C", 5.0);
+    example.insertEdge("D", "E", 3.0);
+    example.insertEdge("E", "D", 3.0);
+    example.insertEdge("D", "F", 0.0);
+    example.insertEdge("F", "D", 2.0);
+    example.insertEdge("E", "F", 0.0);
+    example.insertEdge("F", "E", 0.0);
+    example.insertEdge("E", "G", 0.0);
+    example.insertEdge("G", "E", 0.0);
+    example.insertEdge("F", "H", 4.0);
+    example.insertEdge("H", "F", 4.0);
+    example.insertEdge("G", "H", 4.0);
+    example.insertEdge("H", "G", 4.0);
+
+    List<String> shortestPath = example.shortestPathData("A", "A");
+
+    // Expected path and cost based on the class example
+    List<String> expectedPath = Arrays.asList("A");
+    double expectedCost = 0.0;
+    Assertions.assertEquals(expectedPath, shortestPath,
+        "The shortest path should match the expected path.");
+    Assertions.assertEquals(expectedCost, example.shortestPathCost("A", "A"),
+        "The shortest path cost should match the expected cost.");
+  }
+
+  /**
+   * Test when the graph contains a cycle
+   */
+
+  @Test
+  public void testCyclicGraph() {
+    DijkstraGraph<String, Double> example = new DijkstraGraph<>();
+    example.insertNode("A");
+    example.insertNode("B");
+    example.insertNode("C");
+
+    example.insertEdge("A", "B", 5.0);
+    example.insertEdge("B", "C", 10.0);
+    example.insertEdge("C", "A", 15.0); // This creates a cycle
+
+    List<String> shortestPath = example.shortestPathData("A", "C");
+    double shortestCost = example.shortestPathCost("A", "C");
+
+    List<String> expectedPath = Arrays.asList("A", "B", "C");
+    double expectedCost = 15.0;
+
+    Assertions.assertEquals(expectedPath, shortestPath);
+    Assertions.assertEquals(expectedCost, shortestCost);
+  }
+
+  /**
+   * Tests that the bidirectional search finds the same costs as the forward search between every
+   * pair of nodes in the lecture example, the same paths where the shortest path is unique, and
+   * that it reports missing paths the same way.
+   */
+  @Test
+  public void testBidirectionalSearch() {
+    DijkstraGraph<String, Double> example = lectureExample();
+    List<String> names = Arrays.asList("A", "B", "C", "D", "E", "F", "G", "H");
+
+    Assertions.assertEquals(Arrays.asList("A", "B", "D", "E"),
+        example.shortestPathData("A", "E", SearchMode.BIDIRECTIONAL));
+    Assertions.assertEquals(Arrays.asList("C", "D", "F", "H"),
+        example.shortestPathData("C", "H", SearchMode.BIDIRECTIONAL));
+    for (String start : names)
+      for (String end : names) {
+        boolean connected = example.shortestPathTree(start).containsNode(end);
+        if (connected)
+          Assertions.assertEquals(example.shortestPathCost(start, end),
+              example.shortestPathCost(start, end, SearchMode.BIDIRECTIONAL));
+        else
+          Assertions.assertThrows(NoSuchElementException.class,
+              () -> example.shortestPathCost(start, end, SearchMode.BIDIRECTIONAL));
+      }
+  }
+
+  /**
+   * Tests that a single shortest path tree from "A" agrees with the point to point searches for
+   * every destination, and that unreachable nodes are left out of the tree.
+   */
+  @Test
+  public void testShortestPathTree() {
+    DijkstraGraph<String, Double> example = lectureExample();
+
+    ShortestPathTree<String> tree = example.shortestPathTree("A");
+
+    Assertions.assertEquals(7, tree.getNodeCount());
+    Assertions.assertFalse(tree.containsNode("G"));
+    Assertions.assertEquals(null, tree.getPredecessor("A"));
+    Assertions.assertEquals("D", tree.getPredecessor("E"));
+    for (String node : Arrays.asList("A", "B", "C", "D", "E", "F", "H")) {
+      Assertions.assertEquals(example.shortestPathCost("A", node), tree.getCost(node));
+      Assertions.assertEquals(example.shortestPathData("A", node), tree.getPath(node));
+    }
+  }
+
+  // builds the directed lecture example shared by the tests of this class
+  private static DijkstraGraph<String, Double> lectureExample() {
+    DijkstraGraph<String, Double> example = new DijkstraGraph<>();
+    for (String node : Arrays.asList("A", "B", "C", "D", "E", "F", "G", "H"))
+      example.insertNode(node);
+    example.insertEdge("A", "B", 4.0);
+    example.insertEdge("A", "C", 2.0);
+    example.insertEdge("B", "D", 1.0);
+    example.insertEdge("B", "E", 10.0);
+    example.insertEdge("C", "D", 5.0);
+    example.insertEdge("D", "E", 3.0);
+    example.insertEdge("D", "F", 0.0);
+    example.insertEdge("F", "D", 2.0);
+    example.insertEdge("F", "H", 4.0);
+    example.insertEdge("G", "H", 4.0);
+    return example;
+  }
+
+  /**
+   * Tests that a route holds the same path and cost as shortestPathData and shortestPathCost, along
+   * with the weight of each edge on that path, in every search mode and in a frozen snapshot.
+   */
+  @Test
+  public void testShortestPathRoute() {
+    DijkstraGraph<String, Double> example = lectureExample();
+    List<Route<String>> routes = new ArrayList<>();
+    for (SearchMode mode : SearchMode.values())
+      routes.add(example.shortestPathRoute("A", "E", mode));
+    routes.add(example.freeze().shortestPathRoute("A", "E"));
+    for (Route<String> route : routes) {
+      Assertions.assertEquals(Arrays.asList("A", "B", "D", "E"), route.getLocations());
+      Assertions.assertEquals(Arrays.asList(4.0, 1.0, 3.0), route.getTimes());
+      Assertions.assertEquals(8.0, route.getTotalCost());
+      Assertions.assertEquals("E", route.getEnd());
+    }
+
+    Route<String> empty = example.shortestPathRoute("C", "C");
+    Assertions.assertEquals(Arrays.asList("C"), empty.getLocations());
+    Assertions.assertEquals(0, empty.getLegCount());
+    Assertions.assertEquals(0.0, empty.getTotalCost());
+    Assertions.assertThrows(NoSuchElementException.class, () -> example.shortestPathRoute("E", "A"));
+  }
+
+  /**
+   * Tests that a frozen snapshot answers the same queries as the graph it was frozen from.
+   */
+  @Test
+  public void testFrozenMatchesGraph() {
+    DijkstraGraph<String, Double> example = lectureExample();
+    FrozenGraph<String> frozen = example.freeze();
+
+    Assertions.assertEquals(8, frozen.getNodeCount());
+    Assertions.assertEquals(10, frozen.getEdgeCount());
+    Assertions.assertEquals(3.0, frozen.getEdge("D", "E"));
+    Assertions.assertFalse(frozen.containsEdge("E", "D"));
+    Assertions.assertEquals(Arrays.asList("A", "B", "D", "E"), frozen.shortestPathData("A", "E"));
+    Assertions.assertEquals(9.0, frozen.shortestPathCost("C", "H"));
+    Assertions.assertEquals(example.shortestPathTree("A").getAllNodes(),
+        frozen.shortestPathTree("A").getAllNodes());
+    Assertions.assertThrows(NoSuchElementException.class, () -> frozen.shortestPathData("E", "A"));
+    Assertions.assertThrows(UnsupportedOperationException.class, () -> frozen.insertNode("I"));
+  }
+
+  /**
+   * Tests that freeze() reuses its snapshot until the graph is modified, and then rebuilds it.
+   */
+  @Test
+  public void testFreezeRebuildsAfterChanges() {
+    DijkstraGraph<String, Double> example = lectureExample();
+    FrozenGraph<String> frozen = example.freeze();
+    Assertions.assertSame(frozen, example.freeze());
+
+    example.insertEdge("E", "A", 1.0);
+    FrozenGraph<String> rebuilt = example.freeze();
+    Assertions.assertNotSame(frozen, rebuilt);
+    Assertions.assertEquals(Arrays.asList("E", "A"), rebuilt.shortestPathData("E", "A"));
+    Assertions.assertFalse(frozen.containsEdge("E", "A"));
+  }
+
+  /**
+   * Tests edge lookups, updates and removals around a hub node with enough leaving edges to be
+   * indexed, and that removing the hub also removes (and stops counting) all of its edges.
+   */
+  @Test
+  public void testHubEdges() {
+    DijkstraGraph<String, Double> graph = new DijkstraGraph<>();
+    graph.insertNode("Hub");
+    for (int i = 0; i < 20; i++) {
+      graph.insertNode("B" + i);
+      graph.insertEdge("Hub", "B" + i, (double) i);
+      graph.insertEdge("B" + i, "Hub", 1.0);
+    }
+    Assertions.assertEquals(40, graph.getEdgeCount());
+    Assertions.assertEquals(7.0, graph.getEdge("Hub", "B7"));
+
+    // updating an edge keeps a single edge, while removals leave the other edges reachable
+    Assertions.assertTrue(graph.insertEdge("Hub", "B7", 0.5));
+    Assertions.assertEquals(40, graph.getEdgeCount());
+    Assertions.assertEquals(0.5, graph.getEdge("Hub", "B7"));
+    for (int i = 0; i < 20; i += 2)
+      Assertions.assertTrue(graph.removeEdge("Hub", "B" + i));
+    Assertions.assertFalse(graph.removeEdge("Hub", "B0"));
+    Assertions.assertFalse(graph.removeEdge("Nowhere", "B1"));
+    Assertions.assertEquals(30, graph.getEdgeCount());
+    for (int i = 0; i < 20; i++)
+      Assertions.assertEquals(i % 2 == 1, graph.containsEdge("Hub", "B" + i));
+    Assertions.assertEquals(Arrays.asList("B2", "Hub", "B7"), graph.shortestPathData("B2", "B7"));
+    Assertions.assertThrows(NoSuchElementException.class, () -> graph.getEdge("Hub", "B4"));
+
+    Assertions.assertTrue(graph.removeNode("Hub"));
+    Assertions.assertEquals(0, graph.getEdgeCount());
+    Assertions.assertFalse(graph.containsEdge("B1", "Hub"));
+  }
+
+  /**
+   * Tests that inserting a batch of edges adds its new nodes, keeps the last weight of repeated
+   * edges, and updates edges that were already in the graph, just like inserting them one by one.
+   */
+  @Test
+  public void testInsertEdges() {
+    DijkstraGraph<String, Double> graph = new DijkstraGraph<>();
+    graph.insertNode("A");
+    graph.insertNode("B");
+    graph.insertEdge("A", "B", 9.0);
+    int modCount = graph.modCount;
+
+    EdgeBatch<String, Double> batch = new EdgeBatch<>();
+    batch.addEdge("A", "B", 4.0); // updates the edge already in the graph
+    batch.addEdge("B", "C", 1.0);
+    batch.addEdge("A", "C", 7.0);
+    batch.addEdge("B", "C", 2.0); // replaces the weight of the first B -> C edge
+    for (int i = 0; i < 12; i++)
+      batch.addEdge("C", "D" + i, (double) i + 1);
+    batch.addNode("E");
+    Assertions.assertEquals(16, batch.getEdgeCount());
+    Assertions.assertEquals(Arrays.asList("A", "B", "C", "D0"), batch.getNodes().subList(0, 4));
+    graph.insertEdges(batch);
+
+    Assertions.assertEquals(16, graph.getNodeCount());
+    Assertions.assertTrue(graph.containsNode("E"));
+    Assertions.assertEquals(15, graph.getEdgeCount());
+    Assertions.assertEquals(4.0, graph.getEdge("A", "B"));
+    Assertions.assertEquals(2.0, graph.getEdge("B", "C"));
+    Assertions.assertEquals(Arrays.asList("A", "B", "C", "D5"), graph.shortestPathData("A", "D5"));
+    Assertions.assertEquals(12.0, graph.shortestPathCost("A", "D5"));
+    Assertions.assertTrue(graph.modCount > modCount);
+    Assertions.assertEquals(7.0, graph.freeze().getEdge("C", "D6"));
+  }
+
+  /**
+   * Tests that ALT searches find paths with the same costs as Dijkstra's algorithm between every
+   * pair of nodes, that the landmarks' bounds never overestimate, and that the landmarks are
+   * computed again once the graph changes.
+   */
+  @Test
+  public void testLandmarkSearch() {
+    DijkstraGraph<String, Double> example = lectureExample();
+    LandmarkIndex index = example.preprocessLandmarks(3);
+    Assertions.assertTrue(index.getLandmarkCount() > 0 && index.getLandmarkCount() <= 3);
+    for (String start : example.getAllNodes())
+      for (String end : example.getAllNodes()) {
+        int startId = example.nodes.get(start).id;
+        int endId = example.nodes.get(end).id;
+        double cost;
+        try {
+          cost = example.shortestPathCost(start, end);
+        } catch (NoSuchElementException e) {
+          Assertions.assertThrows(NoSuchElementException.class,
+              () -> example.shortestPathCost(start, end, SearchMode.ALT));
+          continue;
+        }
+        Assertions.assertTrue(index.lowerBound(startId, endId) <= cost);
+        Assertions.assertEquals(cost, example.shortestPathCost(start, end, SearchMode.ALT));
+        Assertions.assertEquals(cost, example.shortestPathRoute(start, end, SearchMode.ALT)
+            .getTotalCost());
+      }
+    Assertions.assertEquals(Arrays.asList("A", "B", "D", "E"),
+        example.shortestPathData("A", "E", SearchMode.ALT));
+
+    // a new shortcut is found, since the landmarks are computed again for the changed graph
+    example.insertEdge("A", "E", 1.0);
+    Assertions.assertEquals(Arrays.asList("A", "E"),
+        example.shortestPathData("A", "E", SearchMode.ALT));
+    Assertions.assertNotSame(index, example.getLandmarks());
+    Assertions.assertThrows(IllegalArgumentException.class, () -> example.preprocessLandmarks(0));
+  }
+
+  /**
+   * Tests that hub labels answer the same costs as Dijkstra's algorithm for every pair of nodes,
+   * including the pairs with no path, and that the graph searches again once it changes.
+   */
+  @Test
+  public void testHubLabels() {
+    DijkstraGraph<String, Double> example = lectureExample();
+    HubLabelIndex<String> labels = example.preprocessHubLabels();
+    Assertions.assertSame(labels, example.getHubLabels());
+    for (String start : example.getAllNodes())
+      for (String end : example.getAllNodes()) {
+        double cost;
+        try {
+          cost = example.shortestPathCost(start, end, SearchMode.DIJKSTRA);
+        } catch (NoSuchElementException e) {
+          Assertions.assertThrows(NoSuchElementException.class,
+              () -> example.shortestPathCost(start, end));
+          continue;
+        }
+        Assertions.assertEquals(cost, example.shortestPathCost(start, end), 1e-9);
+      }
+    Assertions.assertThrows(NoSuchElementException.class,
+        () -> example.shortestPathCost("A", "Z"));
+
+    // the labels no longer hold once the graph changes, so the new shortcut is searched for
+    example.insertEdge("A", "E", 1.0);
+    Assertions.assertNull(example.getHubLabels());
+    Assertions.assertEquals(1.0, example.shortestPathCost("A", "E"));
+  }
+
+}
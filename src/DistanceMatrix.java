@@ -0,0 +1,501 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * This DistanceMatrix holds the cost of the shortest path between every pair
+ * of nodes of a FrozenGraph, along with the first edge of each of those
+ * paths, in a memory-mapped file. Following these next edges from a start
+ * toward an end gives the whole path, and the weight of each of its edges, so
+ * any shortest path query becomes a few table lookups, without a search.
+ *
+ * The matrix is built by one single-source search from every node, which run
+ * in parallel on the common fork-join pool when more than one processor is
+ * available, and write their rows straight into the mapped file. The file
+ * outlives the process: a later process loads it by mapping it again, as long
+ * as it was built for a graph with the same ids and edges, so the searches
+ * only run again once the graph changes.
+ *
+ * A matrix file holds a header followed by two sections, each starting at a
+ * multiple of 8 bytes, with every number stored in little-endian order:
+ *
+ *     header  int MAGIC, int VERSION, int nodeCount, int 0,
+ *             long the graph's fingerprint, long 0
+ *     costs   float[nodeCount * nodeCount], the cost from each node (by row)
+ *             to each node (by column), or infinity when there is no path
+ *     hops    int[nodeCount * nodeCount], the first edge of the shortest
+ *             path from the row's node to the column's node, as its position
+ *             among the edges leaving the row's node, or -1 when there is no
+ *             such path or both are the same node
+ *
+ * Costs are stored as floats to halve the size of the matrix, which grows
+ * with the square of the number of nodes, so they are exact to about 7
+ * significant digits. Next edges are stored relative to the row's node, so
+ * that adding or removing an edge only renumbers the row of the node that
+ * edge leaves, rather than every edge stored after it.
+ *
+ * The file is mapped read-only, so loading a matrix only needs permission to
+ * read it. A matrix can still be brought up to date when an edge changes,
+ * without searching from every node again: the first update maps the file
+ * again copy-on-write, or copies the matrix into memory when the file cannot
+ * be written to, so the file itself keeps the matrix of the graph it was
+ * built for. When an edge
+ * gets cheaper, each row only has to take the paths over that edge into
+ * account: d[i][j] = min(d[i][j], d[i][pred] + weight + d[succ][j]). When an
+ * edge gets more expensive or is removed, only the costs whose shortest paths
+ * ran over it are searched again, starting from the costs around them that
+ * did not change.
+ *
+ * @param NodeType is the data type stored at each graph node
+ */
+public class DistanceMatrix<NodeType> {
+
+  /** The first four bytes of every matrix file: "CNDM" in ASCII. */
+  public static final int MAGIC = 0x43_4E_44_4D;
+
+  /** The version of the file format written by build, the only one load reads. */
+  public static final int VERSION = 2;
+
+  /** The largest number of nodes whose matrix fits within one 2 GB mapping. */
+  public static final int MAX_NODES = 16383;
+
+  private static final int HEADER_BYTES = 32;
+
+  // costs are floats, so a path counts as being as cheap as a stored cost when it is within
+  // their rounding of it
+  private static final double ROUNDING = 1 + 1e-6;
+
+  // relaxes whole rows when an edge gets cheaper, with the Vector API when it is available
+  private static final MinPlusKernel KERNEL = MinPlusKernel.load();
+
+  private FrozenGraph<NodeType> graph;
+  private final Path path;
+  // the read-only mapping of the file, until the first update replaces it with a writable copy
+  private ByteBuffer buffer;
+  private final int n;
+  private final int hops; // the position of the hops section, which holds the next edges
+
+  // wraps the read-only mapping of a complete matrix file
+  private DistanceMatrix(FrozenGraph<NodeType> graph, Path path, ByteBuffer buffer) {
+    this.graph = graph;
+    this.path = path;
+    this.buffer = buffer;
+    this.n = graph.getNodeCount();
+    this.hops = hopsPosition(n);
+  }
+
+  // returns the position of the hops section in the file of a matrix of n nodes
+  private static int hopsPosition(int n) {
+    return (int) ((HEADER_BYTES + 4L * n * n + 7) & ~7L);
+  }
+
+  // returns the size of the file of a matrix of n nodes
+  private static long fileSize(int n) {
+    return hopsPosition(n) + 4L * n * n;
+  }
+
+  /**
+   * Loads the matrix that was built for a graph from a file, or builds it
+   * and writes it to that file when the file is missing, or was built for a
+   * different graph.
+   *
+   * @param graph    the graph whose shortest paths to look up
+   * @param filename the path of the matrix file
+   * @return the matrix of the graph's shortest paths
+   * @throws IOException if the file can neither be loaded nor written
+   * @throws IllegalArgumentException if the graph has more than MAX_NODES nodes
+   */
+  public static <NodeType> DistanceMatrix<NodeType> loadOrBuild(FrozenGraph<NodeType> graph,
+      String filename) throws IOException {
+    if (Files.isRegularFile(Paths.get(filename))) {
+      try {
+        return load(graph, filename);
+      } catch (IOException e) {
+        // the file is outdated or damaged, so it is built again below
+      }
+    }
+    return build(graph, filename);
+  }
+
+  /**
+   * Builds the matrix of a graph into a file, running the searches in
+   * parallel when more than one processor is available.
+   *
+   * @param graph    the graph whose shortest paths to look up
+   * @param filename the path of the matrix file to write
+   * @return the matrix of the graph's shortest paths
+   * @throws IOException if the file cannot be written
+   * @throws IllegalArgumentException if the graph has more than MAX_NODES nodes
+   */
+  public static <NodeType> DistanceMatrix<NodeType> build(FrozenGraph<NodeType> graph,
+      String filename) throws IOException {
+    return build(graph, filename, Runtime.getRuntime().availableProcessors() > 1);
+  }
+
+  /**
+   * Builds the matrix of a graph into a file, either running the searches in
+   * parallel or one after another on the calling thread. The matrix is
+   * written to a temporary file that then replaces filename, so a process
+   * loading the matrix at the same time never sees a partly written one.
+   *
+   * @param graph    the graph whose shortest paths to look up
+   * @param filename the path of the matrix file to write
+   * @param parallel true to run the searches in parallel, false otherwise
+   * @return the matrix of the graph's shortest paths
+   * @throws IOException if the file cannot be written
+   * @throws IllegalArgumentException if the graph has more than MAX_NODES nodes
+   */
+  public static <NodeType> DistanceMatrix<NodeType> build(FrozenGraph<NodeType> graph,
+      String filename, boolean parallel) throws IOException {
+    int n = graph.getNodeCount();
+    if (n > MAX_NODES)
+      throw new IllegalArgumentException("A distance matrix of " + n + " nodes is larger than "
+          + "the " + MAX_NODES + " nodes that fit in one file");
+    Path path = Paths.get(filename).toAbsolutePath();
+    Path temporary = path.resolveSibling(path.getFileName() + "." + ProcessHandle.current().pid()
+        + ".tmp");
+    try {
+      MappedByteBuffer buffer;
+      try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE_NEW,
+          StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+        // the mapping stays valid after the channel is closed and the file is moved
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize(n));
+      }
+      buffer.order(ByteOrder.LITTLE_ENDIAN);
+      buffer.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, n).putInt(12, 0)
+          .putLong(16, graph.fingerprint()).putLong(24, 0);
+      IntStream sources = IntStream.range(0, n);
+      (parallel ? sources.parallel() : sources).forEach(source ->
+          writeRow(graph, source, buffer, hopsPosition(n)));
+      buffer.force();
+      Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+    // map the file again read-only, so that later updates never reach it
+    return load(graph, filename);
+  }
+
+  // runs the search from source, and writes its costs and next edges into row source of the
+  // matrix, where each row is written by a single thread
+  private static void writeRow(FrozenGraph<?> graph, int source, MappedByteBuffer buffer,
+      int hops) {
+    int n = graph.getNodeCount();
+    int[] predecessors = new int[n];
+    int[] predecessorEdges = new int[n];
+    int[] settled = new int[n];
+    IndexedMinHeap queue = graph.search(source, -1, predecessors, predecessorEdges, settled);
+    // nodes are settled after their predecessors, so the next edge toward each node is known by
+    // the time that node is reached in settled order
+    int[] nextHops = new int[n];
+    float[] costs = new float[n];
+    Arrays.fill(nextHops, -1);
+    Arrays.fill(costs, Float.POSITIVE_INFINITY);
+    costs[source] = 0.0f;
+    for (int i = 1; i < n && settled[i] != -1; i++) {
+      int id = settled[i];
+      nextHops[id] = predecessors[id] == source ? predecessorEdges[id] - graph.offsets[source]
+          : nextHops[predecessors[id]];
+      costs[id] = (float) queue.getKey(id);
+    }
+    // each thread writes its own row through its own view of the shared mapping
+    buffer.slice(HEADER_BYTES + 4 * source * n, 4 * n).order(ByteOrder.LITTLE_ENDIAN)
+        .asFloatBuffer().put(costs);
+    buffer.slice(hops + 4 * source * n, 4 * n).order(ByteOrder.LITTLE_ENDIAN)
+        .asIntBuffer().put(nextHops);
+  }
+
+  /**
+   * Loads a matrix that was built for a graph with the same nodes and edges
+   * (in the same order) as graph, by memory-mapping its file read-only.
+   *
+   * @param graph    the graph that the matrix was built for
+   * @param filename the path of the matrix file to read
+   * @return the matrix that was written to that file
+   * @throws IOException if the file cannot be read, is not a complete matrix
+   *                     of this version, or was built for a different graph
+   */
+  public static <NodeType> DistanceMatrix<NodeType> load(FrozenGraph<NodeType> graph,
+      String filename) throws IOException {
+    MappedByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+      if (channel.size() < HEADER_BYTES || channel.size() > Integer.MAX_VALUE)
+        throw new IOException("Not a distance matrix: " + filename);
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+    buffer.order(ByteOrder.LITTLE_ENDIAN);
+    if (buffer.getInt(0) != MAGIC)
+      throw new IOException("Not a distance matrix: " + filename);
+    if (buffer.getInt(4) != VERSION)
+      throw new IOException("Unsupported distance matrix version " + buffer.getInt(4) + " in "
+          + filename + ", expected version " + VERSION);
+    int n = graph.getNodeCount();
+    if (buffer.getInt(8) != n || buffer.getLong(16) != graph.fingerprint())
+      throw new IOException("Distance matrix " + filename + " was built for another graph");
+    if (fileSize(n) != buffer.capacity())
+      throw new IOException("Incomplete or corrupt distance matrix: " + filename);
+    return new DistanceMatrix<>(graph, Paths.get(filename), buffer);
+  }
+
+  /**
+   * Returns the graph that this matrix holds the shortest paths of: the one
+   * it was built for, or the one passed to the latest updateEdge.
+   *
+   * @return the graph whose shortest paths this matrix holds
+   */
+  public FrozenGraph<NodeType> getGraph() {
+    return graph;
+  }
+
+  /**
+   * Returns the cost of the shortest path between two nodes, rounded to a
+   * float.
+   *
+   * @param from the id of the node the path starts at
+   * @param to   the id of the node the path ends at
+   * @return the cost of the shortest path, or infinity when there is none
+   * @throws IndexOutOfBoundsException if either id is not in the graph
+   */
+  public float getCost(int from, int to) {
+    return buffer.getFloat(HEADER_BYTES + 4 * index(from, to));
+  }
+
+  /**
+   * Returns the first edge of the shortest path between two nodes.
+   *
+   * @param from the id of the node the path starts at
+   * @param to   the id of the node the path ends at
+   * @return the position of that edge within the targets and weights of
+   *         getGraph(), or -1 when there is no path, or when from and to are
+   *         the same node
+   * @throws IndexOutOfBoundsException if either id is not in the graph
+   */
+  public int getNextEdge(int from, int to) {
+    int edge = buffer.getInt(hops + 4 * index(from, to));
+    return edge == -1 ? -1 : graph.offsets[from] + edge;
+  }
+
+  /**
+   * Returns the node after the start of the shortest path between two nodes.
+   *
+   * @param from the id of the node the path starts at
+   * @param to   the id of the node the path ends at
+   * @return the id of the second node of that path, or -1 when there is no
+   *         path, or when from and to are the same node
+   * @throws IndexOutOfBoundsException if either id is not in the graph
+   */
+  public int getNextHop(int from, int to) {
+    int edge = getNextEdge(from, to);
+    return edge == -1 ? -1 : graph.targets[edge];
+  }
+
+  /**
+   * Brings the matrix up to date with a copy of its graph in which the weight
+   * of the edge from pred to succ has changed, or in which that edge has been
+   * added or removed, and makes that copy the matrix's graph. This is not
+   * safe to call while other threads read the matrix.
+   *
+   * @param changed the graph with the changed edge, with the same nodes and
+   *                ids as the matrix's graph, and every other edge unchanged
+   * @param pred    the id of the node the changed edge leaves
+   * @param succ    the id of the node the changed edge leads to
+   * @throws IllegalArgumentException if changed has a different number of nodes
+   * @throws IndexOutOfBoundsException if either id is not in the graph
+   */
+  public void updateEdge(FrozenGraph<NodeType> changed, int pred, int succ) {
+    if (changed.getNodeCount() != n)
+      throw new IllegalArgumentException("A graph of " + changed.getNodeCount()
+          + " nodes cannot update a distance matrix of " + n + " nodes");
+    index(pred, succ);
+    makeWritable();
+    double oldWeight = weight(graph, pred, succ);
+    double newWeight = weight(changed, pred, succ);
+    FloatBuffer costs = buffer.slice(HEADER_BYTES, 4 * n * n).order(ByteOrder.LITTLE_ENDIAN)
+        .asFloatBuffer();
+    IntBuffer nextHops = buffer.slice(hops, 4 * n * n).order(ByteOrder.LITTLE_ENDIAN)
+        .asIntBuffer();
+    if (changed.offsets[pred + 1] - changed.offsets[pred]
+        != graph.offsets[pred + 1] - graph.offsets[pred])
+      renumber(nextHops, changed, pred);
+    if (newWeight < oldWeight)
+      relax(costs, nextHops, pred, succ, newWeight,
+          changed.findEdge(pred, succ) - changed.offsets[pred]);
+    else if (newWeight > oldWeight)
+      repair(costs, nextHops, changed, pred, succ, oldWeight);
+    graph = changed;
+  }
+
+  // replaces the read-only mapping of the file, before the first update, with the file mapped
+  // again copy-on-write, so that it can be updated without writing to the file. When this
+  // process may not write to the file, or the file was deleted or replaced by another one
+  // since it was loaded, the mapping is copied into memory instead.
+  private void makeWritable() {
+    if (!buffer.isReadOnly())
+      return;
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ,
+        StandardOpenOption.WRITE)) {
+      if (channel.size() == buffer.capacity()) {
+        ByteBuffer mapped = channel.map(FileChannel.MapMode.PRIVATE, 0, channel.size());
+        if (mapped.slice(0, HEADER_BYTES).equals(buffer.slice(0, HEADER_BYTES))) {
+          buffer = mapped.order(ByteOrder.LITTLE_ENDIAN);
+          return;
+        }
+      }
+    } catch (IOException e) {
+      // the file cannot be written to, or is gone, so the mapping is copied below
+    }
+    buffer = ByteBuffer.allocate(buffer.capacity()).order(ByteOrder.LITTLE_ENDIAN)
+        .put(0, buffer, 0, buffer.capacity());
+  }
+
+  // renumbers the next edges of row pred for changed, in which an edge leaving pred was added or
+  // removed, so that each still refers to the edge to the same node. Next edges over a removed
+  // edge become -1 until repair finds those paths again.
+  private void renumber(IntBuffer nextHops, FrozenGraph<NodeType> changed, int pred) {
+    int start = graph.offsets[pred];
+    int[] renumbered = new int[graph.offsets[pred + 1] - start];
+    for (int edge = 0; edge < renumbered.length; edge++) {
+      int changedEdge = changed.findEdge(pred, graph.targets[start + edge]);
+      renumbered[edge] = changedEdge == -1 ? -1 : changedEdge - changed.offsets[pred];
+    }
+    for (int j = 0; j < n; j++) {
+      int edge = nextHops.get(pred * n + j);
+      if (edge != -1)
+        nextHops.put(pred * n + j, renumbered[edge]);
+    }
+  }
+
+  // returns the weight of the edge from pred to succ, or infinity when there is no such edge
+  private static double weight(FrozenGraph<?> graph, int pred, int succ) {
+    int edge = graph.findEdge(pred, succ);
+    return edge == -1 ? Double.POSITIVE_INFINITY : graph.weights[edge];
+  }
+
+  // lowers every cost that a path over the edge from pred to succ, which now has the given
+  // weight and is edge among the edges leaving pred, beats: d[i][j] = min(d[i][j], d[i][pred] +
+  // weight + d[succ][j]), with KERNEL relaxing one whole row at a time. Weights are not
+  // negative, so no shortest path from succ needs the edge, and row succ, which every row
+  // reads, never changes.
+  private void relax(FloatBuffer costs, IntBuffer nextHops, int pred, int succ, double weight,
+      int edge) {
+    float[] succCosts = new float[n];
+    costs.get(succ * n, succCosts);
+    float[] rowCosts = new float[n];
+    int[] rowHops = new int[n];
+    for (int i = 0; i < n; i++) {
+      float viaEdge = (float) (costs.get(i * n + pred) + weight);
+      // a row that does not reach succ more cheaply over the edge cannot reach anything beyond
+      // succ more cheaply either, so most rows are skipped after one comparison
+      if (!(viaEdge < costs.get(i * n + succ)))
+        continue;
+      int hop = i == pred ? edge : nextHops.get(i * n + pred);
+      costs.get(i * n, rowCosts);
+      nextHops.get(i * n, rowHops);
+      KERNEL.relax(rowCosts, rowHops, succCosts, viaEdge, hop);
+      costs.put(i * n, rowCosts);
+      nextHops.put(i * n, rowHops);
+    }
+  }
+
+  // repairs every row whose shortest path to succ may have run over the edge from pred to succ,
+  // which weighed oldWeight. Any shortest path over that edge starts with a shortest path to
+  // succ, so no other row can have changed. Within such a row, only the columns that the edge
+  // reached as cheaply as the row's own costs, d[i][pred] + oldWeight + d[succ][j] <= d[i][j],
+  // may have changed, and these are found in one pass over rows i and succ. They are searched
+  // again from the unchanged columns around them, so a row costs that pass and a search over
+  // just the nodes whose paths were cut, rather than a search over the whole graph.
+  private void repair(FloatBuffer costs, IntBuffer nextHops, FrozenGraph<NodeType> changed,
+      int pred, int succ, double oldWeight) {
+    FrozenGraph<NodeType> reverse = changed.reverse();
+    float[] succCosts = new float[n];
+    costs.get(succ * n, succCosts);
+    float[] rowCosts = new float[n];
+    int[] rowHops = new int[n];
+    int[] cut = new int[n];
+    boolean[] isCut = new boolean[n];
+    IndexedMinHeap queue = new IndexedMinHeap(n);
+    for (int i = 0; i < n; i++) {
+      float toPred = costs.get(i * n + pred);
+      double viaEdge = toPred + oldWeight;
+      if (toPred == Float.POSITIVE_INFINITY || !(viaEdge <= costs.get(i * n + succ) * ROUNDING))
+        continue;
+      costs.get(i * n, rowCosts);
+      nextHops.get(i * n, rowHops);
+      int cutCount = 0;
+      for (int j = 0; j < n; j++) {
+        if (j != i && viaEdge + succCosts[j] <= rowCosts[j] * ROUNDING) {
+          cut[cutCount++] = j;
+          isCut[j] = true;
+        }
+      }
+
+      // start each cut column from its cheapest edge out of a column that was not cut, where
+      // a column reached straight from i starts with the edge from i to it
+      for (int c = 0; c < cutCount; c++) {
+        int j = cut[c];
+        for (int edge = reverse.offsets[j]; edge < reverse.offsets[j + 1]; edge++) {
+          int k = reverse.targets[edge];
+          if (!isCut[k] && rowCosts[k] != Float.POSITIVE_INFINITY
+              && queue.addOrDecrease(j, rowCosts[k] + reverse.weights[edge]))
+            rowHops[j] = k == i ? changed.findEdge(i, j) - changed.offsets[i] : rowHops[k];
+        }
+      }
+      while (!queue.isEmpty()) {
+        int j = queue.removeMin();
+        double cost = queue.getKey(j);
+        for (int edge = changed.offsets[j]; edge < changed.offsets[j + 1]; edge++) {
+          int target = changed.targets[edge];
+          if (isCut[target] && queue.addOrDecrease(target, cost + changed.weights[edge]))
+            rowHops[target] = rowHops[j];
+        }
+      }
+
+      for (int c = 0; c < cutCount; c++) {
+        int j = cut[c];
+        boolean reached = queue.isSettled(j);
+        rowCosts[j] = reached ? (float) queue.getKey(j) : Float.POSITIVE_INFINITY;
+        if (!reached)
+          rowHops[j] = -1;
+        queue.reset(j);
+        isCut[j] = false;
+      }
+      costs.put(i * n, rowCosts);
+      nextHops.put(i * n, rowHops);
+    }
+  }
+
+  // returns the position of the pair of nodes within each section
+  private int index(int from, int to) {
+    if (from < 0 || from >= n || to < 0 || to >= n)
+      throw new IndexOutOfBoundsException("No node with id " + (from < 0 || from >= n ? from : to));
+    return from * n + to;
+  }
+
+  /**
+   * Returns the size of the matrix file, which is also the size of the copy
+   * of it that updates are made to.
+   *
+   * @return the number of bytes mapped or copied
+   */
+  public long getMemoryBytes() {
+    return buffer.capacity();
+  }
+
+  @Override
+  public String toString() {
+    return "DistanceMatrix[nodes=" + n + ", bytes=" + getMemoryBytes() + "]";
+  }
+
+}
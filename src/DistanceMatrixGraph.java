@@ -0,0 +1,156 @@
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * This DistanceMatrixGraph decorates a FrozenGraph with its DistanceMatrix,
+ * and answers shortest path queries from that matrix instead of searching.
+ * A path is found by following the matrix's next edges from its start to its
+ * end, and its cost is the sum of the weights of the edges along it, just as
+ * a search would add them up, rather than the float stored in the matrix.
+ * Every other method is answered by the graph itself.
+ *
+ * Edges can be inserted, reweighted and removed, which replaces the graph
+ * with a copy that has the changed edge, and updates only the part of the
+ * matrix that the change affects. Nodes cannot be inserted or removed, since
+ * that would renumber the matrix's rows and columns. Like DijkstraGraph, this
+ * graph is not safe to modify while other threads query it.
+ *
+ * @param NodeType is the data type stored at each graph node
+ */
+public class DistanceMatrixGraph<NodeType> implements GraphADT<NodeType, Double> {
+
+  private FrozenGraph<NodeType> graph;
+  private final DistanceMatrix<NodeType> matrix;
+
+  /**
+   * Creates a graph that answers queries from a matrix, and from the graph
+   * that the matrix was built for.
+   *
+   * @param matrix the shortest paths of the graph to answer queries about
+   */
+  public DistanceMatrixGraph(DistanceMatrix<NodeType> matrix) {
+    this.graph = matrix.getGraph();
+    this.matrix = matrix;
+  }
+
+  /**
+   * Returns the graph that this graph answers its queries about, with every
+   * edge change made so far.
+   *
+   * @return the decorated graph
+   */
+  public FrozenGraph<NodeType> getGraph() {
+    return graph;
+  }
+
+  /**
+   * Returns the matrix that this graph answers shortest path queries from.
+   *
+   * @return the matrix of the decorated graph's shortest paths
+   */
+  public DistanceMatrix<NodeType> getMatrix() {
+    return matrix;
+  }
+
+  // METHODS FROM GRAPHADT
+
+  public boolean insertNode(NodeType data) {
+    throw new UnsupportedOperationException("DistanceMatrixGraph cannot insert nodes");
+  }
+
+  public boolean removeNode(NodeType data) {
+    throw new UnsupportedOperationException("DistanceMatrixGraph cannot remove nodes");
+  }
+
+  public boolean insertEdge(NodeType pred, NodeType succ, Double weight) {
+    int predId = graph.getId(pred);
+    int succId = graph.getId(succ);
+    if (predId == -1 || succId == -1 || weight == null || !(weight >= 0))
+      return false;
+    update(graph.withEdge(predId, succId, weight), predId, succId);
+    return true;
+  }
+
+  public boolean removeEdge(NodeType pred, NodeType succ) {
+    int predId = graph.getId(pred);
+    int succId = graph.getId(succ);
+    if (predId == -1 || succId == -1 || graph.findEdge(predId, succId) == -1)
+      return false;
+    update(graph.withoutEdge(predId, succId), predId, succId);
+    return true;
+  }
+
+  // replaces the graph with a copy in which the edge from pred to succ has changed, after
+  // bringing the matrix up to date with that copy
+  private void update(FrozenGraph<NodeType> changed, int pred, int succ) {
+    matrix.updateEdge(changed, pred, succ);
+    graph = changed;
+  }
+
+  public boolean containsNode(NodeType data) {
+    return graph.containsNode(data);
+  }
+
+  public List<NodeType> getAllNodes() {
+    return graph.getAllNodes();
+  }
+
+  public int getNodeCount() {
+    return graph.getNodeCount();
+  }
+
+  public boolean containsEdge(NodeType pred, NodeType succ) {
+    return graph.containsEdge(pred, succ);
+  }
+
+  public Double getEdge(NodeType pred, NodeType succ) {
+    return graph.getEdge(pred, succ);
+  }
+
+  public int getEdgeCount() {
+    return graph.getEdgeCount();
+  }
+
+  public List<NodeType> shortestPathData(NodeType start, NodeType end) {
+    return shortestPathRoute(start, end).getLocations();
+  }
+
+  public double shortestPathCost(NodeType start, NodeType end) {
+    return shortestPathRoute(start, end).getTotalCost();
+  }
+
+  public Route<NodeType> shortestPathRoute(NodeType start, NodeType end) {
+    int startId = graph.getId(start);
+    int endId = graph.getId(end);
+    if (startId == -1 || endId == -1)
+      throw new NoSuchElementException("The start or end node is not found");
+    if (matrix.getCost(startId, endId) == Float.POSITIVE_INFINITY)
+      throw new NoSuchElementException("No path found");
+    List<NodeType> locations = new LinkedList<>();
+    locations.add(start);
+    double[] times = new double[8];
+    double total = 0.0;
+    int legs = 0;
+    for (int id = startId; id != endId; ) {
+      int edge = matrix.getNextEdge(id, endId);
+      // a path longer than the number of nodes has gone around a cycle of edges that weigh
+      // nothing, so search for it instead
+      if (edge == -1 || legs == graph.getNodeCount())
+        return graph.shortestPathRoute(start, end);
+      if (legs == times.length)
+        times = Arrays.copyOf(times, 2 * legs);
+      times[legs] = graph.weights[edge];
+      total += times[legs++];
+      id = graph.targets[edge];
+      locations.add(graph.getNode(id));
+    }
+    return new Route<>(locations, Arrays.copyOf(times, legs), total);
+  }
+
+  public ShortestPathTree<NodeType> shortestPathTree(NodeType start) {
+    return graph.shortestPathTree(start);
+  }
+
+}
@@ -0,0 +1,427 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * This DotFileParser reads the edges of a DOT file into an EdgeBatch by
+ * memory-mapping the file and scanning its bytes directly, instead of reading
+ * it through a Scanner that creates several Strings for every line. Each line
+ * after the first (which opens the graph) is expected to look like:
+ *
+ *     "Memorial Union" -> "Science Hall" [seconds=105.8];
+ *
+ * where the quotes are optional, and the weight can be given by any single
+ * attribute such as seconds= or weight=. Parsing stops at the first empty line
+ * or closing brace. Lines that do not fit this format are reported on
+ * System.err and skipped, just like Backend.loadGraphData used to.
+ *
+ * The bytes of each distinct location name are decoded as UTF-8 only once,
+ * the first time they are seen, and looked up in an intern table by their
+ * bytes after that. Weights are parsed straight from their bytes, except
+ * for the rare weights (such as ones with exponents, or more than 15
+ * significant digits) that only Double.parseDouble is guaranteed to round
+ * correctly.
+ *
+ * When more than one processor is available, a large file is split at line
+ * boundaries into chunks that are parsed in parallel on a ForkJoinPool, each
+ * by its own parser into its own batch. Those batches are then merged in file
+ * order, so every node gets the same id, and every problem is reported in the
+ * same order, as when the whole file is parsed by a single parser.
+ */
+public class DotFileParser {
+
+  // the largest part of a file that is mapped at once, since mapped buffers are indexed by ints
+  private static final int MAX_REGION = 1 << 30;
+
+  // the smallest chunk worth parsing on its own, since each chunk's nodes are looked up again
+  // when it is merged
+  private static final int MIN_CHUNK = 1 << 22;
+
+  // every power of ten that a double can represent exactly
+  private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8,
+      1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+  private final EdgeBatch<String, Double> batch;
+  private final List<String> problems; // where problems are kept, or null to print them instead
+
+  // the intern table maps the bytes of each name to its id within the batch, where each slot
+  // holds SLOT ints: the hash of a name, its id plus one (or 0 for an empty slot), and the
+  // offset and length of its bytes within names, so that a lookup reads only one slot and then
+  // the name it leads to
+  private static final int SLOT = 4;
+  private int[] table = new int[1024 * SLOT];
+  private int entryCount = 0;
+  private byte[] names = new byte[16384]; // the bytes of every distinct name, one after another
+  private int namesLength = 0;
+
+  // the current line without any of its quotes, which is reused for every line
+  private byte[] line = new byte[256];
+  private int lineLength = 0;
+
+  private boolean headerSkipped;
+
+  /**
+   * Creates a parser that adds the edges it parses to a batch.
+   *
+   * @param batch the batch to add the parsed nodes and edges to
+   */
+  public DotFileParser(EdgeBatch<String, Double> batch) {
+    this(batch, false, null);
+  }
+
+  // creates a parser for a chunk of a file, which only starts with the header line when it is
+  // the first chunk, and keeps its problems to be reported once the chunks before it have been
+  private DotFileParser(EdgeBatch<String, Double> batch, boolean headerSkipped,
+      List<String> problems) {
+    this.batch = batch;
+    this.headerSkipped = headerSkipped;
+    this.problems = problems;
+  }
+
+  /**
+   * Parses every edge of a DOT file into a new batch, in parallel when more
+   * than one processor is available.
+   *
+   * @param filename the path of the DOT file to read
+   * @return a batch holding the nodes and edges of that file, in order
+   * @throws IOException if the file cannot be read
+   */
+  public static EdgeBatch<String, Double> parse(String filename) throws IOException {
+    return parse(filename, Runtime.getRuntime().availableProcessors(), MIN_CHUNK);
+  }
+
+  /**
+   * Parses every edge of a DOT file into a new batch. The file is split into
+   * two chunks per thread, so that a thread that finishes early can take on
+   * part of another's work, but no chunk is smaller than minChunk bytes, and a file
+   * that fits in a single chunk is parsed on the calling thread. Whatever the
+   * parallelism, the batch returned and the problems reported are the same.
+   *
+   * @param filename    the path of the DOT file to read
+   * @param parallelism the largest number of threads to parse with
+   * @param minChunk    the smallest number of bytes to parse as one chunk
+   * @return a batch holding the nodes and edges of that file, in order
+   * @throws IOException              if the file cannot be read
+   * @throws IllegalArgumentException if parallelism or minChunk is not positive
+   */
+  public static EdgeBatch<String, Double> parse(String filename, int parallelism, int minChunk)
+      throws IOException {
+    if (parallelism <= 0 || minChunk <= 0)
+      throw new IllegalArgumentException("Parallelism and chunk size must be positive");
+    try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+      List<ByteBuffer> regions = mapRegions(channel);
+      long chunkSize = Math.max(minChunk, channel.size() / (2L * parallelism) + 1);
+      List<Chunk> chunks = new ArrayList<>();
+      for (ByteBuffer region : regions) {
+        for (int from = 0; from < region.limit(); ) {
+          // end each chunk after the line that its last byte falls in
+          int to = (int) Math.min(from + chunkSize, region.limit());
+          while (to < region.limit() && region.get(to - 1) != '\n')
+            to++;
+          chunks.add(new Chunk(region, from, to, chunks.isEmpty()));
+          from = to;
+        }
+      }
+
+      DotFileParser parser = new DotFileParser(new EdgeBatch<>());
+      if (parallelism == 1 || chunks.size() <= 1) {
+        for (ByteBuffer region : regions)
+          if (!parser.parseLines(region, 0, region.limit()))
+            break; // reached the end of the graph
+        return parser.batch;
+      }
+      ForkJoinPool pool = new ForkJoinPool(parallelism);
+      try {
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(chunks.size());
+        for (Chunk chunk : chunks)
+          tasks.add(pool.submit(chunk::parse));
+        for (ForkJoinTask<?> task : tasks)
+          task.join();
+      } finally {
+        pool.shutdown();
+      }
+      for (Chunk chunk : chunks)
+        if (!parser.merge(chunk))
+          break; // the graph ended within this chunk, so the later chunks are not part of it
+      return parser.batch;
+    }
+  }
+
+  /**
+   * Parses every edge of a DOT file into this parser's batch, on the calling
+   * thread.
+   *
+   * @param filename the path of the DOT file to read
+   * @throws IOException if the file cannot be read, or has a line longer
+   *                     than a gigabyte
+   */
+  public void parseFile(String filename) throws IOException {
+    try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+      for (ByteBuffer region : mapRegions(channel))
+        if (!parseLines(region, 0, region.limit()))
+          return; // reached the end of the graph
+    }
+  }
+
+  // maps a file in regions of up to MAX_REGION bytes, each limited to end with a complete line
+  private static List<ByteBuffer> mapRegions(FileChannel channel) throws IOException {
+    List<ByteBuffer> regions = new ArrayList<>();
+    long size = channel.size();
+    long position = 0;
+    while (position < size) {
+      int length = (int) Math.min(size - position, MAX_REGION);
+      ByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+      // leave any line that continues past this region for the next one
+      int end = length;
+      if (position + length < size) {
+        while (end > 0 && region.get(end - 1) != '\n')
+          end--;
+        if (end == 0)
+          throw new IOException("Line longer than " + MAX_REGION + " bytes at byte " + position);
+      }
+      regions.add(region.limit(end));
+      position += end;
+    }
+    return regions;
+  }
+
+  // a range of lines of a file, along with the parser and batch for its edges
+  private static class Chunk {
+    private final ByteBuffer buffer;
+    private final int from;
+    private final int to;
+    private final DotFileParser parser;
+    private boolean more; // whether the graph continues after this chunk
+
+    private Chunk(ByteBuffer buffer, int from, int to, boolean first) {
+      this.buffer = buffer;
+      this.from = from;
+      this.to = to;
+      this.parser = new DotFileParser(new EdgeBatch<>(), !first, new ArrayList<>());
+    }
+
+    private void parse() {
+      more = parser.parseLines(buffer, from, to);
+    }
+  }
+
+  // adds the nodes and edges of a parsed chunk to this parser's batch, and reports its problems
+  private boolean merge(Chunk chunk) {
+    for (String problem : chunk.parser.problems)
+      System.err.println(problem);
+    batch.addAll(chunk.parser.batch);
+    return chunk.more;
+  }
+
+  /**
+   * Parses the lines between two positions of a buffer, where from is the
+   * start of a line.
+   *
+   * @param buffer the bytes to parse
+   * @param from   the position of the first byte to parse
+   * @param to     the position after the last byte to parse
+   * @return false once an empty line or closing brace ends the graph, or
+   *         true if there may be more lines to parse after these
+   */
+  public boolean parseLines(ByteBuffer buffer, int from, int to) {
+    int start = from;
+    while (start < to) {
+      // copy the line without its quotes, and note where its surrounding whitespace ends
+      lineLength = 0;
+      int first = -1;   // the length of line when its first non-whitespace byte was seen
+      int last = 0;     // the length of line after its last non-whitespace byte was seen
+      boolean brace = false; // whether that line consists of a single closing brace
+      int end = start;
+      for (; end < to; end++) {
+        byte b = buffer.get(end);
+        if (b == '\n')
+          break;
+        if (!isWhitespace(b)) {
+          brace = first == -1 && b == '}';
+          if (first == -1)
+            first = lineLength;
+        }
+        if (b != '"') {
+          if (lineLength == line.length)
+            line = Arrays.copyOf(line, lineLength * 2);
+          line[lineLength++] = b;
+        }
+        if (!isWhitespace(b))
+          last = lineLength;
+      }
+      start = end + 1;
+
+      if (!headerSkipped) {
+        headerSkipped = true; // skip the first line ("digraph campus {")
+        continue;
+      }
+      if (first == -1 || brace)
+        return false; // stop at empty lines or the closing brace
+      parseEdge(first, last);
+    }
+    return true;
+  }
+
+  // checks whether a byte is ASCII whitespace (or a control character); bytes are signed, so
+  // every byte of a multi-byte UTF-8 character is negative and never counts as whitespace
+  private static boolean isWhitespace(byte b) {
+    return b >= 0 && b <= ' ';
+  }
+
+  // parses the edge on line between from and to, or reports why it cannot be parsed
+  private void parseEdge(int from, int to) {
+    int arrow = -1;
+    for (int i = from; i + 1 < to && arrow == -1; i++)
+      if (line[i] == '-' && line[i + 1] == '>')
+        arrow = i;
+    if (arrow == -1) {
+      report("Invalid line format, missing '->': ", from, to);
+      return;
+    }
+    int bracket = indexOf('[', from, to);
+    if (bracket == -1) {
+      report("Invalid line format, missing '[': ", from, to);
+      return;
+    }
+    if (bracket < arrow + 2) {
+      report("String index error while processing line: ", from, to);
+      return;
+    }
+    int equal = indexOf('=', from, to);
+    int close = indexOf(']', from, to);
+    if (equal == -1 || close == -1 || equal >= close) {
+      report("Invalid line format for weight: ", from, to);
+      return;
+    }
+    Double weight = parseWeight(equal + 1, close);
+    if (weight == null) {
+      report("Failed to parse weight as a double: ", from, to);
+      return;
+    }
+    int pred = intern(from, arrow);
+    int succ = intern(arrow + 2, bracket);
+    batch.addEdgeByIds(pred, succ, weight);
+  }
+
+  // returns the position of the first b on line between from and to, or -1
+  private int indexOf(char b, int from, int to) {
+    for (int i = from; i < to; i++)
+      if (line[i] == b)
+        return i;
+    return -1;
+  }
+
+  // reports a line that cannot be parsed
+  private void report(String problem, int from, int to) {
+    problem += new String(line, from, to - from, StandardCharsets.UTF_8);
+    if (problems == null)
+      System.err.println(problem);
+    else
+      problems.add(problem);
+  }
+
+  // returns the batch id of the name on line between from and to, once whitespace is removed
+  private int intern(int from, int to) {
+    while (from < to && isWhitespace(line[from]))
+      from++;
+    while (to > from && isWhitespace(line[to - 1]))
+      to--;
+    int hash = 0;
+    for (int i = from; i < to; i++)
+      hash = 31 * hash + line[i];
+    int mask = table.length / SLOT - 1;
+    int slot = (hash ^ (hash >>> 16)) & mask;
+    for (; table[slot * SLOT + 1] != 0; slot = (slot + 1) & mask) {
+      int at = slot * SLOT;
+      if (table[at] == hash && Arrays.equals(names, table[at + 2], table[at + 2] + table[at + 3],
+          line, from, to))
+        return table[at + 1] - 1;
+    }
+
+    // decode a name the first time it is seen, and keep its bytes to recognize it later
+    int length = to - from;
+    if (namesLength + length > names.length)
+      names = Arrays.copyOf(names, Math.max(names.length * 2, namesLength + length));
+    System.arraycopy(line, from, names, namesLength, length);
+    int id = batch.addNode(new String(line, from, length, StandardCharsets.UTF_8));
+    int at = slot * SLOT;
+    table[at] = hash;
+    table[at + 1] = id + 1;
+    table[at + 2] = namesLength;
+    table[at + 3] = length;
+    namesLength += length;
+    // keep the table at most half full, so probe sequences stay short
+    if (++entryCount * 2 > table.length / SLOT)
+      growTable();
+    return id;
+  }
+
+  // doubles the number of slots in the intern table, and moves every name into the new slots
+  private void growTable() {
+    int[] oldTable = table;
+    table = new int[oldTable.length * 2];
+    int mask = table.length / SLOT - 1;
+    for (int at = 0; at < oldTable.length; at += SLOT) {
+      if (oldTable[at + 1] == 0)
+        continue;
+      int slot = (oldTable[at] ^ (oldTable[at] >>> 16)) & mask;
+      while (table[slot * SLOT + 1] != 0)
+        slot = (slot + 1) & mask;
+      System.arraycopy(oldTable, at, table, slot * SLOT, SLOT);
+    }
+  }
+
+  // parses the weight on line between from and to, or returns null when it is not a number
+  private Double parseWeight(int from, int to) {
+    while (from < to && isWhitespace(line[from]))
+      from++;
+    while (to > from && isWhitespace(line[to - 1]))
+      to--;
+    // a sign, digits and an optional decimal point can be parsed exactly when there are few
+    // enough significant digits to fit in a double, and a power of ten to divide them by
+    int i = from;
+    boolean negative = i < to && line[i] == '-';
+    if (i < to && (line[i] == '-' || line[i] == '+'))
+      i++;
+    long mantissa = 0;
+    int digits = 0;      // the number of digits
+    int significant = 0; // the number of digits from the first one that is not zero
+    int decimals = -1;   // the number of digits after the decimal point, once one is seen
+    boolean simple = true;
+    for (; i < to && simple; i++) {
+      byte b = line[i];
+      if (b >= '0' && b <= '9') {
+        mantissa = 10 * mantissa + (b - '0');
+        digits++;
+        if (mantissa != 0)
+          significant++;
+        if (decimals != -1)
+          decimals++;
+      } else if (b == '.' && decimals == -1) {
+        decimals = 0;
+      } else {
+        simple = false;
+      }
+    }
+    int scale = Math.max(decimals, 0);
+    if (simple && digits > 0 && significant <= 15 && scale < POWERS_OF_TEN.length) {
+      double value = mantissa / POWERS_OF_TEN[scale];
+      return negative ? -value : value;
+    }
+    // anything else (exponents, hexadecimal, infinity, more digits) is left to parseDouble
+    try {
+      return Double.parseDouble(new String(line, from, to - from, StandardCharsets.UTF_8));
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+}
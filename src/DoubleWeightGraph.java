@@ -0,0 +1,340 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Assertions;
+
+/**
+ * This DoubleWeightGraph is a directed graph whose edge weights are stored as
+ * primitive doubles. Nodes are numbered with dense ids, and the edges leaving
+ * each node are kept in a pair of growable arrays: one with the ids of the
+ * nodes they lead to, and one with their weights. Inserting an edge, reading a
+ * weight, and searching for shortest paths therefore never allocate an Edge
+ * object or box a weight.
+ *
+ * The GraphADT methods that take or return a Double weight are still
+ * supported, so this graph can be used anywhere a GraphADT is expected.
+ * Shortest path queries are answered by a FrozenGraph snapshot of this graph,
+ * which is built by the first query after each change, so that every search
+ * over primitive arrays runs the same code.
+ *
+ * @param NodeType is the data type stored at each graph node
+ */
+public class DoubleWeightGraph<NodeType> implements GraphADT<NodeType, Double> {
+
+  // the data of each node, indexed by id, and the id of each node's data
+  protected List<NodeType> names = new ArrayList<>();
+  protected MapADT<NodeType, Integer> ids = new OpenHashtableMap<>();
+
+  // the edges leaving node id are stored in the first degrees[id] entries
+  // of targets[id] (successor ids) and weights[id] (their weights)
+  protected int[][] targets = new int[16][];
+  protected double[][] weights = new double[16][];
+  protected int[] degrees = new int[16];
+  protected int edgeCount = 0;
+
+  // the snapshot most recently returned by freeze(), or null once this graph has changed since
+  protected FrozenGraph<NodeType> frozen = null;
+
+  // returns the position of the edge from predId to succId within targets[predId], or -1
+  private int findEdge(int predId, int succId) {
+    int[] leaving = targets[predId];
+    for (int edge = 0; edge < degrees[predId]; edge++)
+      if (leaving[edge] == succId)
+        return edge;
+    return -1;
+  }
+
+  // removes the edge at this position from predId's arrays, moving its last edge into the gap
+  private void removeEdgeAt(int predId, int edge) {
+    int last = --degrees[predId];
+    targets[predId][edge] = targets[predId][last];
+    weights[predId][edge] = weights[predId][last];
+    edgeCount--;
+  }
+
+  /**
+   * Insert a new node into the graph.
+   *
+   * @param data is the data item stored in the new node
+   * @return true if the data is unique and can be inserted into a new node,
+   *         or false if this data is already in the graph
+   * @throws NullPointerException if data is null
+   */
+  public boolean insertNode(NodeType data) {
+    if (ids.containsKey(data))
+      return false; // throws NPE when data's null
+    int id = names.size();
+    if (id == degrees.length) {
+      targets = Arrays.copyOf(targets, id * 2);
+      weights = Arrays.copyOf(weights, id * 2);
+      degrees = Arrays.copyOf(degrees, id * 2);
+    }
+    targets[id] = new int[4];
+    weights[id] = new double[4];
+    degrees[id] = 0;
+    names.add(data);
+    ids.put(data, id);
+    frozen = null;
+    return true;
+  }
+
+  /**
+   * Remove a node from the graph, and also remove all edges adjacent to that node. Finding the
+   * edges that enter the node takes a pass over every edge in the graph.
+   *
+   * @param data is the data item stored in the node to be removed
+   * @return true if a vertex with data is found and removed, or
+   *         false if that data value is not found in the graph
+   * @throws NullPointerException if data is null
+   */
+  public boolean removeNode(NodeType data) {
+    int id = ids.getOrDefault(data, -1);
+    if (id == -1)
+      return false;
+    edgeCount -= degrees[id];
+    degrees[id] = 0;
+    // remove edges entering this node, and point edges entering the last
+    // node at this id, since the last node is about to move into it
+    int last = names.size() - 1;
+    for (int pred = 0; pred <= last; pred++) {
+      for (int edge = degrees[pred] - 1; edge >= 0; edge--) {
+        if (targets[pred][edge] == id)
+          removeEdgeAt(pred, edge);
+        else if (targets[pred][edge] == last)
+          targets[pred][edge] = id;
+      }
+    }
+    // keep ids dense by moving the last node into the removed node's id
+    ids.remove(data);
+    if (id != last) {
+      names.set(id, names.get(last));
+      targets[id] = targets[last];
+      weights[id] = weights[last];
+      degrees[id] = degrees[last];
+      ids.remove(names.get(id));
+      ids.put(names.get(id), id);
+    }
+    names.remove(last);
+    targets[last] = null;
+    weights[last] = null;
+    degrees[last] = 0;
+    frozen = null;
+    return true;
+  }
+
+  public boolean containsNode(NodeType data) {
+    return ids.containsKey(data);
+  }
+
+  public List<NodeType> getAllNodes() {
+    return Collections.unmodifiableList(names);
+  }
+
+  public int getNodeCount() {
+    return names.size();
+  }
+
+  /**
+   * Insert a new directed edge into the graph, or update the weight of the edge between pred and
+   * succ when one already exists.
+   *
+   * @param pred   is the data item contained in the new edge's predecesor node
+   * @param succ   is the data item contained in the new edge's successor node
+   * @param weight is the non-negative weight of the new edge
+   * @return true if the edge could be inserted or updated, or
+   *         false if the pred or succ data are not found in any graph nodes
+   */
+  public boolean insertEdge(NodeType pred, NodeType succ, double weight) {
+    int predId = ids.getOrDefault(pred, -1);
+    int succId = ids.getOrDefault(succ, -1);
+    if (predId == -1 || succId == -1)
+      return false;
+    frozen = null;
+    int edge = findEdge(predId, succId);
+    if (edge != -1) {
+      // when an edge already exists within the graph, update its weight
+      weights[predId][edge] = weight;
+      return true;
+    }
+    // otherwise append a new edge, growing this node's arrays when they are full
+    edge = degrees[predId]++;
+    if (edge == targets[predId].length) {
+      targets[predId] = Arrays.copyOf(targets[predId], edge * 2);
+      weights[predId] = Arrays.copyOf(weights[predId], edge * 2);
+    }
+    targets[predId][edge] = succId;
+    weights[predId][edge] = weight;
+    edgeCount++;
+    return true;
+  }
+
+  public boolean insertEdge(NodeType pred, NodeType succ, Double weight) {
+    return insertEdge(pred, succ, weight.doubleValue());
+  }
+
+  public boolean removeEdge(NodeType pred, NodeType succ) {
+    int predId = ids.getOrDefault(pred, -1);
+    int succId = ids.getOrDefault(succ, -1);
+    if (predId == -1 || succId == -1)
+      return false;
+    int edge = findEdge(predId, succId);
+    if (edge == -1)
+      return false;
+    removeEdgeAt(predId, edge);
+    frozen = null;
+    return true;
+  }
+
+  public boolean containsEdge(NodeType pred, NodeType succ) {
+    int predId = ids.getOrDefault(pred, -1);
+    int succId = ids.getOrDefault(succ, -1);
+    return predId != -1 && succId != -1 && findEdge(predId, succId) != -1;
+  }
+
+  /**
+   * Return the weight of a specific edge, without boxing it.
+   *
+   * @param pred the data item contained in the source node for the edge
+   * @param succ the data item contained in the target node for the edge
+   * @return the weight of the edge between those nodes
+   * @throws NoSuchElementException if either node or the edge between them
+   *                                are not found within this graph
+   */
+  public double getEdgeWeight(NodeType pred, NodeType succ) {
+    int predId = ids.getOrDefault(pred, -1);
+    int succId = ids.getOrDefault(succ, -1);
+    int edge = predId == -1 || succId == -1 ? -1 : findEdge(predId, succId);
+    if (edge == -1)
+      throw new NoSuchElementException("No edge from " + pred + " to " + succ);
+    return weights[predId][edge];
+  }
+
+  public Double getEdge(NodeType pred, NodeType succ) {
+    return getEdgeWeight(pred, succ);
+  }
+
+  public int getEdgeCount() {
+    return edgeCount;
+  }
+
+  /**
+   * Returns an immutable snapshot of this graph in compressed sparse row form, with the same node
+   * ids as this graph. The same snapshot is returned until this graph is modified, and a new one
+   * is built on the first call after that.
+   *
+   * @return a frozen copy of this graph's current nodes and edges
+   */
+  public FrozenGraph<NodeType> freeze() {
+    if (frozen != null)
+      return frozen;
+    int n = names.size();
+    int[] offsets = new int[n + 1];
+    for (int id = 0; id < n; id++)
+      offsets[id + 1] = offsets[id] + degrees[id];
+    int[] frozenTargets = new int[edgeCount];
+    double[] frozenWeights = new double[edgeCount];
+    for (int id = 0; id < n; id++) {
+      System.arraycopy(targets[id], 0, frozenTargets, offsets[id], degrees[id]);
+      System.arraycopy(weights[id], 0, frozenWeights, offsets[id], degrees[id]);
+    }
+    frozen = new FrozenGraph<>(names, offsets, frozenTargets, frozenWeights);
+    return frozen;
+  }
+
+  public List<NodeType> shortestPathData(NodeType start, NodeType end) {
+    return freeze().shortestPathData(start, end);
+  }
+
+  public double shortestPathCost(NodeType start, NodeType end) {
+    return freeze().shortestPathCost(start, end);
+  }
+
+  /**
+   * Returns the weight of each edge along the shortest path from start to end, in order.
+   *
+   * @param start the data item in the starting node for the path
+   * @param end   the data item in the destination node for the path
+   * @return the weights of the legs of the shortest path, one fewer than the nodes along it
+   * @throws NoSuchElementException if either node is not in the graph, or if there is no path
+   */
+  public double[] shortestPathTimes(NodeType start, NodeType end) {
+    Route<NodeType> route = shortestPathRoute(start, end);
+    double[] times = new double[route.getLegCount()];
+    for (int leg = 0; leg < times.length; leg++)
+      times[leg] = route.getTime(leg);
+    return times;
+  }
+
+  public Route<NodeType> shortestPathRoute(NodeType start, NodeType end) {
+    return freeze().shortestPathRoute(start, end);
+  }
+
+  public ShortestPathTree<NodeType> shortestPathTree(NodeType start) {
+    return freeze().shortestPathTree(start);
+  }
+
+  // TESTERS FOR DOUBLE WEIGHT GRAPH CLASS
+
+  /**
+   * Tests shortest paths, per-leg times and edge weights on the directed lecture example, which
+   * DijkstraGraph's tests also use.
+   */
+  @Test
+  public void testShortestPathTimes() {
+    DoubleWeightGraph<String> example = new DoubleWeightGraph<>();
+    for (String node : Arrays.asList("A", "B", "C", "D", "E", "F", "G", "H"))
+      example.insertNode(node);
+    example.insertEdge("A", "B", 4.0);
+    example.insertEdge("A", "C", 2.0);
+    example.insertEdge("B", "D", 1.0);
+    example.insertEdge("B", "E", 10.0);
+    example.insertEdge("C", "D", 5.0);
+    example.insertEdge("D", "E", 3.0);
+    example.insertEdge("D", "F", 0.0);
+    example.insertEdge("F", "D", 2.0);
+    example.insertEdge("F", "H", 4.0);
+    example.insertEdge("G", "H", 4.0);
+
+    Assertions.assertEquals(10, example.getEdgeCount());
+    Assertions.assertEquals(Arrays.asList("A", "B", "D", "E"), example.shortestPathData("A", "E"));
+    Assertions.assertArrayEquals(new double[] {4.0, 1.0, 3.0}, example.shortestPathTimes("A", "E"));
+    Assertions.assertEquals(8.0, example.shortestPathCost("A", "E"));
+    Assertions.assertEquals(9.0, example.shortestPathCost("C", "H"));
+    Assertions.assertEquals(0.0, example.shortestPathTimes("A", "A").length);
+    Assertions.assertThrows(NoSuchElementException.class, () -> example.shortestPathData("E", "A"));
+
+    // updating an existing edge changes its weight rather than adding a second edge
+    example.insertEdge("B", "E", 1.0);
+    Assertions.assertEquals(10, example.getEdgeCount());
+    Assertions.assertEquals(1.0, example.getEdgeWeight("B", "E"));
+    Assertions.assertEquals(5.0, example.shortestPathCost("A", "E"));
+  }
+
+  /**
+   * Tests that removing nodes also removes their edges, and keeps every other node and edge
+   * reachable after the ids are compacted.
+   */
+  @Test
+  public void testRemoveNode() {
+    DoubleWeightGraph<String> example = new DoubleWeightGraph<>();
+    for (String node : Arrays.asList("A", "B", "C", "D"))
+      example.insertNode(node);
+    example.insertEdge("A", "B", 1.0);
+    example.insertEdge("B", "D", 1.0);
+    example.insertEdge("A", "C", 2.0);
+    example.insertEdge("C", "D", 2.0);
+    example.insertEdge("D", "A", 3.0);
+
+    Assertions.assertTrue(example.removeNode("B"));
+    Assertions.assertFalse(example.removeNode("B"));
+    Assertions.assertEquals(3, example.getNodeCount());
+    Assertions.assertEquals(3, example.getEdgeCount());
+    Assertions.assertFalse(example.containsEdge("A", "B"));
+    Assertions.assertEquals(Arrays.asList("A", "C", "D"), example.shortestPathData("A", "D"));
+    Assertions.assertEquals(3.0, example.getEdgeWeight("D", "A"));
+    Assertions.assertEquals(5.0, example.shortestPathCost("C", "A"));
+  }
+}
@@ -0,0 +1,219 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This EdgeBatch collects many directed edges, so that they can all be
+ * inserted into a graph at once by GraphADT.insertEdges. The data of each node
+ * is interned the first time it is added to the batch: every later edge that
+ * mentions equal data refers to the same node id and data object, and the
+ * ids are numbered in the order the nodes first appeared. The edges are
+ * stored as parallel arrays of those ids, in the order they were added.
+ *
+ * A batch may hold more than one edge between the same two nodes, in which
+ * case inserting the batch leaves the graph with the weight of the last one,
+ * just as inserting each edge in order with insertEdge would.
+ *
+ * @param NodeType is the data type stored at each graph node
+ * @param EdgeType is the numeric data type stored at each graph edge
+ */
+public class EdgeBatch<NodeType, EdgeType extends Number> {
+
+  // each node's data is stored once, at the position of its id
+  private MapADT<NodeType, Integer> ids = new OpenHashtableMap<>();
+  private List<NodeType> nodes = new ArrayList<>();
+
+  // edge i leads from node predecessors[i] to node successors[i]
+  private int[] predecessors;
+  private int[] successors;
+  private List<EdgeType> weights;
+  private int edgeCount = 0;
+
+  /**
+   * Creates an empty batch with room for 16 edges before it has to grow.
+   */
+  public EdgeBatch() {
+    this(16);
+  }
+
+  /**
+   * Creates an empty batch with room for a number of edges before it has to
+   * grow.
+   *
+   * @param expectedEdges the number of edges expected to be added
+   */
+  public EdgeBatch(int expectedEdges) {
+    int capacity = Math.max(expectedEdges, 1);
+    predecessors = new int[capacity];
+    successors = new int[capacity];
+    weights = new ArrayList<>(capacity);
+  }
+
+  /**
+   * Adds a node to this batch, unless equal data has been added before.
+   *
+   * @param data the data stored in the node
+   * @return the id of the node holding that data within this batch
+   * @throws NullPointerException if data is null
+   */
+  public int addNode(NodeType data) {
+    Integer id = ids.getOrDefault(data, null); // throws NPE when data's null
+    if (id == null) {
+      id = nodes.size();
+      ids.put(data, id);
+      nodes.add(data);
+    }
+    return id;
+  }
+
+  /**
+   * Adds a directed edge to this batch, along with either of its nodes that
+   * has not been added before.
+   *
+   * @param pred   the data stored in the edge's predecessor node
+   * @param succ   the data stored in the edge's successor node
+   * @param weight the weight of the edge
+   * @throws NullPointerException if pred or succ is null
+   */
+  public void addEdge(NodeType pred, NodeType succ, EdgeType weight) {
+    addEdgeByIds(addNode(pred), addNode(succ), weight);
+  }
+
+  /**
+   * Adds a directed edge between two nodes that were already added to this
+   * batch, which callers that keep their own copy of the ids returned by
+   * addNode can use to skip looking up the nodes' data again. This is not an
+   * overload of addEdge, so that a batch of Integer nodes never mistakes the
+   * data of its nodes for their ids.
+   *
+   * @param predId the id of the edge's predecessor node
+   * @param succId the id of the edge's successor node
+   * @param weight the weight of the edge
+   * @throws IndexOutOfBoundsException if either id is not a node of this batch
+   */
+  public void addEdgeByIds(int predId, int succId, EdgeType weight) {
+    checkNode(predId);
+    checkNode(succId);
+    if (edgeCount == predecessors.length) {
+      predecessors = Arrays.copyOf(predecessors, edgeCount * 2);
+      successors = Arrays.copyOf(successors, edgeCount * 2);
+    }
+    predecessors[edgeCount] = predId;
+    successors[edgeCount] = succId;
+    weights.add(weight);
+    edgeCount++;
+  }
+
+  /**
+   * Adds every node and edge of another batch to the end of this one, as if
+   * each of its edges were added here in order. The other batch's nodes keep
+   * the order they first appeared in, so appending the batches of consecutive
+   * parts of a file gives every node the same id that adding the whole file's
+   * edges to one batch would.
+   *
+   * @param other the batch to add the nodes and edges of
+   */
+  public void addAll(EdgeBatch<NodeType, EdgeType> other) {
+    int[] ids = new int[other.getNodeCount()];
+    for (int id = 0; id < ids.length; id++)
+      ids[id] = addNode(other.nodes.get(id));
+    int count = edgeCount + other.edgeCount;
+    if (count > predecessors.length) {
+      predecessors = Arrays.copyOf(predecessors, Math.max(count, edgeCount * 2));
+      successors = Arrays.copyOf(successors, predecessors.length);
+    }
+    for (int edge = 0; edge < other.edgeCount; edge++) {
+      predecessors[edgeCount + edge] = ids[other.predecessors[edge]];
+      successors[edgeCount + edge] = ids[other.successors[edge]];
+    }
+    weights.addAll(other.weights);
+    edgeCount = count;
+  }
+
+  /**
+   * Returns the number of distinct nodes in this batch.
+   *
+   * @return the number of nodes, which are numbered from 0 to this count-1
+   */
+  public int getNodeCount() {
+    return nodes.size();
+  }
+
+  /**
+   * Returns the data stored in one node of this batch.
+   *
+   * @param id the id of the node
+   * @return the data that was first added with that id
+   * @throws IndexOutOfBoundsException if there is no node with that id
+   */
+  public NodeType getNode(int id) {
+    return nodes.get(id);
+  }
+
+  /**
+   * Returns the data of every node in this batch, in the order of their ids.
+   *
+   * @return an unmodifiable list of all node data
+   */
+  public List<NodeType> getNodes() {
+    return Collections.unmodifiableList(nodes);
+  }
+
+  /**
+   * Returns the number of edges in this batch, including any duplicates.
+   *
+   * @return the number of edges, which are numbered from 0 to this count-1
+   */
+  public int getEdgeCount() {
+    return edgeCount;
+  }
+
+  /**
+   * Returns the id of the node that one edge of this batch leaves.
+   *
+   * @param edge the number of the edge, in the order the edges were added
+   * @return the id of that edge's predecessor node
+   * @throws IndexOutOfBoundsException if there is no such edge
+   */
+  public int getPredecessor(int edge) {
+    checkEdge(edge);
+    return predecessors[edge];
+  }
+
+  /**
+   * Returns the id of the node that one edge of this batch enters.
+   *
+   * @param edge the number of the edge, in the order the edges were added
+   * @return the id of that edge's successor node
+   * @throws IndexOutOfBoundsException if there is no such edge
+   */
+  public int getSuccessor(int edge) {
+    checkEdge(edge);
+    return successors[edge];
+  }
+
+  /**
+   * Returns the weight of one edge of this batch.
+   *
+   * @param edge the number of the edge, in the order the edges were added
+   * @return the weight of that edge
+   * @throws IndexOutOfBoundsException if there is no such edge
+   */
+  public EdgeType getWeight(int edge) {
+    return weights.get(edge);
+  }
+
+  // checks that this batch has a node with this id
+  private void checkNode(int id) {
+    if (id < 0 || id >= nodes.size())
+      throw new IndexOutOfBoundsException("No node " + id + " in a batch of " + nodes.size());
+  }
+
+  // checks that the edge arrays hold an edge with this number
+  private void checkEdge(int edge) {
+    if (edge < 0 || edge >= edgeCount)
+      throw new IndexOutOfBoundsException("No edge " + edge + " in a batch of " + edgeCount);
+  }
+
+}
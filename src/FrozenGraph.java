@@ -0,0 +1,408 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * This FrozenGraph is an immutable snapshot of a graph, stored in compressed
+ * sparse row (CSR) form. Nodes are numbered with ids from 0 to n-1, and the
+ * edges leaving node id are stored at positions offsets[id] up to (but not
+ * including) offsets[id+1] of the targets and weights arrays. Shortest path
+ * searches run entirely over these primitive arrays, without following any
+ * Node or Edge references or boxing any weights.
+ *
+ * Snapshots are created by DijkstraGraph.freeze(), or loaded from a binary
+ * file by GraphSnapshot.load(). Every method that would modify the graph
+ * throws an UnsupportedOperationException.
+ *
+ * @param NodeType is the data type stored at each graph node
+ */
+public class FrozenGraph<NodeType> implements GraphADT<NodeType, Double> {
+
+  // the data of each node, indexed by id, and the id of each node's data
+  protected List<NodeType> names;
+  protected MapADT<NodeType, Integer> ids;
+
+  // edges leaving node id are stored from offsets[id] to offsets[id+1]-1
+  protected int[] offsets;
+  protected int[] targets;
+  protected double[] weights;
+
+  // remembers recently found routes, or null for no caching; since a snapshot never changes,
+  // every route is cached for the same version
+  protected RouteCache<NodeType> routeCache = null;
+
+  /**
+   * Creates a snapshot from its CSR arrays.
+   *
+   * @param names   the data of each node, indexed by node id
+   * @param offsets the start of each node's edges, with one extra entry holding the edge count
+   * @param targets the id of the node each edge leads to
+   * @param weights the weight of each edge
+   */
+  public FrozenGraph(List<NodeType> names, int[] offsets, int[] targets, double[] weights) {
+    this.names = Collections.unmodifiableList(new ArrayList<>(names));
+    this.offsets = offsets;
+    this.targets = targets;
+    this.weights = weights;
+    this.ids = new OpenHashtableMap<>(names.size() * 2);
+    for (int id = 0; id < names.size(); id++)
+      ids.put(names.get(id), id);
+  }
+
+  /**
+   * Creates a snapshot from its CSR arrays, along with an unmodifiable list
+   * of its nodes' data and a map from that data to ids, which are used as
+   * they are instead of being copied.
+   *
+   * @param names   the data of each node, indexed by node id
+   * @param ids     the id of each node's data
+   * @param offsets the start of each node's edges, with one extra entry holding the edge count
+   * @param targets the id of the node each edge leads to
+   * @param weights the weight of each edge
+   */
+  protected FrozenGraph(List<NodeType> names, MapADT<NodeType, Integer> ids, int[] offsets,
+      int[] targets, double[] weights) {
+    this.names = names;
+    this.ids = ids;
+    this.offsets = offsets;
+    this.targets = targets;
+    this.weights = weights;
+  }
+
+  /**
+   * Returns the id of the node containing data.
+   *
+   * @param data the data item of the node to look up
+   * @return the id of that node, or -1 if data is not in this graph
+   */
+  public int getId(NodeType data) {
+    return ids.getOrDefault(data, -1);
+  }
+
+  /**
+   * Returns the data stored in the node with the provided id.
+   *
+   * @param id the id of the node
+   * @return the data item in that node
+   */
+  public NodeType getNode(int id) {
+    return names.get(id);
+  }
+
+  /**
+   * Runs Dijkstra's algorithm from the start id over the CSR arrays. The search stops as soon as
+   * the end id is settled, or settles every reachable node when end is -1.
+   *
+   * @param start        the id to start searching from
+   * @param end          the id to stop at once it is settled, or -1 to settle every node
+   * @param predecessors filled with the id of each settled node's predecessor (-1 for start)
+   * @param settled      filled with the ids of the settled nodes, in the order they are settled
+   * @return the queue used for this search, whose keys hold the costs of the settled nodes
+   */
+  protected IndexedMinHeap search(int start, int end, int[] predecessors, int[] settled) {
+    return search(start, end, predecessors, null, settled);
+  }
+
+  /**
+   * Runs the same search as search(start, end, predecessors, settled), and also records the
+   * index of the edge that reaches each settled node, so that a route can read the weight of
+   * each of its legs without looking for the edge again.
+   *
+   * @param start            the id to start searching from
+   * @param end              the id to stop at once it is settled, or -1 to settle every node
+   * @param predecessors     filled with the id of each settled node's predecessor (-1 for start)
+   * @param predecessorEdges filled with the index of the edge from each settled node's
+   *                         predecessor, or null when these are not needed
+   * @param settled          filled with the ids of the settled nodes, in the order they are
+   *                         settled
+   * @return the queue used for this search, whose keys hold the costs of the settled nodes
+   */
+  protected IndexedMinHeap search(int start, int end, int[] predecessors, int[] predecessorEdges,
+      int[] settled) {
+    IndexedMinHeap queue = new IndexedMinHeap(names.size());
+    int settledCount = 0;
+    queue.addOrDecrease(start, 0.0);
+    predecessors[start] = -1;
+    while (!queue.isEmpty()) {
+      int current = queue.removeMin();
+      settled[settledCount++] = current;
+      if (current == end)
+        break;
+      // relax all outgoing edges from the current node
+      double cost = queue.getKey(current);
+      for (int edge = offsets[current]; edge < offsets[current + 1]; edge++)
+        if (queue.addOrDecrease(targets[edge], cost + weights[edge])) {
+          predecessors[targets[edge]] = current;
+          if (predecessorEdges != null)
+            predecessorEdges[targets[edge]] = edge;
+        }
+    }
+    // mark the end of the settled ids when fewer than all nodes were settled
+    if (settledCount < settled.length)
+      settled[settledCount] = -1;
+    return queue;
+  }
+
+  /**
+   * Returns a graph with the same nodes, ids and data as this one, and each
+   * of its edges reversed, so that a search over it finds the costs of the
+   * shortest paths to its start instead of from it.
+   *
+   * @return the reverse of this graph
+   */
+  protected FrozenGraph<NodeType> reverse() {
+    int n = names.size();
+    int[] reverseOffsets = new int[n + 1];
+    for (int edge = 0; edge < targets.length; edge++)
+      reverseOffsets[targets[edge] + 1]++;
+    for (int v = 0; v < n; v++)
+      reverseOffsets[v + 1] += reverseOffsets[v];
+    int[] next = new int[n];
+    System.arraycopy(reverseOffsets, 0, next, 0, n);
+    int[] reverseTargets = new int[targets.length];
+    double[] reverseWeights = new double[targets.length];
+    for (int v = 0; v < n; v++)
+      for (int edge = offsets[v]; edge < offsets[v + 1]; edge++) {
+        int reversed = next[targets[edge]]++;
+        reverseTargets[reversed] = v;
+        reverseWeights[reversed] = weights[edge];
+      }
+    return new FrozenGraph<>(names, ids, reverseOffsets, reverseTargets, reverseWeights);
+  }
+
+  /**
+   * Returns a copy of this graph with the same nodes and ids, where the edge
+   * from pred to succ has the given weight, and is added after pred's other
+   * edges when there was no such edge before.
+   *
+   * @param pred   the id of the node the edge leaves
+   * @param succ   the id of the node the edge leads to
+   * @param weight the weight of that edge in the copy
+   * @return the copy of this graph with that edge
+   */
+  protected FrozenGraph<NodeType> withEdge(int pred, int succ, double weight) {
+    int edge = findEdge(pred, succ);
+    if (edge != -1) {
+      // only the weights change, so the copy shares the other arrays, which are never modified
+      double[] newWeights = weights.clone();
+      newWeights[edge] = weight;
+      return new FrozenGraph<>(names, ids, offsets, targets, newWeights);
+    }
+    int at = offsets[pred + 1];
+    int[] newOffsets = offsets.clone();
+    for (int v = pred + 1; v < newOffsets.length; v++)
+      newOffsets[v]++;
+    int[] newTargets = new int[targets.length + 1];
+    double[] newWeights = new double[targets.length + 1];
+    System.arraycopy(targets, 0, newTargets, 0, at);
+    System.arraycopy(weights, 0, newWeights, 0, at);
+    newTargets[at] = succ;
+    newWeights[at] = weight;
+    System.arraycopy(targets, at, newTargets, at + 1, targets.length - at);
+    System.arraycopy(weights, at, newWeights, at + 1, targets.length - at);
+    return new FrozenGraph<>(names, ids, newOffsets, newTargets, newWeights);
+  }
+
+  /**
+   * Returns a copy of this graph with the same nodes and ids, without the
+   * edge from pred to succ.
+   *
+   * @param pred the id of the node the edge leaves
+   * @param succ the id of the node the edge leads to
+   * @return the copy of this graph without that edge, or this graph when it
+   *         has no such edge
+   */
+  protected FrozenGraph<NodeType> withoutEdge(int pred, int succ) {
+    int edge = findEdge(pred, succ);
+    if (edge == -1)
+      return this;
+    int[] newOffsets = offsets.clone();
+    for (int v = pred + 1; v < newOffsets.length; v++)
+      newOffsets[v]--;
+    int[] newTargets = new int[targets.length - 1];
+    double[] newWeights = new double[targets.length - 1];
+    System.arraycopy(targets, 0, newTargets, 0, edge);
+    System.arraycopy(weights, 0, newWeights, 0, edge);
+    System.arraycopy(targets, edge + 1, newTargets, edge, targets.length - edge - 1);
+    System.arraycopy(weights, edge + 1, newWeights, edge, targets.length - edge - 1);
+    return new FrozenGraph<>(names, ids, newOffsets, newTargets, newWeights);
+  }
+
+  /**
+   * Returns a hash of this graph's ids and edges, which tells whether a file
+   * of precomputed costs was computed for it. The data of each node is left
+   * out, since precomputed costs only refer to nodes by their ids.
+   *
+   * @return a hash of the node count and the CSR arrays
+   */
+  protected long fingerprint() {
+    long hash = names.size();
+    for (int offset : offsets)
+      hash = 31 * hash + offset;
+    for (int target : targets)
+      hash = 31 * hash + target;
+    for (double weight : weights)
+      hash = 31 * hash + Double.doubleToLongBits(weight);
+    return hash;
+  }
+
+  // returns the position of the edge from pred to succ within targets, or -1 when there is none
+  private int findEdge(NodeType pred, NodeType succ) {
+    int predId = getId(pred);
+    int succId = getId(succ);
+    if (predId == -1 || succId == -1)
+      return -1;
+    return findEdge(predId, succId);
+  }
+
+  // returns the position of the edge from predId to succId within targets, or -1 when there is none
+  protected int findEdge(int predId, int succId) {
+    for (int edge = offsets[predId]; edge < offsets[predId + 1]; edge++)
+      if (targets[edge] == succId)
+        return edge;
+    return -1;
+  }
+
+  // METHODS FROM GRAPHADT
+
+  public boolean insertNode(NodeType data) {
+    throw new UnsupportedOperationException("FrozenGraph cannot be modified");
+  }
+
+  public boolean removeNode(NodeType data) {
+    throw new UnsupportedOperationException("FrozenGraph cannot be modified");
+  }
+
+  public boolean insertEdge(NodeType pred, NodeType succ, Double weight) {
+    throw new UnsupportedOperationException("FrozenGraph cannot be modified");
+  }
+
+  public void insertEdges(EdgeBatch<NodeType, Double> batch) {
+    throw new UnsupportedOperationException("FrozenGraph cannot be modified");
+  }
+
+  public boolean removeEdge(NodeType pred, NodeType succ) {
+    throw new UnsupportedOperationException("FrozenGraph cannot be modified");
+  }
+
+  public boolean containsNode(NodeType data) {
+    return ids.containsKey(data);
+  }
+
+  public List<NodeType> getAllNodes() {
+    return names;
+  }
+
+  public int getNodeCount() {
+    return names.size();
+  }
+
+  public boolean containsEdge(NodeType pred, NodeType succ) {
+    return findEdge(pred, succ) != -1;
+  }
+
+  public Double getEdge(NodeType pred, NodeType succ) {
+    int edge = findEdge(pred, succ);
+    if (edge == -1)
+      throw new NoSuchElementException("No edge from " + pred + " to " + succ);
+    return weights[edge];
+  }
+
+  public int getEdgeCount() {
+    return targets.length;
+  }
+
+  public List<NodeType> shortestPathData(NodeType start, NodeType end) {
+    int startId = getId(start);
+    int endId = getId(end);
+    if (startId == -1 || endId == -1)
+      throw new NoSuchElementException("The start or end node is not found");
+    int[] predecessors = new int[names.size()];
+    IndexedMinHeap queue = search(startId, endId, predecessors, new int[names.size()]);
+    if (!queue.isSettled(endId))
+      throw new NoSuchElementException("No path found");
+    LinkedList<NodeType> path = new LinkedList<>();
+    for (int id = endId; id != -1; id = predecessors[id])
+      path.addFirst(names.get(id));
+    return path;
+  }
+
+  public double shortestPathCost(NodeType start, NodeType end) {
+    int startId = getId(start);
+    int endId = getId(end);
+    if (startId == -1 || endId == -1)
+      throw new NoSuchElementException("The start or end node is not found");
+    IndexedMinHeap queue = search(startId, endId, new int[names.size()], new int[names.size()]);
+    if (!queue.isSettled(endId))
+      throw new NoSuchElementException("No path found");
+    return queue.getKey(endId);
+  }
+
+  public Route<NodeType> shortestPathRoute(NodeType start, NodeType end) {
+    if (routeCache == null)
+      return searchRoute(start, end);
+    Route<NodeType> route = routeCache.get(start, end, 0);
+    if (route == null) {
+      route = searchRoute(start, end);
+      routeCache.put(start, end, 0, route);
+    }
+    return route;
+  }
+
+  /**
+   * Sets the cache that shortestPathRoute keeps its routes in.
+   *
+   * @param routeCache the cache to use, or null to stop caching routes
+   */
+  public void setRouteCache(RouteCache<NodeType> routeCache) {
+    this.routeCache = routeCache;
+  }
+
+  /**
+   * Returns the cache that shortestPathRoute keeps its routes in.
+   *
+   * @return the route cache, or null when routes are not cached
+   */
+  public RouteCache<NodeType> getRouteCache() {
+    return routeCache;
+  }
+
+  // searches for the route from start to end, without consulting the route cache
+  protected Route<NodeType> searchRoute(NodeType start, NodeType end) {
+    int startId = getId(start);
+    int endId = getId(end);
+    if (startId == -1 || endId == -1)
+      throw new NoSuchElementException("The start or end node is not found");
+    int[] predecessors = new int[names.size()];
+    int[] predecessorEdges = new int[names.size()];
+    IndexedMinHeap queue =
+        search(startId, endId, predecessors, predecessorEdges, new int[names.size()]);
+    if (!queue.isSettled(endId))
+      throw new NoSuchElementException("No path found");
+    int legs = 0;
+    for (int id = endId; id != startId; id = predecessors[id])
+      legs++;
+    // walk back from end to start, reading the weight of the edge that each node was reached by
+    LinkedList<NodeType> locations = new LinkedList<>();
+    double[] times = new double[legs];
+    for (int id = endId; id != startId; id = predecessors[id]) {
+      locations.addFirst(names.get(id));
+      times[--legs] = weights[predecessorEdges[id]];
+    }
+    locations.addFirst(start);
+    return new Route<>(locations, times, queue.getKey(endId));
+  }
+
+  public ShortestPathTree<NodeType> shortestPathTree(NodeType start) {
+    int startId = getId(start);
+    if (startId == -1)
+      throw new NoSuchElementException("The start node is not found");
+    int[] predecessors = new int[names.size()];
+    int[] settled = new int[names.size()];
+    IndexedMinHeap queue = search(startId, -1, predecessors, settled);
+    return ShortestPathTree.fromSearch(names::get, predecessors, settled, queue);
+  }
+
+}
@@ -0,0 +1,389 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * This GraphSnapshot writes a FrozenGraph of location names to a binary file,
+ * and loads it back by memory-mapping that file, so that a process can start
+ * answering queries without parsing a DOT file and building a graph first.
+ *
+ * A snapshot file holds a header followed by six sections, each starting at a
+ * multiple of 8 bytes, with every number stored in little-endian order:
+ *
+ *     header      int MAGIC, int VERSION, int nodeCount, int edgeCount,
+ *                 int slotCount, int 0, long nameByteCount
+ *     offsets     int[nodeCount + 1], the FrozenGraph's CSR offsets
+ *     targets     int[edgeCount], the id each edge leads to
+ *     weights     double[edgeCount], the weight of each edge
+ *     nameStarts  int[nodeCount + 1], where each name starts within names
+ *     index       int[2 * slotCount], an open-addressing table of pairs of
+ *                 a name's String.hashCode() and its id plus one (or 0 for
+ *                 an empty slot), which is at most half full
+ *     names       byte[nameByteCount], the UTF-8 bytes of every name, in order
+ *
+ * Loading a snapshot copies the three CSR arrays out of the mapped file in
+ * bulk, since every search runs over FrozenGraph's primitive arrays. The names
+ * and the index stay in the mapped file: each name is only decoded the first
+ * time it is needed, and names are looked up by probing the index there,
+ * instead of building a map of every name before the first query. Before the
+ * graph is returned, every section is checked once, so that a corrupt file is
+ * reported as an IOException instead of failing or hanging a later query.
+ */
+public class GraphSnapshot {
+
+  /** The first four bytes of every snapshot file: "CNGS" in ASCII. */
+  public static final int MAGIC = 0x43_4E_47_53;
+
+  /** The version of the format written by this class, the only one it loads. */
+  public static final int VERSION = 1;
+
+  private static final int HEADER_BYTES = 32;
+
+  /**
+   * Writes a snapshot of a DijkstraGraph of location names, as it is now.
+   *
+   * @param graph    the graph to write a snapshot of
+   * @param filename the path of the snapshot file to write
+   * @throws IOException if the file cannot be written, or the snapshot would
+   *                     be larger than 2 GB
+   */
+  public static void write(DijkstraGraph<String, ?> graph, String filename) throws IOException {
+    write(graph.freeze(), filename);
+  }
+
+  /**
+   * Writes a snapshot of a FrozenGraph of location names. The snapshot is
+   * written to a temporary file that then replaces filename, so a process
+   * loading the snapshot at the same time never sees a partly written one.
+   *
+   * @param graph    the graph to write a snapshot of
+   * @param filename the path of the snapshot file to write
+   * @throws IOException if the file cannot be written, or the snapshot would
+   *                     be larger than 2 GB
+   */
+  public static void write(FrozenGraph<String> graph, String filename) throws IOException {
+    int n = graph.getNodeCount();
+    int m = graph.getEdgeCount();
+    byte[][] names = new byte[n][];
+    long nameByteCount = 0;
+    for (int id = 0; id < n; id++) {
+      names[id] = graph.getNode(id).getBytes(StandardCharsets.UTF_8);
+      nameByteCount += names[id].length;
+    }
+    int slotCount = 2;
+    while (slotCount < 2L * n)
+      slotCount *= 2;
+    Layout layout = new Layout(n, m, slotCount, nameByteCount);
+    if (layout.size > Integer.MAX_VALUE)
+      throw new IOException("Snapshot of " + layout.size + " bytes is larger than 2 GB");
+
+    ByteBuffer buffer = ByteBuffer.allocate((int) layout.size).order(ByteOrder.LITTLE_ENDIAN);
+    buffer.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(m).putInt(slotCount).putInt(0)
+        .putLong(nameByteCount);
+    buffer.position(layout.offsets);
+    buffer.asIntBuffer().put(graph.offsets);
+    buffer.position(layout.targets);
+    buffer.asIntBuffer().put(graph.targets);
+    buffer.position(layout.weights);
+    buffer.asDoubleBuffer().put(graph.weights);
+    int[] nameStarts = new int[n + 1];
+    for (int id = 0; id < n; id++)
+      nameStarts[id + 1] = nameStarts[id] + names[id].length;
+    buffer.position(layout.nameStarts);
+    buffer.asIntBuffer().put(nameStarts);
+    for (int id = 0; id < n; id++) {
+      int hash = graph.getNode(id).hashCode();
+      int slot = slot(hash, slotCount - 1);
+      while (buffer.getInt(layout.index + 8 * slot + 4) != 0)
+        slot = (slot + 1) & (slotCount - 1);
+      buffer.putInt(layout.index + 8 * slot, hash);
+      buffer.putInt(layout.index + 8 * slot + 4, id + 1);
+    }
+    buffer.position(layout.names);
+    for (byte[] name : names)
+      buffer.put(name);
+    writeFile(buffer, filename);
+  }
+
+  /**
+   * Writes every byte of a buffer to a temporary file that then replaces
+   * filename, so that a process reading filename at the same time sees
+   * either all of the old file or all of the new one.
+   *
+   * @param buffer   the bytes to write, from its start up to its limit
+   * @param filename the path of the file to write
+   * @throws IOException if the file cannot be written
+   */
+  static void writeFile(ByteBuffer buffer, String filename) throws IOException {
+    Path path = Paths.get(filename).toAbsolutePath();
+    Path temporary = path.resolveSibling(path.getFileName() + "." + ProcessHandle.current().pid()
+        + ".tmp");
+    try {
+      try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE_NEW,
+          StandardOpenOption.WRITE)) {
+        buffer.rewind();
+        while (buffer.hasRemaining())
+          channel.write(buffer);
+      }
+      Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+  }
+
+  /**
+   * Loads a snapshot file by memory-mapping it.
+   *
+   * @param filename the path of the snapshot file to load
+   * @return a graph with the same nodes, ids and edges as the graph that was
+   *         written to that file
+   * @throws IOException if the file cannot be read, or is not a complete and
+   *                     consistent snapshot of this version
+   */
+  public static FrozenGraph<String> load(String filename) throws IOException {
+    MappedByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+      if (channel.size() < HEADER_BYTES || channel.size() > Integer.MAX_VALUE)
+        throw new IOException("Not a graph snapshot: " + filename);
+      // the mapping stays valid after the channel is closed
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+    buffer.order(ByteOrder.LITTLE_ENDIAN);
+    if (buffer.getInt(0) != MAGIC)
+      throw new IOException("Not a graph snapshot: " + filename);
+    if (buffer.getInt(4) != VERSION)
+      throw new IOException("Unsupported graph snapshot version " + buffer.getInt(4) + " in "
+          + filename + ", expected version " + VERSION);
+    int n = buffer.getInt(8);
+    int m = buffer.getInt(12);
+    int slotCount = buffer.getInt(16);
+    long nameByteCount = buffer.getLong(24);
+    Layout layout = new Layout(n, m, slotCount, nameByteCount);
+    if (n < 0 || m < 0 || slotCount < 2L * n || Integer.bitCount(slotCount) != 1
+        || nameByteCount < 0 || layout.size != buffer.capacity())
+      throw new IOException("Incomplete or corrupt graph snapshot: " + filename);
+
+    int[] offsets = new int[n + 1];
+    buffer.position(layout.offsets);
+    buffer.asIntBuffer().get(offsets);
+    int[] targets = new int[m];
+    buffer.position(layout.targets);
+    buffer.asIntBuffer().get(targets);
+    double[] weights = new double[m];
+    buffer.position(layout.weights);
+    buffer.asDoubleBuffer().get(weights);
+    if (!isConsistent(buffer, layout, offsets, targets, slotCount, nameByteCount))
+      throw new IOException("Incomplete or corrupt graph snapshot: " + filename);
+    MappedNames names = new MappedNames(buffer, layout, n);
+    return new FrozenGraph<>(names, new MappedIndex(buffer, layout, slotCount, names), offsets,
+        targets, weights);
+  }
+
+  /**
+   * Checks in one pass over each section that a snapshot can be searched and
+   * looked up in without reading outside of its arrays or its mapped file, or
+   * probing its index forever: the offsets start at 0, never decrease and end
+   * at the number of edges, every edge leads to a node, the names' starts do
+   * the same within the names section, and the index holds every id exactly
+   * once, which leaves at least half of its slots empty.
+   *
+   * @param buffer        the mapped snapshot file
+   * @param layout        the position of each section within buffer
+   * @param offsets       the CSR offsets copied out of buffer
+   * @param targets       the CSR targets copied out of buffer
+   * @param slotCount     the number of slots in the index section
+   * @param nameByteCount the number of bytes in the names section
+   * @return true when every section is consistent, or false otherwise
+   */
+  private static boolean isConsistent(ByteBuffer buffer, Layout layout, int[] offsets,
+      int[] targets, int slotCount, long nameByteCount) {
+    int n = offsets.length - 1;
+    if (offsets[0] != 0 || offsets[n] != targets.length)
+      return false;
+    for (int id = 0; id < n; id++)
+      if (offsets[id] > offsets[id + 1])
+        return false;
+    for (int target : targets)
+      if (target < 0 || target >= n)
+        return false;
+    int previous = buffer.getInt(layout.nameStarts);
+    if (previous != 0 || buffer.getInt(layout.nameStarts + 4 * n) != nameByteCount)
+      return false;
+    for (int id = 1; id <= n; id++) {
+      int start = buffer.getInt(layout.nameStarts + 4 * id);
+      if (start < previous)
+        return false;
+      previous = start;
+    }
+    boolean[] indexed = new boolean[n];
+    for (int slot = 0; slot < slotCount; slot++) {
+      int id = buffer.getInt(layout.index + 8 * slot + 4) - 1;
+      if (id < -1 || id >= n || (id != -1 && indexed[id]))
+        return false;
+      if (id != -1)
+        indexed[id] = true;
+    }
+    for (boolean isIndexed : indexed)
+      if (!isIndexed)
+        return false;
+    return true;
+  }
+
+  // returns the home slot of a hash within an index of mask+1 slots
+  private static int slot(int hash, int mask) {
+    hash *= 0x9E3779B9;
+    return (hash ^ (hash >>> 16)) & mask;
+  }
+
+  // the position of each section within a snapshot file
+  private static class Layout {
+    private final int offsets;
+    private final int targets;
+    private final int weights;
+    private final int nameStarts;
+    private final int index;
+    private final int names;
+    private final long size;
+
+    private Layout(int n, int m, int slotCount, long nameByteCount) {
+      long position = HEADER_BYTES;
+      offsets = (int) position;
+      position = align(position + 4L * (n + 1));
+      targets = (int) position;
+      position = align(position + 4L * m);
+      weights = (int) position;
+      position = align(position + 8L * m);
+      nameStarts = (int) position;
+      position = align(position + 4L * (n + 1));
+      index = (int) position;
+      position = align(position + 8L * slotCount);
+      names = (int) position;
+      size = position + nameByteCount;
+    }
+
+    // rounds a position up to the next multiple of 8
+    private static long align(long position) {
+      return (position + 7) & ~7L;
+    }
+  }
+
+  // the names of a snapshot's nodes, indexed by id, which are decoded from the mapped file the
+  // first time each is read
+  private static class MappedNames extends AbstractList<String> {
+    private final ByteBuffer buffer;
+    private final Layout layout;
+    private final String[] decoded; // each name once it has been decoded, or null before that
+
+    private MappedNames(ByteBuffer buffer, Layout layout, int n) {
+      this.buffer = buffer;
+      this.layout = layout;
+      this.decoded = new String[n];
+    }
+
+    @Override
+    public String get(int id) {
+      String name = decoded[id]; // throws IndexOutOfBoundsException for ids that do not exist
+      if (name == null) {
+        // Strings are immutable, so threads that decode the same name at once can each store
+        // their own copy without any locking
+        int start = buffer.getInt(layout.nameStarts + 4 * id);
+        byte[] bytes = new byte[buffer.getInt(layout.nameStarts + 4 * id + 4) - start];
+        buffer.get(layout.names + start, bytes);
+        name = new String(bytes, StandardCharsets.UTF_8);
+        decoded[id] = name;
+      }
+      return name;
+    }
+
+    @Override
+    public int size() {
+      return decoded.length;
+    }
+  }
+
+  // the read-only map from each name of a snapshot to its id, which probes the index section of
+  // the mapped file
+  private static class MappedIndex implements MapADT<String, Integer> {
+    private final ByteBuffer buffer;
+    private final int index; // the position of the index section
+    private final int mask;  // slotCount - 1
+    private final MappedNames names;
+
+    private MappedIndex(ByteBuffer buffer, Layout layout, int slotCount, MappedNames names) {
+      this.buffer = buffer;
+      this.index = layout.index;
+      this.mask = slotCount - 1;
+      this.names = names;
+    }
+
+    // returns the id of a name, or -1 when it is not in the snapshot
+    private int find(String key) {
+      int hash = key.hashCode(); // throws NPE when key's null
+      for (int slot = slot(hash, mask); ; slot = (slot + 1) & mask) {
+        int id = buffer.getInt(index + 8 * slot + 4) - 1;
+        if (id == -1)
+          return -1;
+        if (buffer.getInt(index + 8 * slot) == hash && names.get(id).equals(key))
+          return id;
+      }
+    }
+
+    public void put(String key, Integer value) {
+      throw new UnsupportedOperationException("A graph snapshot cannot be modified");
+    }
+
+    public boolean containsKey(String key) {
+      return find(key) != -1;
+    }
+
+    public Integer get(String key) throws NoSuchElementException {
+      int id = find(key);
+      if (id == -1)
+        throw new NoSuchElementException("Key not found");
+      return id;
+    }
+
+    public Integer getOrDefault(String key, Integer defaultValue) {
+      int id = find(key);
+      return id == -1 ? defaultValue : id;
+    }
+
+    public Integer remove(String key) {
+      throw new UnsupportedOperationException("A graph snapshot cannot be modified");
+    }
+
+    public void clear() {
+      throw new UnsupportedOperationException("A graph snapshot cannot be modified");
+    }
+
+    public int getSize() {
+      return names.size();
+    }
+
+    public int getCapacity() {
+      return mask + 1;
+    }
+
+    public void ensureCapacity(int size) {
+      throw new UnsupportedOperationException("A graph snapshot cannot be modified");
+    }
+
+    public List<String> getKeys() {
+      return new ArrayList<>(names);
+    }
+  }
+
+}
@@ -0,0 +1,103 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Scanner;
+
+/**
+ * This HtmlTemplate holds an html page that has been split around its
+ * placeholder comments, with every static part already encoded as UTF-8
+ * bytes. Pages are then put together by writing those static parts and the
+ * fragments that replace each placeholder straight to an OutputStream, one
+ * after another, without building the whole page in memory first.
+ */
+public class HtmlTemplate {
+
+  // segments[i] is written before the fragment for placeholder i, and the
+  // last segment is written after the final fragment
+  private final byte[][] segments;
+
+  /**
+   * Splits the html around its placeholders, which must each appear in the
+   * html in the order they are listed. Only the first occurrence of each
+   * placeholder is replaced by a fragment.
+   *
+   * @param html         the contents of the page
+   * @param placeholders the text that each fragment replaces, in order
+   * @throws IllegalArgumentException if a placeholder is not found after the
+   *                                  placeholder listed before it
+   */
+  public HtmlTemplate(String html, String... placeholders) {
+    segments = new byte[placeholders.length + 1][];
+    int from = 0;
+    for(int i = 0; i < placeholders.length; i++) {
+      int at = html.indexOf(placeholders[i], from);
+      if(at == -1)
+        throw new IllegalArgumentException("Template has no placeholder " +
+            placeholders[i]);
+      segments[i] = html.substring(from, at).getBytes(StandardCharsets.UTF_8);
+      from = at + placeholders[i].length();
+    }
+    segments[placeholders.length] =
+        html.substring(from).getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Reads a template from a file, ending each of its lines with a single \n.
+   *
+   * @param filename     the path of the file holding the template's html
+   * @param placeholders the text that each fragment replaces, in order
+   * @return the template read from that file
+   * @throws IOException if the file cannot be read
+   * @throws IllegalArgumentException if a placeholder is not found in order
+   */
+  public static HtmlTemplate load(String filename, String... placeholders)
+      throws IOException {
+    StringBuilder html = new StringBuilder();
+    try(Scanner in = new Scanner(new File(filename), StandardCharsets.UTF_8)) {
+      while(in.hasNextLine()) html.append(in.nextLine()).append('\n');
+    }
+    return new HtmlTemplate(html.toString(), placeholders);
+  }
+
+  /**
+   * Returns the number of bytes in a page made from this template.
+   *
+   * @param fragments the UTF-8 encoded fragment for each placeholder
+   * @return the length of the page in bytes
+   * @throws IllegalArgumentException if there is not one fragment per placeholder
+   */
+  public long length(byte[]... fragments) {
+    checkFragments(fragments);
+    long length = 0;
+    for(byte[] segment : segments) length += segment.length;
+    for(byte[] fragment : fragments) length += fragment.length;
+    return length;
+  }
+
+  /**
+   * Writes a page made from this template to out, with each placeholder
+   * replaced by its fragment. The stream is neither flushed nor closed.
+   *
+   * @param out       the stream to write the page to
+   * @param fragments the UTF-8 encoded fragment for each placeholder
+   * @throws IOException if writing to out fails
+   * @throws IllegalArgumentException if there is not one fragment per placeholder
+   */
+  public void write(OutputStream out, byte[]... fragments) throws IOException {
+    checkFragments(fragments);
+    for(int i = 0; i < fragments.length; i++) {
+      out.write(segments[i]);
+      out.write(fragments[i]);
+    }
+    out.write(segments[fragments.length]);
+  }
+
+  // checks that there is exactly one fragment for each placeholder
+  private void checkFragments(byte[][] fragments) {
+    if(fragments.length != segments.length - 1)
+      throw new IllegalArgumentException("Expected " + (segments.length - 1) +
+          " fragments but got " + fragments.length);
+  }
+
+}
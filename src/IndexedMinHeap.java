@@ -0,0 +1,191 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * This IndexedMinHeap is a binary min-heap over the integer ids 0..capacity-1,
+ * where each id is ordered by a double key. Because the heap knows where each
+ * id is stored, the key of an id that is already in the heap can be lowered in
+ * place (decrease-key), so the heap never holds more than one entry per id.
+ *
+ * An id moves through three states: it starts out unreached, is added to the
+ * heap with a key, and is settled once it has been removed as the minimum.
+ * The key of a settled id is kept so that it can still be read afterwards.
+ */
+public class IndexedMinHeap {
+
+  // position of each id within heap, or one of these two markers
+  private static final int UNREACHED = -1;
+  private static final int SETTLED = -2;
+
+  private int[] heap;      // ids stored in heap order
+  private int[] positions; // index of each id within heap
+  private double[] keys;   // key of each id
+  private int size = 0;
+
+  /**
+   * Creates an empty heap for the ids 0..capacity-1, all of them unreached.
+   *
+   * @param capacity the number of ids this heap can order
+   */
+  public IndexedMinHeap(int capacity) {
+    heap = new int[capacity];
+    positions = new int[capacity];
+    keys = new double[capacity];
+    Arrays.fill(positions, UNREACHED);
+  }
+
+  /**
+   * Checks whether there are any ids left in the heap.
+   *
+   * @return true if no ids are stored in the heap, false otherwise
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Returns the number of ids currently stored in the heap.
+   *
+   * @return the number of ids in the heap
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Checks whether an id has been added to the heap (and possibly removed) yet.
+   *
+   * @param id the id to check
+   * @return true if the id has been reached, false otherwise
+   */
+  public boolean isReached(int id) {
+    return positions[id] != UNREACHED;
+  }
+
+  /**
+   * Checks whether an id has already been removed as the heap's minimum.
+   *
+   * @param id the id to check
+   * @return true if the id has been settled, false otherwise
+   */
+  public boolean isSettled(int id) {
+    return positions[id] == SETTLED;
+  }
+
+  /**
+   * Returns the current key of a reached id; for a settled id this is the key
+   * it had when it was removed.
+   *
+   * @param id the id to look up
+   * @return the key of that id
+   */
+  public double getKey(int id) {
+    return keys[id];
+  }
+
+  /**
+   * Returns the smallest key in the heap without removing its id.
+   *
+   * @return the smallest key, or positive infinity when the heap is empty
+   */
+  public double peekKey() {
+    return size == 0 ? Double.POSITIVE_INFINITY : keys[heap[0]];
+  }
+
+  /**
+   * Adds an unreached id to the heap, or lowers the key of an id that is
+   * already in the heap. Nothing changes when the id is settled, or when key
+   * is not lower than the id's current key.
+   *
+   * @param id  the id to add or update
+   * @param key the new key for that id
+   * @return true if the id was added or its key was lowered, false otherwise
+   */
+  public boolean addOrDecrease(int id, double key) {
+    int position = positions[id];
+    if (position == UNREACHED) {
+      keys[id] = key;
+      heap[size] = id;
+      positions[id] = size;
+      siftUp(size++);
+      return true;
+    }
+    if (position == SETTLED || key >= keys[id])
+      return false;
+    keys[id] = key;
+    siftUp(position);
+    return true;
+  }
+
+  /**
+   * Removes and settles the id with the smallest key.
+   *
+   * @return the id that was removed
+   * @throws NoSuchElementException if the heap is empty
+   */
+  public int removeMin() {
+    if (size == 0)
+      throw new NoSuchElementException("Heap is empty");
+    int min = heap[0];
+    positions[min] = SETTLED;
+    size--;
+    if (size > 0) {
+      // move the last id to the root, and restore the heap order below it
+      heap[0] = heap[size];
+      positions[heap[0]] = 0;
+      siftDown(0);
+    }
+    return min;
+  }
+
+  /**
+   * Makes an id that is not in the heap unreached again. Resetting each id a
+   * search settled once the heap is empty lets one heap run many searches,
+   * without filling all of its arrays again for each one.
+   *
+   * @param id the settled (or unreached) id to reset
+   * @throws IllegalStateException if the id is still in the heap
+   */
+  public void reset(int id) {
+    if (positions[id] >= 0)
+      throw new IllegalStateException("Id " + id + " is still in the heap");
+    positions[id] = UNREACHED;
+  }
+
+  // moves the id at this index up until its parent's key is no larger
+  private void siftUp(int index) {
+    int id = heap[index];
+    double key = keys[id];
+    while (index > 0) {
+      int parent = (index - 1) >>> 1;
+      if (keys[heap[parent]] <= key)
+        break;
+      heap[index] = heap[parent];
+      positions[heap[index]] = index;
+      index = parent;
+    }
+    heap[index] = id;
+    positions[id] = index;
+  }
+
+  // moves the id at this index down until neither child has a smaller key
+  private void siftDown(int index) {
+    int id = heap[index];
+    double key = keys[id];
+    while (true) {
+      int child = 2 * index + 1;
+      if (child >= size)
+        break;
+      if (child + 1 < size && keys[heap[child + 1]] < keys[heap[child]])
+        child++;
+      if (key <= keys[heap[child]])
+        break;
+      heap[index] = heap[child];
+      positions[heap[index]] = index;
+      index = child;
+    }
+    heap[index] = id;
+    positions[id] = index;
+  }
+
+}
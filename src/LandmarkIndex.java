@@ -0,0 +1,192 @@
+/**
+ * This LandmarkIndex holds the preprocessing for ALT (A*, landmarks and the
+ * triangle inequality) searches: the shortest path costs from and to a few
+ * landmark nodes, which give a lower bound on the cost of the shortest path
+ * between any two nodes. For a landmark L and nodes v and t,
+ *
+ *     cost(v, t) >= cost(L, t) - cost(L, v)  and  cost(v, t) >= cost(v, L) - cost(t, L)
+ *
+ * so the largest of these differences over every landmark is a lower bound
+ * that never overestimates, and lets an A* search settle the nodes leading
+ * toward t long before the nodes leading away from it.
+ *
+ * Landmarks are chosen by farthest selection: starting from the node with the
+ * most edges leaving it, each landmark is the node whose round trip cost to
+ * the closest landmark chosen before it is largest, which tends to place
+ * landmarks on the edges of the graph, where their bounds are tightest.
+ *
+ * The costs are stored in one array, with the costs of each node next to each
+ * other, so computing a bound reads two short runs of memory. The index takes
+ * 2 * 8 bytes per node per landmark.
+ */
+public class LandmarkIndex {
+
+  /** The number of landmarks chosen when no other number is requested. */
+  public static final int DEFAULT_LANDMARKS = 8;
+
+  private final int[] landmarks;
+  // costs[2 * (v * landmarks.length + i)] is the cost from landmark i to node v, and the entry
+  // after it is the cost from node v to landmark i, either of which is infinite when there is
+  // no such path
+  private final double[] costs;
+  private final long preprocessingNanos;
+
+  /**
+   * Chooses landmarks within a graph, and computes the costs from and to
+   * each of them. Fewer landmarks are chosen when there are not enough nodes
+   * that are connected to the landmarks chosen before them.
+   *
+   * @param graph the graph to compute lower bounds within
+   * @param count the largest number of landmarks to choose
+   * @throws IllegalArgumentException if count is not positive
+   */
+  public <NodeType> LandmarkIndex(FrozenGraph<NodeType> graph, int count) {
+    if (count <= 0)
+      throw new IllegalArgumentException("At least one landmark must be requested");
+    long startTime = System.nanoTime();
+    int n = graph.getNodeCount();
+    FrozenGraph<NodeType> reverse = graph.reverse();
+
+    // the round trip cost from every node to its closest landmark so far, starting from the node
+    // with the most edges leaving it
+    double[] closest = new double[n];
+    double[][] from = new double[count][];
+    double[][] to = new double[count][];
+    int chosen = 0;
+    if (n > 0) {
+      int seed = 0;
+      for (int v = 1; v < n; v++)
+        if (degree(graph, v) > degree(graph, seed))
+          seed = v;
+      double[] seedFrom = costs(graph, seed);
+      double[] seedTo = costs(reverse, seed);
+      for (int v = 0; v < n; v++)
+        closest[v] = roundTrip(seedFrom[v], seedTo[v]);
+    }
+    int[] picked = new int[count];
+    while (chosen < count) {
+      // the next landmark is the farthest node that is connected to the landmarks at all
+      int farthest = -1;
+      for (int v = 0; v < n; v++)
+        if (closest[v] > 0 && closest[v] != Double.POSITIVE_INFINITY
+            && (farthest == -1 || closest[v] > closest[farthest]))
+          farthest = v;
+      if (farthest == -1)
+        break;
+      picked[chosen] = farthest;
+      from[chosen] = costs(graph, farthest);
+      to[chosen] = costs(reverse, farthest);
+      for (int v = 0; v < n; v++)
+        closest[v] = Math.min(closest[v], roundTrip(from[chosen][v], to[chosen][v]));
+      chosen++;
+    }
+
+    landmarks = new int[chosen];
+    System.arraycopy(picked, 0, landmarks, 0, chosen);
+    costs = new double[2 * n * chosen];
+    for (int v = 0; v < n; v++)
+      for (int i = 0; i < chosen; i++) {
+        costs[2 * (v * chosen + i)] = from[i][v];
+        costs[2 * (v * chosen + i) + 1] = to[i][v];
+      }
+    preprocessingNanos = System.nanoTime() - startTime;
+  }
+
+  // returns the number of edges leaving a node
+  private static int degree(FrozenGraph<?> graph, int id) {
+    return graph.offsets[id + 1] - graph.offsets[id];
+  }
+
+  // returns the cost of a round trip from a landmark to a node and back, or of whichever of those
+  // paths exists when only one of them does
+  private static double roundTrip(double from, double to) {
+    if (from == Double.POSITIVE_INFINITY)
+      return to;
+    if (to == Double.POSITIVE_INFINITY)
+      return from;
+    return from + to;
+  }
+
+  // returns the cost of the shortest path from start to every node, or infinity for each node
+  // that cannot be reached
+  private static double[] costs(FrozenGraph<?> graph, int start) {
+    int n = graph.getNodeCount();
+    IndexedMinHeap queue = graph.search(start, -1, new int[n], new int[n]);
+    double[] costs = new double[n];
+    for (int v = 0; v < n; v++)
+      costs[v] = queue.isSettled(v) ? queue.getKey(v) : Double.POSITIVE_INFINITY;
+    return costs;
+  }
+
+  /**
+   * Returns a lower bound on the cost of the shortest path between two
+   * nodes. The bound is infinite when the landmarks show that there is no
+   * path at all, such as when a landmark can be reached from the first node
+   * but not from the second.
+   *
+   * @param from the id of the node the path starts at
+   * @param to   the id of the node the path ends at
+   * @return a cost that is no larger than the cost of the shortest path
+   */
+  public double lowerBound(int from, int to) {
+    int k = landmarks.length;
+    int v = 2 * from * k;
+    int t = 2 * to * k;
+    double bound = 0.0;
+    for (int i = 0; i < 2 * k; i += 2) {
+      // where both costs are infinite, the difference is NaN, which is never larger than bound
+      double forward = costs[t + i] - costs[v + i];
+      double backward = costs[v + i + 1] - costs[t + i + 1];
+      if (forward > bound)
+        bound = forward;
+      if (backward > bound)
+        bound = backward;
+    }
+    return bound;
+  }
+
+  /**
+   * Returns the number of landmarks in this index.
+   *
+   * @return the number of landmarks chosen
+   */
+  public int getLandmarkCount() {
+    return landmarks.length;
+  }
+
+  /**
+   * Returns the id of one of the landmarks.
+   *
+   * @param i the number of the landmark, in the order they were chosen
+   * @return the id of that landmark's node
+   * @throws IndexOutOfBoundsException if there is no such landmark
+   */
+  public int getLandmark(int i) {
+    return landmarks[i];
+  }
+
+  /**
+   * Returns the memory taken by the costs from and to the landmarks.
+   *
+   * @return the size of those costs in bytes
+   */
+  public long getMemoryBytes() {
+    return 8L * costs.length + 4L * landmarks.length;
+  }
+
+  /**
+   * Returns how long choosing the landmarks and computing their costs took.
+   *
+   * @return the preprocessing time in nanoseconds
+   */
+  public long getPreprocessingNanos() {
+    return preprocessingNanos;
+  }
+
+  @Override
+  public String toString() {
+    return "LandmarkIndex[landmarks=" + landmarks.length + ", bytes=" + getMemoryBytes()
+        + ", preprocessing=" + preprocessingNanos / 1000000 + " ms]";
+  }
+
+}
@@ -0,0 +1,92 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+
+/**
+ * A local load test for a running WebApp. A number of clients each send one
+ * request after another to the same URL for a while, and the throughput and
+ * latencies of the responses received are then reported. For example:
+ *
+ *     java -Dnavigator.executor=platform WebApp 8000
+ *     java LoadTest "http://localhost:8000/?start=Memorial%20Union&end=Mack%20House" 16 10
+ *
+ * The first two seconds of every run are a warm up, and are not measured.
+ */
+public class LoadTest {
+
+  private static final long WARMUP_NANOS = 2_000_000_000L;
+
+  public static void main(String[] args) throws InterruptedException {
+    if(args.length != 3) {
+      throw new IllegalArgumentException("You must pass the URL to request," +
+          " the number of concurrent clients, and the number of seconds to" +
+          " run for as command line arguments.");
+    }
+    URI uri = URI.create(args[0]);
+    int clients = Integer.parseInt(args[1]);
+    int seconds = Integer.parseInt(args[2]);
+    HttpClient client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1).build();
+    HttpRequest request = HttpRequest.newBuilder(uri).build();
+
+    long start = System.nanoTime();
+    long measureFrom = start + WARMUP_NANOS;
+    long end = start + seconds * 1_000_000_000L;
+    // each client records the latency of its own successful responses
+    long[][] latencies = new long[clients][];
+    int[] counts = new int[clients];
+    int[] failures = new int[clients];
+    Thread[] threads = new Thread[clients];
+    for(int i = 0; i < clients; i++) {
+      int id = i;
+      latencies[id] = new long[1024];
+      threads[id] = new Thread(() -> {
+        long now = System.nanoTime();
+        while(now < end) {
+          boolean ok;
+          try {
+            ok = client.send(request, HttpResponse.BodyHandlers.ofByteArray())
+                .statusCode() == 200;
+          } catch(Exception e) {
+            ok = false;
+          }
+          long sent = now;
+          now = System.nanoTime();
+          if(sent < measureFrom) continue; // still warming up
+          if(!ok) {
+            failures[id]++;
+          } else {
+            if(counts[id] == latencies[id].length)
+              latencies[id] = Arrays.copyOf(latencies[id], counts[id] * 2);
+            latencies[id][counts[id]++] = now - sent;
+          }
+        }
+      });
+      threads[id].start();
+    }
+    for(Thread thread : threads)
+      thread.join();
+
+    // combine every client's latencies to report on all of them together
+    int total = 0;
+    int failed = 0;
+    for(int i = 0; i < clients; i++) {
+      total += counts[i];
+      failed += failures[i];
+    }
+    long[] all = new long[total];
+    for(int i = 0, next = 0; i < clients; next += counts[i], i++)
+      System.arraycopy(latencies[i], 0, all, next, counts[i]);
+    Arrays.sort(all);
+    double measured = (end - measureFrom) / 1e9;
+    System.out.printf("clients=%d requests=%d failed=%d throughput=%.1f req/s%n",
+        clients, total, failed, total / measured);
+    if(total > 0)
+      System.out.printf("latency p50=%.2f ms p99=%.2f ms max=%.2f ms%n",
+          all[total / 2] / 1e6, all[(int) (total * 0.99)] / 1e6,
+          all[total - 1] / 1e6);
+  }
+
+}
@@ -0,0 +1,253 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.IntStream;
+
+/**
+ * This MeetingPointEngine finds the meeting point for a group of start
+ * locations: the location that minimizes the sum of the shortest path costs
+ * from every start location to it. It runs one single-source search per start
+ * location over the arrays of a FrozenGraph, and keeps the per-node sums of
+ * their costs in a double[], instead of running one search for every pair of
+ * start and destination.
+ *
+ * On a single core, the searches are interleaved, always settling the next
+ * node of whichever search has the closest one. Every search then only grows
+ * until no node it has not yet settled could still beat the best meeting point
+ * found so far, so most of the graph is never searched. With more cores
+ * available, the searches instead each run to completion on their own core,
+ * and are combined afterwards.
+ *
+ * In both cases, a node is only a candidate while every start location can
+ * reach it. When the best k meeting points are requested, they are selected
+ * with a BoundedMaxHeap, and the searches only have to grow until no node can
+ * beat the worst of those k. When two nodes have the same total cost, the one
+ * that comes later in the graph's getAllNodes() order is ranked first, unless
+ * another order for breaking ties is provided.
+ *
+ * @param NodeType is the data type stored at each graph node
+ */
+public class MeetingPointEngine<NodeType> {
+
+  private final FrozenGraph<NodeType> graph;
+  private final boolean parallel;
+
+  /**
+   * Creates an engine that runs its searches in parallel when more than one
+   * processor is available.
+   *
+   * @param graph the graph to find meeting points within
+   */
+  public MeetingPointEngine(FrozenGraph<NodeType> graph) {
+    this(graph, Runtime.getRuntime().availableProcessors() > 1);
+  }
+
+  /**
+   * Creates an engine that either runs its searches in parallel to
+   * completion, or interleaves them on the calling thread.
+   *
+   * @param graph    the graph to find meeting points within
+   * @param parallel true to run the searches in parallel, false to interleave them
+   */
+  public MeetingPointEngine(FrozenGraph<NodeType> graph, boolean parallel) {
+    this.graph = graph;
+    this.parallel = parallel;
+  }
+
+  /**
+   * Returns the location that can be reached from all of the start locations
+   * with the smallest sum of shortest path costs, where ties are won by the
+   * location that comes later in the graph's getAllNodes() order.
+   *
+   * @param starts the locations to minimize the total cost from
+   * @return the location with the smallest total cost from all starts
+   * @throws NoSuchElementException if any start is not in the graph, or if no
+   *                                location can be reached from every start
+   */
+  public NodeType closestDestinationFromAll(List<NodeType> starts) {
+    return closestDestinationFromAll(starts, null);
+  }
+
+  /**
+   * Returns the location that can be reached from all of the start locations
+   * with the smallest sum of shortest path costs, where ties are won by the
+   * location that comes later in tieOrder.
+   *
+   * @param starts   the locations to minimize the total cost from
+   * @param tieOrder every location in the graph, in the order used to break
+   *                 ties, or null to use the graph's getAllNodes() order
+   * @return the location with the smallest total cost from all starts
+   * @throws NoSuchElementException if any start is not in the graph, or if no
+   *                                location can be reached from every start
+   */
+  public NodeType closestDestinationFromAll(List<NodeType> starts, List<NodeType> tieOrder) {
+    return closestDestinationsFromAll(starts, 1, tieOrder).get(0).getLocation();
+  }
+
+  /**
+   * Returns the k locations that can be reached from all of the start
+   * locations with the smallest sums of shortest path costs, ordered from the
+   * smallest total cost to the largest, where ties are ranked in the reverse
+   * of the graph's getAllNodes() order.
+   *
+   * @param starts the locations to minimize the total cost from
+   * @param k      the largest number of locations to return
+   * @return up to k destinations with the smallest total costs, in order
+   * @throws IllegalArgumentException if k is not positive
+   * @throws NoSuchElementException   if any start is not in the graph, or if no
+   *                                  location can be reached from every start
+   */
+  public List<Destination<NodeType>> closestDestinationsFromAll(List<NodeType> starts, int k) {
+    return closestDestinationsFromAll(starts, k, null);
+  }
+
+  /**
+   * Returns the k locations that can be reached from all of the start
+   * locations with the smallest sums of shortest path costs, ordered from the
+   * smallest total cost to the largest, where ties are ranked in the reverse
+   * of tieOrder.
+   *
+   * @param starts   the locations to minimize the total cost from
+   * @param k        the largest number of locations to return
+   * @param tieOrder every location in the graph, in the order used to break
+   *                 ties, or null to use the graph's getAllNodes() order
+   * @return up to k destinations with the smallest total costs, in order
+   * @throws IllegalArgumentException if k is not positive
+   * @throws NoSuchElementException   if any start is not in the graph, or if no
+   *                                  location can be reached from every start
+   */
+  public List<Destination<NodeType>> closestDestinationsFromAll(List<NodeType> starts, int k,
+      List<NodeType> tieOrder) {
+    if (k <= 0)
+      throw new IllegalArgumentException("At least one destination must be requested");
+    // ranks[id] is the position of each node in tieOrder, where null ranks nodes by id
+    int[] ranks = null;
+    if (tieOrder != null) {
+      ranks = new int[graph.getNodeCount()];
+      for (int i = 0; i < tieOrder.size(); i++)
+        ranks[graph.getId(tieOrder.get(i))] = i;
+    }
+    int[] startIds = new int[starts.size()];
+    for (int i = 0; i < startIds.length; i++) {
+      startIds[i] = graph.getId(starts.get(i));
+      if (startIds[i] == -1)
+        throw new NoSuchElementException("Start location " + starts.get(i) + " does not exist");
+    }
+
+    // there cannot be more destinations than nodes, however large k is
+    BoundedMaxHeap best = new BoundedMaxHeap(Math.min(k, Math.max(graph.getNodeCount(), 1)));
+    if (startIds.length > 0) {
+      if (parallel)
+        searchInParallel(startIds, ranks, best);
+      else
+        searchInterleaved(startIds, ranks, best);
+    }
+    if (best.isEmpty())
+      throw new NoSuchElementException("No common destination found from the given start locations.");
+
+    // the heap removes the worst destination first, so reverse the order they are removed in
+    List<Destination<NodeType>> ranked = new ArrayList<>(best.size());
+    while (!best.isEmpty()) {
+      double totalCost = best.peekKey();
+      ranked.add(new Destination<>(graph.getNode(best.removeMax()), totalCost));
+    }
+    Collections.reverse(ranked);
+    return ranked;
+  }
+
+  // offers a node with every start's cost summed up to the best destinations
+  private static void offer(BoundedMaxHeap best, int id, int[] ranks, double total) {
+    best.offer(id, ranks == null ? id : ranks[id], total);
+  }
+
+  // runs every search to completion in parallel, and then sums their costs
+  private void searchInParallel(int[] startIds, int[] ranks, BoundedMaxHeap best) {
+    int n = graph.getNodeCount();
+    IndexedMinHeap[] searches = new IndexedMinHeap[startIds.length];
+    IntStream.range(0, startIds.length).parallel().forEach(k ->
+        searches[k] = graph.search(startIds[k], -1, new int[n], new int[n]));
+
+    double[] sums = new double[n];
+    for (int id = 0; id < n; id++) {
+      // add the cost from each start in order, dropping this node as soon as a
+      // start cannot reach it or its partial sum already exceeds the worst total kept
+      int k = 0;
+      for (; k < searches.length && sums[id] <= best.getBound(); k++) {
+        if (!searches[k].isSettled(id))
+          break;
+        sums[id] += searches[k].getKey(id);
+      }
+      if (k == searches.length)
+        offer(best, id, ranks, sums[id]);
+    }
+  }
+
+  // interleaves the searches, stopping once no unfinished node can beat the worst total kept
+  private void searchInterleaved(int[] startIds, int[] ranks, BoundedMaxHeap best) {
+    int n = graph.getNodeCount();
+    int k = startIds.length;
+    IndexedMinHeap[] searches = new IndexedMinHeap[k];
+    for (int j = 0; j < k; j++) {
+      searches[j] = new IndexedMinHeap(n);
+      searches[j].addOrDecrease(startIds[j], 0.0);
+    }
+    double[] sums = new double[n]; // sum of the costs from the searches that settled each node
+    int[] counts = new int[n];     // the number of searches that settled each node
+    int[] partial = new int[n];    // the nodes settled by some, but not all, searches
+    int partialCount = 0;
+    int stepsUntilCheck = 0;
+
+    while (true) {
+      // every node that no search has settled costs at least the sum of the next keys
+      int next = 0;
+      double frontier = 0.0;
+      for (int j = 0; j < k; j++) {
+        frontier += searches[j].peekKey();
+        if (searches[j].peekKey() < searches[next].peekKey())
+          next = j;
+      }
+      if (searches[next].isEmpty())
+        break; // every search has settled every node it can reach
+      double bound = best.getBound();
+      if (frontier > bound && --stepsUntilCheck <= 0) {
+        // so only the partially settled nodes can still beat the worst total kept: drop
+        // those that cannot, and stop once there are none left
+        int kept = 0;
+        for (int i = 0; i < partialCount; i++) {
+          int id = partial[i];
+          double lowest = sums[id];
+          for (int j = 0; j < k && lowest <= bound; j++)
+            if (!searches[j].isSettled(id))
+              lowest += searches[j].peekKey();
+          if (counts[id] < k && lowest <= bound)
+            partial[kept++] = id;
+        }
+        partialCount = kept;
+        if (partialCount == 0)
+          break;
+        // check again once about as many nodes have been settled as are left to check
+        stepsUntilCheck = partialCount;
+      }
+
+      // settle the closest node of that search, and relax the edges leaving it
+      IndexedMinHeap search = searches[next];
+      int current = search.removeMin();
+      double cost = search.getKey(current);
+      sums[current] += cost;
+      if (++counts[current] == k) {
+        // add the costs from each start in order, so that totals do not depend on
+        // the order the searches happened to settle this node in
+        double total = 0.0;
+        for (int j = 0; j < k; j++)
+          total += searches[j].getKey(current);
+        offer(best, current, ranks, total);
+      } else if (counts[current] == 1) {
+        partial[partialCount++] = current;
+      }
+      for (int edge = graph.offsets[current]; edge < graph.offsets[current + 1]; edge++)
+        search.addOrDecrease(graph.targets[edge], cost + graph.weights[edge]);
+    }
+  }
+
+}
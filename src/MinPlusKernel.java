@@ -0,0 +1,50 @@
+/**
+ * This MinPlusKernel relaxes one row of a DistanceMatrix against a path over
+ * a cheaper edge, taking for every column j the cheaper of the row's own cost
+ * and viaEdge + succCosts[j], and pointing the next hop of every cost that the
+ * edge beats at hop.
+ *
+ * The kernel is a VectorMinPlusKernel when that class and the incubating
+ * jdk.incubator.vector module are both available, which compares and blends
+ * a whole vector of columns at a time. It lives in its own source folder,
+ * vector/, since it can only be compiled (and run) with that module added:
+ *
+ *     javac -d out src/*.java
+ *     javac --add-modules jdk.incubator.vector -cp out -d out vector/*.java
+ *     java --add-modules jdk.incubator.vector -cp out WebApp
+ *
+ * Otherwise the kernel is a ScalarMinPlusKernel, whose loops have no
+ * branches, so that the JIT compiler can vectorize them instead.
+ */
+public interface MinPlusKernel {
+
+  /**
+   * Relaxes one row against the costs of the row of the edge's successor.
+   * Only the costs that the path over the edge beats change, along with
+   * their next hops.
+   *
+   * @param rowCosts  the costs of the row, which are lowered in place
+   * @param rowHops   the next hops of the row, which are replaced in place
+   *                  wherever a cost is lowered
+   * @param succCosts the costs of the row of the edge's successor
+   * @param viaEdge   the cost from the row's node over the edge to its successor
+   * @param hop       the next hop from the row's node toward the edge
+   */
+  public void relax(float[] rowCosts, int[] rowHops, float[] succCosts, float viaEdge, int hop);
+
+  /**
+   * Returns the VectorMinPlusKernel when it can be loaded, or otherwise the
+   * ScalarMinPlusKernel.
+   *
+   * @return the fastest kernel available to this process
+   */
+  public static MinPlusKernel load() {
+    try {
+      // loaded by name, since this file is compiled without the vector module
+      return (MinPlusKernel) Class.forName("VectorMinPlusKernel").getDeclaredConstructor()
+          .newInstance();
+    } catch (ReflectiveOperationException | LinkageError e) {
+      return new ScalarMinPlusKernel();
+    }
+  }
+}
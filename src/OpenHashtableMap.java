@@ -0,0 +1,240 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * This OpenHashtableMap stores its key,value pairs directly in two parallel
+ * arrays using open addressing with linear probing: a key that collides with
+ * another is stored in the next free slot after its home slot. The capacity is
+ * always a power of two, so home slots are found with a bit mask instead of a
+ * division, and the table doubles once it becomes more than half full. Looking
+ * up a missing key stops at the first empty slot, without throwing or scanning
+ * the rest of the table.
+ */
+public class OpenHashtableMap<KeyType, ValueType> implements MapADT<KeyType, ValueType> {
+
+  // keys and values share slot indexes, an empty slot has a null key
+  private Object[] keys;
+  private Object[] values;
+  private int mask; // capacity - 1
+  private int countSize = 0;
+
+  // CONSTRUCTORS FOR OPEN HASHTABLE MAP
+
+  /**
+   * Creates an empty map that can hold at least capacity/2 keys before growing.
+   *
+   * @param capacity the minimum capacity, rounded up to a power of two
+   */
+  public OpenHashtableMap(int capacity) {
+    int powerOfTwo = 2;
+    while (powerOfTwo < capacity)
+      powerOfTwo *= 2;
+    keys = new Object[powerOfTwo];
+    values = new Object[powerOfTwo];
+    mask = powerOfTwo - 1;
+  }
+
+  public OpenHashtableMap() // with default capacity = 64
+  {
+    this(64);
+  }
+
+  // HELPER METHODS
+
+  // spreads the bits of a key's hash code, so that the mask also sees the high bits
+  private int homeSlot(Object key) {
+    int hash = key.hashCode() * 0x9E3779B9;
+    return (hash ^ (hash >>> 16)) & mask;
+  }
+
+  // returns the slot holding key, or the empty slot that ends its probe sequence
+  private int findSlot(Object key) {
+    int slot = homeSlot(key);
+    while (keys[slot] != null && !keys[slot].equals(key))
+      slot = (slot + 1) & mask;
+    return slot;
+  }
+
+  // doubles the capacity, and re-inserts every key into the larger table
+  private void grow() {
+    resize(keys.length * 2);
+  }
+
+  // re-inserts every key into a table with the given power of two capacity
+  private void resize(int capacity) {
+    Object[] oldKeys = keys;
+    Object[] oldValues = values;
+    keys = new Object[capacity];
+    values = new Object[capacity];
+    mask = keys.length - 1;
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != null) {
+        int slot = findSlot(oldKeys[i]);
+        keys[slot] = oldKeys[i];
+        values[slot] = oldValues[i];
+      }
+    }
+  }
+
+  // METHODS FROM MAPADT
+
+  /**
+   * Adds a new key,value pair/mapping to this collection.
+   *
+   * @param key   the key of the key,value pair
+   * @param value the value that key maps to
+   * @throws IllegalArgumentException if key already maps to a value
+   * @throws NullPointerException     if key is null
+   */
+  @Override
+  public void put(KeyType key, ValueType value) throws IllegalArgumentException {
+    if (key == null)
+      throw new NullPointerException("Key is null");
+    int slot = findSlot(key);
+    if (keys[slot] != null)
+      throw new IllegalArgumentException("Key already maps to a value");
+    keys[slot] = key;
+    values[slot] = value;
+    countSize++;
+    // keep the table at most half full, so probe sequences stay short
+    if (countSize * 2 > keys.length)
+      grow();
+  }
+
+  /**
+   * Checks whether a key maps to a value in this collection.
+   *
+   * @param key the key to check
+   * @return true if the key maps to a value, and false is the key doesn't map to a value
+   */
+  @Override
+  public boolean containsKey(KeyType key) {
+    return keys[findSlot(key)] != null;
+  }
+
+  /**
+   * Retrieves the specific value that a key maps to.
+   *
+   * @param key the key to look up
+   * @return the value that key maps to
+   * @throws NoSuchElementException when key is not stored in this collection
+   */
+  @Override
+  @SuppressWarnings("unchecked")
+  public ValueType get(KeyType key) throws NoSuchElementException {
+    int slot = findSlot(key);
+    if (keys[slot] == null)
+      throw new NoSuchElementException("Key not stored in this collection");
+    return (ValueType) values[slot];
+  }
+
+  /**
+   * Retrieves the specific value that a key maps to, or a default value when the key is not
+   * stored in this collection.
+   *
+   * @param key          the key to look up
+   * @param defaultValue the value to return when key is not stored in this collection
+   * @return the value that key maps to, or defaultValue
+   */
+  @Override
+  @SuppressWarnings("unchecked")
+  public ValueType getOrDefault(KeyType key, ValueType defaultValue) {
+    int slot = findSlot(key);
+    return keys[slot] == null ? defaultValue : (ValueType) values[slot];
+  }
+
+  /**
+   * Remove the mapping for a key from this collection.
+   *
+   * @param key the key whose mapping to remove
+   * @return the value that the removed key mapped to
+   * @throws NoSuchElementException when key is not stored in this collection
+   */
+  @Override
+  @SuppressWarnings("unchecked")
+  public ValueType remove(KeyType key) throws NoSuchElementException {
+    int slot = findSlot(key);
+    if (keys[slot] == null)
+      throw new NoSuchElementException("Key not stored in this collection");
+    ValueType removed = (ValueType) values[slot];
+    // shift later keys of this probe sequence back into the gap, so that no
+    // lookup ever stops early at the emptied slot
+    int gap = slot;
+    for (int next = (gap + 1) & mask; keys[next] != null; next = (next + 1) & mask) {
+      int home = homeSlot(keys[next]);
+      // the key at next may only move back when its home is not after the gap
+      if (((next - home) & mask) >= ((next - gap) & mask)) {
+        keys[gap] = keys[next];
+        values[gap] = values[next];
+        gap = next;
+      }
+    }
+    keys[gap] = null;
+    values[gap] = null;
+    countSize--;
+    return removed;
+  }
+
+  /**
+   * Removes all key,value pairs from this collection.
+   */
+  @Override
+  public void clear() {
+    Arrays.fill(keys, null);
+    Arrays.fill(values, null);
+    countSize = 0;
+  }
+
+  /**
+   * Retrieves the number of keys stored in this collection.
+   *
+   * @return the number of keys stored in this collection
+   */
+  @Override
+  public int getSize() {
+    return countSize;
+  }
+
+  /**
+   * Retrieves this collection's capacity.
+   *
+   * @return the size of the underlying array for this collection
+   */
+  @Override
+  public int getCapacity() {
+    return keys.length;
+  }
+
+  /**
+   * Grows this collection if needed, so that it can store at least size keys before it has to grow
+   * again, by re-inserting the keys already stored just once.
+   *
+   * @param size the number of keys to make room for
+   */
+  @Override
+  public void ensureCapacity(int size) {
+    // the table grows once it becomes more than half full
+    int capacity = keys.length;
+    while (capacity < 2 * size)
+      capacity *= 2;
+    if (capacity > keys.length)
+      resize(capacity);
+  }
+
+  /**
+   * Retrieves this collection's keys.
+   *
+   * @return a list of keys in the underlying array for this collection
+   */
+  @Override
+  @SuppressWarnings("unchecked")
+  public List<KeyType> getKeys() {
+    List<KeyType> keyList = new ArrayList<>(countSize);
+    for (Object key : keys)
+      if (key != null)
+        keyList.add((KeyType) key);
+    return keyList;
+  }
+}
@@ -0,0 +1,78 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Assertions;
+
+/**
+ * This class contains tests for OpenHashtableMap, which JUnit cannot run from
+ * within that class, since it declares more than one constructor.
+ */
+public class OpenHashtableMapTests {
+
+  /**
+   * Tests that the capacity starts at a power of two and doubles once the table is more than half
+   * full, and that duplicate and null keys are rejected.
+   */
+  @Test
+  public void testPutAndGrow() {
+    OpenHashtableMap<String, String> tester = new OpenHashtableMap<>(3);
+    Assertions.assertEquals(4, tester.getCapacity(), "test FAILED");
+    tester.put("Burger", "American");
+    tester.put("Doctor", "General Surgeon");
+    Assertions.assertEquals(4, tester.getCapacity(), "test FAILED");
+    tester.put("Teacher", "Elementary");
+    Assertions.assertEquals(8, tester.getCapacity(), "test FAILED");
+    Assertions.assertEquals(3, tester.getSize(), "test FAILED");
+    Assertions.assertEquals("American", tester.get("Burger"), "test FAILED");
+
+    Assertions.assertThrows(IllegalArgumentException.class, () -> tester.put("Burger", "Fries"));
+    Assertions.assertThrows(NullPointerException.class, () -> tester.put(null, null));
+  }
+
+  /**
+   * Tests lookups of missing keys: containsKey and getOrDefault return normally, while get and
+   * remove still throw as the MapADT requires.
+   */
+  @Test
+  public void testMissingKeys() {
+    OpenHashtableMap<String, String> tester = new OpenHashtableMap<>();
+    tester.put("Student", "Computer Science");
+
+    Assertions.assertTrue(tester.containsKey("Student"), "test FAILED");
+    Assertions.assertFalse(tester.containsKey("Doctor"), "test FAILED");
+    Assertions.assertEquals("none", tester.getOrDefault("Doctor", "none"), "test FAILED");
+    Assertions.assertEquals("Computer Science", tester.getOrDefault("Student", "none"));
+    Assertions.assertThrows(NoSuchElementException.class, () -> tester.get("Doctor"));
+    Assertions.assertThrows(NoSuchElementException.class, () -> tester.remove("Doctor"));
+  }
+
+  /**
+   * Tests that removing keys from the middle of colliding probe sequences leaves every other key
+   * reachable. "Aa" and "BB" have the same hash code, so all 256 strings built from eight of these
+   * blocks share one home slot.
+   */
+  @Test
+  public void testRemoveWithCollisions() {
+    OpenHashtableMap<String, Integer> tester = new OpenHashtableMap<>();
+    List<String> colliding = new ArrayList<>();
+    for (int i = 0; i < 256; i++) {
+      String key = "";
+      for (int bit = 0; bit < 8; bit++)
+        key += ((i >> bit) & 1) == 0 ? "Aa" : "BB";
+      colliding.add(key);
+      tester.put(key, i);
+    }
+    for (int i = 0; i < 256; i += 3)
+      Assertions.assertEquals(i, tester.remove(colliding.get(i)), "test FAILED");
+
+    Assertions.assertEquals(170, tester.getSize(), "test FAILED");
+    for (int i = 0; i < 256; i++)
+      Assertions.assertEquals(i % 3 != 0, tester.containsKey(colliding.get(i)), "test FAILED");
+    Assertions.assertEquals(170, tester.getKeys().size(), "test FAILED");
+
+    tester.clear();
+    Assertions.assertEquals(0, tester.getSize(), "test FAILED");
+    Assertions.assertFalse(tester.containsKey(colliding.get(1)), "test FAILED");
+  }
+}
@@ -0,0 +1,106 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class stores everything about one shortest path that a single search
+ * finds: the locations along the path in order, the time it takes to walk
+ * each leg between two neighboring locations, and the total cost of the
+ * path. A path through n locations has n-1 legs, so a route from a location
+ * to itself has one location and no legs.
+ *
+ * @param NodeType is the data type stored at each graph node
+ */
+public class Route<NodeType> {
+
+  protected List<NodeType> locations;
+  protected double[] times; // times[leg] is the weight of the edge leaving locations.get(leg)
+  protected double cost;
+
+  /**
+   * Creates a route from the results of a search.
+   *
+   * @param locations the locations along the path, starting with its start and ending with its end
+   * @param times     the weight of each leg of the path, one fewer than the locations
+   * @param cost      the total cost of the path
+   * @throws IllegalArgumentException if there is not exactly one fewer time than locations
+   */
+  public Route(List<NodeType> locations, double[] times, double cost) {
+    if (locations.isEmpty() || times.length != locations.size() - 1)
+      throw new IllegalArgumentException("A route needs exactly one time per leg");
+    this.locations = Collections.unmodifiableList(new ArrayList<>(locations));
+    this.times = times;
+    this.cost = cost;
+  }
+
+  /**
+   * Returns the location this route starts at.
+   *
+   * @return the first location along this route
+   */
+  public NodeType getStart() {
+    return locations.get(0);
+  }
+
+  /**
+   * Returns the location this route ends at.
+   *
+   * @return the last location along this route
+   */
+  public NodeType getEnd() {
+    return locations.get(locations.size() - 1);
+  }
+
+  /**
+   * Returns every location along this route, in order.
+   *
+   * @return an unmodifiable list of the locations along this route
+   */
+  public List<NodeType> getLocations() {
+    return locations;
+  }
+
+  /**
+   * Returns the number of legs along this route.
+   *
+   * @return one fewer than the number of locations along this route
+   */
+  public int getLegCount() {
+    return times.length;
+  }
+
+  /**
+   * Returns the time it takes to walk one leg of this route.
+   *
+   * @param leg the number of the leg, where leg i leads from location i to location i+1
+   * @return the time of that leg
+   * @throws IndexOutOfBoundsException if there is no such leg
+   */
+  public double getTime(int leg) {
+    if (leg < 0 || leg >= times.length)
+      throw new IndexOutOfBoundsException("No leg " + leg + " in a route of " + times.length);
+    return times[leg];
+  }
+
+  /**
+   * Returns the time it takes to walk each leg of this route, in order.
+   *
+   * @return a new list holding the time of each leg
+   */
+  public List<Double> getTimes() {
+    List<Double> list = new ArrayList<>(times.length);
+    for (double time : times)
+      list.add(time);
+    return list;
+  }
+
+  /**
+   * Returns the total cost of this route.
+   *
+   * @return the sum of the weights along this route
+   */
+  public double getTotalCost() {
+    return cost;
+  }
+
+}
@@ -0,0 +1,193 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This RouteCache remembers the routes most recently found between pairs of
+ * locations, so that popular queries do not have to search the graph again.
+ * It holds at most capacity routes, and once it is full, adding another
+ * route evicts the route that was least recently used.
+ *
+ * Every route is cached for one version of the graph, which is the graph's
+ * modification count. Looking up a route with a different version than the
+ * cached routes were stored with discards all of them, so a route is never
+ * returned after the graph it was found in has changed.
+ *
+ * All methods are synchronized, so one cache can be shared by the threads
+ * answering requests.
+ *
+ * @param NodeType is the data type stored at each graph node
+ */
+public class RouteCache<NodeType> {
+
+  // identifies the route from start to end
+  private static class Key {
+    private final Object start;
+    private final Object end;
+
+    private Key(Object start, Object end) {
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof Key && ((Key) other).start.equals(start)
+          && ((Key) other).end.equals(end);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * start.hashCode() + end.hashCode();
+    }
+  }
+
+  private final int capacity;
+  private final LinkedHashMap<Key, Route<NodeType>> routes;
+  private int version = 0; // the graph version all cached routes belong to
+
+  // counters that describe how well the cache fits the queries it receives
+  private long hits = 0;
+  private long misses = 0;
+  private long evictions = 0;
+  private long invalidations = 0;
+
+  /**
+   * Creates an empty cache that holds up to capacity routes.
+   *
+   * @param capacity the largest number of routes kept at once
+   * @throws IllegalArgumentException if capacity is not positive
+   */
+  public RouteCache(int capacity) {
+    if (capacity <= 0)
+      throw new IllegalArgumentException("Capacity must be positive");
+    this.capacity = capacity;
+    // an access ordered map keeps its least recently used entry first
+    this.routes = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, Route<NodeType>> eldest) {
+        if (size() <= RouteCache.this.capacity)
+          return false;
+        evictions++;
+        return true;
+      }
+    };
+  }
+
+  public RouteCache() // with default capacity = 1024
+  {
+    this(1024);
+  }
+
+  // discards every cached route when they belong to another version of the graph
+  private void checkVersion(int version) {
+    if (version != this.version) {
+      invalidations += routes.size();
+      routes.clear();
+      this.version = version;
+    }
+  }
+
+  /**
+   * Returns the cached route from start to end, and marks it as the most
+   * recently used route.
+   *
+   * @param start   the start location of the route
+   * @param end     the end location of the route
+   * @param version the current modification count of the graph
+   * @return the cached route, or null when no route from start to end is
+   *         cached for this version of the graph
+   */
+  public synchronized Route<NodeType> get(NodeType start, NodeType end, int version) {
+    checkVersion(version);
+    Route<NodeType> route = routes.get(new Key(start, end));
+    if (route == null)
+      misses++;
+    else
+      hits++;
+    return route;
+  }
+
+  /**
+   * Caches the route from start to end that was found in one version of the
+   * graph, evicting the least recently used route when the cache is full.
+   *
+   * @param start   the start location of the route
+   * @param end     the end location of the route
+   * @param version the modification count of the graph that route was found in
+   * @param route   the route to cache
+   */
+  public synchronized void put(NodeType start, NodeType end, int version, Route<NodeType> route) {
+    checkVersion(version);
+    routes.put(new Key(start, end), route);
+  }
+
+  /**
+   * Discards every cached route, without resetting the counters.
+   */
+  public synchronized void clear() {
+    invalidations += routes.size();
+    routes.clear();
+  }
+
+  /**
+   * Returns the number of routes currently cached.
+   *
+   * @return the number of cached routes
+   */
+  public synchronized int getSize() {
+    return routes.size();
+  }
+
+  /**
+   * Returns the largest number of routes this cache keeps at once.
+   *
+   * @return the capacity of this cache
+   */
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Returns the number of lookups that found a cached route.
+   *
+   * @return the number of hits
+   */
+  public synchronized long getHits() {
+    return hits;
+  }
+
+  /**
+   * Returns the number of lookups that did not find a cached route.
+   *
+   * @return the number of misses
+   */
+  public synchronized long getMisses() {
+    return misses;
+  }
+
+  /**
+   * Returns the number of routes evicted to make room for newer ones.
+   *
+   * @return the number of evictions
+   */
+  public synchronized long getEvictions() {
+    return evictions;
+  }
+
+  /**
+   * Returns the number of routes discarded because the graph changed, or
+   * because the cache was cleared.
+   *
+   * @return the number of invalidated routes
+   */
+  public synchronized long getInvalidations() {
+    return invalidations;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "RouteCache[size=" + routes.size() + "/" + capacity + ", hits=" + hits + ", misses="
+        + misses + ", evictions=" + evictions + ", invalidations=" + invalidations + "]";
+  }
+
+}
@@ -0,0 +1,63 @@
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Assertions;
+
+/**
+ * This class contains tests for RouteCache, which JUnit cannot run from within
+ * that class, since it declares more than one constructor.
+ */
+public class RouteCacheTests {
+
+  private static Route<String> route(String start, String end) {
+    return new Route<>(Arrays.asList(start, end), new double[] {1.0}, 1.0);
+  }
+
+  /**
+   * Tests that a full cache evicts the least recently used route, and counts hits, misses and
+   * evictions.
+   */
+  @Test
+  public void testEvictsLeastRecentlyUsed() {
+    RouteCache<String> cache = new RouteCache<>(2);
+    cache.put("A", "B", 0, route("A", "B"));
+    cache.put("A", "C", 0, route("A", "C"));
+    Assertions.assertNotNull(cache.get("A", "B", 0)); // A->C is now the least recently used
+    cache.put("B", "C", 0, route("B", "C"));
+
+    Assertions.assertEquals(2, cache.getSize());
+    Assertions.assertNull(cache.get("A", "C", 0));
+    Assertions.assertEquals("B", cache.get("A", "B", 0).getEnd());
+    Assertions.assertNull(cache.get("B", "A", 0));
+    Assertions.assertEquals(2, cache.getHits());
+    Assertions.assertEquals(2, cache.getMisses());
+    Assertions.assertEquals(1, cache.getEvictions());
+  }
+
+  /**
+   * Tests that a graph with a route cache stops returning a cached route as soon as the graph is
+   * modified.
+   */
+  @Test
+  public void testInvalidatedByGraphChanges() {
+    DijkstraGraph<String, Double> graph = new DijkstraGraph<>();
+    RouteCache<String> cache = new RouteCache<>();
+    graph.setRouteCache(cache);
+    graph.insertNode("A");
+    graph.insertNode("B");
+    graph.insertNode("C");
+    graph.insertEdge("A", "B", 5.0);
+    graph.insertEdge("B", "C", 5.0);
+
+    Assertions.assertEquals(10.0, graph.shortestPathRoute("A", "C").getTotalCost());
+    Assertions.assertSame(graph.shortestPathRoute("A", "C"), graph.shortestPathRoute("A", "C"));
+    Assertions.assertEquals(2, cache.getHits());
+
+    graph.insertEdge("A", "C", 3.0);
+    Assertions.assertEquals(Arrays.asList("A", "C"), graph.shortestPathRoute("A", "C").getLocations());
+    Assertions.assertEquals(1, cache.getInvalidations());
+    graph.removeEdge("A", "C");
+    Assertions.assertEquals(10.0, graph.shortestPathRoute("A", "C").getTotalCost());
+    Assertions.assertEquals(3, cache.getMisses());
+  }
+
+}
@@ -0,0 +1,18 @@
+/**
+ * This ScalarMinPlusKernel relaxes a row one column at a time, in two loops
+ * without branches: the first replaces the next hops of the costs that the
+ * edge beats, while the old costs are still there to compare against, and the
+ * second lowers those costs with Math.min. Neither loop stores conditionally,
+ * so the JIT compiler is free to vectorize them.
+ */
+public class ScalarMinPlusKernel implements MinPlusKernel {
+
+  public void relax(float[] rowCosts, int[] rowHops, float[] succCosts, float viaEdge, int hop) {
+    int n = rowCosts.length;
+    for (int j = 0; j < n; j++)
+      rowHops[j] = viaEdge + succCosts[j] < rowCosts[j] ? hop : rowHops[j];
+    for (int j = 0; j < n; j++)
+      rowCosts[j] = Math.min(rowCosts[j], viaEdge + succCosts[j]);
+  }
+
+}
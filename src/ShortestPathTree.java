@@ -0,0 +1,173 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.IntFunction;
+
+/**
+ * This class stores the result of a single-source shortest path search: the
+ * cost of the shortest path from one source node to every node that can be
+ * reached from it, along with the predecessor of each of those nodes on its
+ * shortest path. Nodes are numbered in the order that the search settled
+ * them, so the source is always number 0 and costs never decrease with the
+ * node's number.
+ *
+ * @param NodeType is the data type stored at each graph node
+ */
+public class ShortestPathTree<NodeType> {
+
+  // node data, path costs, and predecessor numbers, indexed by node number
+  protected List<NodeType> nodes = new ArrayList<>();
+  protected double[] costs = new double[16];
+  protected int[] predecessors = new int[16];
+
+  // maps node data to its number within this tree
+  protected MapADT<NodeType, Integer> numbers = new OpenHashtableMap<>();
+
+  /**
+   * Creates a tree that only contains its source node, at a cost of zero.
+   *
+   * @param source the data item in the node the search started from
+   */
+  public ShortestPathTree(NodeType source) {
+    add(source, 0.0, -1);
+  }
+
+  /**
+   * Creates the tree of a search that settled every node its source reaches,
+   * copying the settled nodes in order and renumbering their predecessors.
+   *
+   * @param data         returns the data item in the node with an id
+   * @param predecessors the id of each settled node's predecessor
+   * @param settled      the ids of the settled nodes, in the order they were
+   *                     settled, starting with the source and followed by -1
+   *                     when fewer than all ids were settled
+   * @param queue        the queue of the search, whose keys hold the costs of
+   *                     the settled nodes
+   * @return the tree of the shortest paths that the search found
+   */
+  protected static <NodeType> ShortestPathTree<NodeType> fromSearch(IntFunction<NodeType> data,
+      int[] predecessors, int[] settled, IndexedMinHeap queue) {
+    ShortestPathTree<NodeType> tree = new ShortestPathTree<>(data.apply(settled[0]));
+    int[] numbers = new int[settled.length];
+    for (int i = 1; i < settled.length && settled[i] != -1; i++) {
+      int id = settled[i];
+      numbers[id] = tree.add(data.apply(id), queue.getKey(id), numbers[predecessors[id]]);
+    }
+    return tree;
+  }
+
+  /**
+   * Adds a newly settled node to this tree.
+   *
+   * @param data        the data item in the settled node
+   * @param cost        the cost of the shortest path from the source to this node
+   * @param predecessor the number of this node's predecessor, or -1 for the source
+   * @return the number given to this node
+   */
+  protected int add(NodeType data, double cost, int predecessor) {
+    int number = nodes.size();
+    if (number == costs.length) {
+      // grow both arrays together when they are full
+      costs = Arrays.copyOf(costs, number * 2);
+      predecessors = Arrays.copyOf(predecessors, number * 2);
+    }
+    nodes.add(data);
+    costs[number] = cost;
+    predecessors[number] = predecessor;
+    numbers.put(data, number);
+    return number;
+  }
+
+  /**
+   * Retrieves the number given to a node within this tree.
+   *
+   * @param data the data item of the node to look up
+   * @return the number of that node
+   * @throws NoSuchElementException if the node cannot be reached from the source
+   */
+  protected int numberOf(NodeType data) {
+    if (!numbers.containsKey(data))
+      throw new NoSuchElementException("No path found");
+    return numbers.get(data);
+  }
+
+  /**
+   * Returns the data item in the node the search started from.
+   *
+   * @return the source of this tree
+   */
+  public NodeType getSource() {
+    return nodes.get(0);
+  }
+
+  /**
+   * Checks whether there is a path from the source to the provided node.
+   *
+   * @param data the data item of the node to check
+   * @return true if the node can be reached from the source, false otherwise
+   */
+  public boolean containsNode(NodeType data) {
+    return numbers.containsKey(data);
+  }
+
+  /**
+   * Returns the number of nodes that can be reached from the source,
+   * including the source itself.
+   *
+   * @return the number of nodes in this tree
+   */
+  public int getNodeCount() {
+    return nodes.size();
+  }
+
+  /**
+   * Returns the data of every node that can be reached from the source, in
+   * the order the search settled them (by non-decreasing cost).
+   *
+   * @return list of the data in all nodes of this tree
+   */
+  public List<NodeType> getAllNodes() {
+    return nodes;
+  }
+
+  /**
+   * Returns the cost of the shortest path from the source to a node.
+   *
+   * @param data the data item in the destination node
+   * @return the cost of the shortest path to that node
+   * @throws NoSuchElementException if the node cannot be reached from the source
+   */
+  public double getCost(NodeType data) {
+    return costs[numberOf(data)];
+  }
+
+  /**
+   * Returns the node just before the provided one on its shortest path.
+   *
+   * @param data the data item in the destination node
+   * @return the predecessor's data, or null when data is the source
+   * @throws NoSuchElementException if the node cannot be reached from the source
+   */
+  public NodeType getPredecessor(NodeType data) {
+    int predecessor = predecessors[numberOf(data)];
+    return predecessor == -1 ? null : nodes.get(predecessor);
+  }
+
+  /**
+   * Returns the list of node data along the shortest path from the source to
+   * the provided node, starting with the source and ending with data.
+   *
+   * @param data the data item in the destination node
+   * @return list of data items from the nodes along this shortest path
+   * @throws NoSuchElementException if the node cannot be reached from the source
+   */
+  public List<NodeType> getPath(NodeType data) {
+    LinkedList<NodeType> path = new LinkedList<>();
+    for (int number = numberOf(data); number != -1; number = predecessors[number])
+      path.addFirst(nodes.get(number));
+    return path;
+  }
+
+}
@@ -1,189 +1,525 @@
-import java.net.InetSocketAddress;
-import java.net.URLDecoder;
-import java.nio.charset.StandardCharsets;
-import com.sun.net.httpserver.HttpHandler;
-import com.sun.net.httpserver.HttpServer;
-import com.sun.net.httpserver.HttpContext;
-import com.sun.net.httpserver.HttpExchange;
-import java.io.IOException;
-import java.io.OutputStream;
-import java.io.File;
-import java.util.Scanner;
-import java.util.Map;
-import java.util.HashMap;
-import java.util.stream.Stream;
-
-/**
- * Instructions for running this WebApp alongside working Frontend, Backend,
- * DijkstraGraph, and HashtableMap implementations:
- *
- * On GoogleVM (after setting firewall to allow http traffic):
- *     run webserver using command: sudo java WebApp 80
- * Then visit through browser via http://EXTERNAL_IP/
- *
- * On Department (CSL) Linux Machines:
- *     copy all files to /afs/cs.wisc.edu/p/cs400-web/CS_LOGIN/
- *     compile WebApp in that location
- *     there is no need to run your sever, the provided index.cgi handles this 
- * Then visit through browser via https://cs400-web.cs.wisc.edu/CS_LOGIN/
- */
-public class WebApp {
-  public static void main(String[] args) throws IOException {
-    // expects the port number as a command line argument to this program
-    // or if a non-numeric argument is passed treat this like the query
-    // part of a requst URI and display response through standard out
-    if(args.length != 1) {
-      throw new IllegalArgumentException("You must pass a command line" +
-          " argument representing the port that this servers should be" +
-          " bound to when running this program.  Or a Query string.");
-    }
-    int portNumber = -1;
-    try {
-      portNumber = Integer.parseInt(args[0]);
-    } catch(NumberFormatException e) {
-      // When a non integer argument is passed, treat as a query string
-      // and output response through standard out.  This is only used
-      // when running through index.cgi on department linux machines.
-      handleSingleResponse(args[0]);
-      return;
-    }
-
-    // configure and start server on this port, responding in this way
-    InetSocketAddress address = new InetSocketAddress(portNumber);
-    HttpServer server = HttpServer.create(address,8);
-    HttpContext context = server.createContext("/");
-    context.setHandler( WebApp::requestHandler );
-    System.out.println("Starting Campus Navigator Server...");
-    server.start();
-  }
-
-  // http request handler handler for the context "/"
-  public static void requestHandler(HttpExchange exchange) {
-    try {
-      // extract the query (part of URI after?) part of URI
-      String query = exchange.getRequestURI().getQuery();
-      System.out.println("Received Request with query: " + query);
-      // extract argument key-value pairs from request query
-      Map<String,String> keyValuePairs = parseQuery(
-          exchange.getRequestURI().getQuery());
-      System.out.println("Query includes args: "+keyValuePairs);
-
-      // create backend and frontend objects to respond to this request
-      FrontendInterface frontend = createWorkingFrontend("./campus.dot");
-      // compute answer to user's requested problem based on query args:
-      String response = generateResponseHTML(keyValuePairs,frontend);
-      // generate HTML prompts for user for make next requests
-      String prompts = generatePromptHTML(frontend);
-      // compose response and prompts into a complete html template
-      String html = composeHTML(response,prompts);
-
-      // complete exchange response to send this html back to requester
-      byte[] bytes = html.getBytes();
-      exchange.sendResponseHeaders(200,bytes.length);
-      OutputStream out = exchange.getResponseBody();
-      out.write(bytes);
-      out.close();
-
-      // unless something goes wrong, in which case report problem
-    } catch (Exception e) {
-      System.out.println("Exception Thrown: "+e.toString());
-      e.printStackTrace();
-      // attempt to send 500 Server Error Response to client
-      try { exchange.sendResponseHeaders(500,-1); }
-      catch(IOException i){} // do nothing when this fails
-    }
-  }
-
-  // reads key value pairs from the query string of a URI into a map
-  private static Map<String,String> parseQuery(String query) {
-    HashMap<String,String> map = new HashMap<>();
-    if(query != null && query.contains("="))
-      Stream.of(query.split("&")).forEach(arg -> {
-        String[] pair = arg.split("=");
-        if(pair.length != 2)
-          throw new IllegalArgumentException("Unable to split "+
-              "arg: " + arg+" into a key value pair around a "+
-              "single = delimiter.");
-        map.put(pair[0],pair[1]);
-      });
-    return map;
-  }
-
-  // creates a working Frontend, Backend, DijkstraGraph, and HashtableMap
-  private static FrontendInterface createWorkingFrontend(String filename) throws IOException {
-    GraphADT<String,Double> graph = new DijkstraGraph<>();
-    BackendInterface backend = new Backend(graph);
-    backend.loadGraphData(filename);
-    FrontendInterface frontend = new Frontend(backend);
-    return frontend;
-  }
-
-  // creates the html response for the kind of question requeted (if any)
-  private static String generateResponseHTML(Map<String,String> keyValuePairs, FrontendInterface frontend) {
-    // compute response for shortest path request
-    String response = "<div id=\"response\">";
-    if(keyValuePairs.containsKey("start") &&
-        keyValuePairs.containsKey("end")) {
-      response += frontend.generateShortestPathResponseHTML(
-          keyValuePairs.get("start"),
-          keyValuePairs.get("end")) + "</div>";
-      // compute response for other request
-    } else if(keyValuePairs.containsKey("from")) {
-      response+=frontend.generateClosestDestinationsFromAllResponseHTML(
-          keyValuePairs.get("from")) + "</div>";
-      // otherwise, leave response div blank
-    } else
-      response += "</div>";
-
-    return response;
-  }
-
-  // generate separate div sections with a prompt for each kind of request
-  private static String generatePromptHTML(FrontendInterface frontend) {
-    String firstPrompt = "<div id=\"firstPrompt\">" +
-        frontend.generateShortestPathPromptHTML() + "</div>";
-    String secondPrompt = "<div id=\"secondPrompt\">" +
-        frontend.generateClosestDestinationsFromAllPromptHTML() + "</div>";
-    return firstPrompt + secondPrompt;
-  }
-
-  // compose reponse with prompts inside a complete html tree
-  private static String composeHTML(String response, String prompts) throws IOException {
-    // read contents of template file into html string
-    String html = "";
-    Scanner in = new Scanner(new File("template.html"));
-    while(in.hasNextLine()) html += in.nextLine() + "\n";
-
-    // replace placeholders for response and prompts
-    html = html.replaceFirst("<!-- RESPONSE GOES HERE -->",response);
-    html = html.replaceFirst("<!-- PROMPTS GO HERE -->",prompts);
-
-    return html;
-  }
-
-  // Since we cannot run a public webserver on the department's linux
-  // machines, we are using a cgi script to pass the query argument to
-  // the method below, and then displaying a response to standard out.
-  public static void handleSingleResponse(String query) {
-    try {
-      query = URLDecoder.decode(query, StandardCharsets.UTF_8);
-      Map<String,String> keyValuePairs = parseQuery(query);
-
-      // create backend and frontend objects to respond to this request
-      FrontendInterface frontend = createWorkingFrontend("./campus.dot");
-      // compute answer to user's requested problem based on query args:
-      String response = generateResponseHTML(keyValuePairs,frontend);
-      // generate HTML prompts for user for make next requests
-      String prompts = generatePromptHTML(frontend);
-      // compose response and prompts into a complete html template
-      String html = composeHTML(response,prompts);
-
-      System.out.println(html);
-
-      // unless something goes wrong, in which case report problem
-    } catch (Exception e) {
-      System.out.println("Exception Thrown: "+e.toString());
-      e.printStackTrace();
-    }
-  }
-}
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.StandardProtocolFamily;
+import java.net.URLDecoder;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.HashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+/**
+ * Instructions for running this WebApp alongside working Frontend, Backend,
+ * DijkstraGraph, and HashtableMap implementations:
+ *
+ * On GoogleVM (after setting firewall to allow http traffic):
+ *     run webserver using command: sudo java WebApp 80
+ * Then visit through browser via http://EXTERNAL_IP/
+ *
+ * On Department (CSL) Linux Machines:
+ *     copy all files to /afs/cs.wisc.edu/p/cs400-web/CS_LOGIN/
+ *     compile WebApp in that location
+ *     there is no need to run your sever, the provided index.cgi handles this 
+ * Then visit through browser via https://cs400-web.cs.wisc.edu/CS_LOGIN/
+ *
+ * To keep the navigator loaded between cgi requests, also start a daemon in
+ * that location with: java WebApp --daemon
+ * which listens on the unix domain socket navigator.sock. Every query that
+ * index.cgi passes to WebApp is then forwarded to that daemon, which writes
+ * back the page, instead of loading the campus graph and template for each
+ * request. Any client can do the same by writing the query string to the
+ * socket, shutting down its output, and reading the page until end of file.
+ * When no daemon is running, or it does not answer in time, queries are
+ * answered by loading everything as before.
+ *
+ * The server can be tuned with these system properties (java -Dname=value):
+ *     navigator.executor  virtual handles each request in its own virtual
+ *                         thread, platform handles requests with a fixed
+ *                         pool of platform threads, and inline handles them
+ *                         one at a time on the thread accepting connections.
+ *                         The default is virtual with more than one core,
+ *                         and inline with only one: sharing a single core
+ *                         with LoadTest, a pool answered 1300-1470 requests
+ *                         a second from 64 clients, where inline answered
+ *                         2070-2700
+ *     navigator.threads   the size of that platform thread pool, which is
+ *                         also used when virtual threads are not supported
+ *     navigator.backlog   the number of connections queued for accepting
+ *     navigator.routeCache  the number of routes cached (0 turns this off)
+ *     navigator.snapshot  the binary snapshot of campus.dot that is loaded
+ *                         instead of parsing it, unless it is older than
+ *                         campus.dot, in which case it is written again
+ *                         (campus.snapshot by default, empty turns it off)
+ *     navigator.matrix    the file holding the shortest path between every
+ *                         pair of locations, which answers routes without
+ *                         searching, and is built again whenever the graph
+ *                         changes (campus.matrix by default, empty turns it
+ *                         off, and it is never built for graphs of more than
+ *                         MATRIX_NODES locations)
+ *     navigator.socket    the unix domain socket that the daemon listens
+ *                         on, and queries are forwarded to (navigator.sock
+ *                         by default)
+ *     navigator.timeout   the milliseconds that a forwarded query waits for
+ *                         the daemon's page, and that the daemon waits for
+ *                         a client to send its query and read the page
+ *                         (2000 by default)
+ */
+public class WebApp {
+
+  // navigator (graph, backend and frontend) shared by every request thread,
+  // it is built once at startup and never modified after that
+  private static FrontendInterface frontend = null;
+
+  // the largest graph whose shortest paths are all looked up in a matrix file
+  private static final int MATRIX_NODES = 4096;
+
+  // routes recently found by that navigator, or null when routes are not cached
+  private static RouteCache<String> routeCache = null;
+
+  // the page that responses and prompts are placed into, read from
+  // template.html once at startup along with the (unchanging) prompts
+  private static HtmlTemplate template = null;
+  private static byte[] prompts = null;
+
+  // the longest query string that the daemon reads from a client
+  private static final int MAX_QUERY_BYTES = 1 << 16;
+
+  // the milliseconds that either end of a daemon connection waits for the
+  // other before giving up on it
+  private static final long TIMEOUT_MILLIS =
+      Long.getLong("navigator.timeout", 2000);
+
+  public static void main(String[] args) throws IOException {
+    // expects the port number as a command line argument to this program
+    // or if a non-numeric argument is passed treat this like the query
+    // part of a requst URI and display response through standard out
+    if(args.length == 1 && args[0].equals("--daemon")) {
+      runDaemon();
+      return;
+    }
+    if(args.length != 1) {
+      throw new IllegalArgumentException("You must pass a command line" +
+          " argument representing the port that this servers should be" +
+          " bound to when running this program.  Or a Query string.");
+    }
+    int portNumber = -1;
+    try {
+      portNumber = Integer.parseInt(args[0]);
+    } catch(NumberFormatException e) {
+      // When a non integer argument is passed, treat as a query string
+      // and output response through standard out.  This is only used
+      // when running through index.cgi on department linux machines.
+      handleSingleResponse(args[0]);
+      return;
+    }
+
+    // load the campus graph once, before the server accepts any requests
+    frontend = createWorkingFrontend("./campus.dot");
+    loadTemplate();
+    // report how well the route cache worked when the server shuts down
+    if(routeCache != null)
+      Runtime.getRuntime().addShutdownHook(new Thread(() ->
+          System.out.println("Route cache: " + routeCache)));
+
+    // send each response as soon as it is written, instead of letting its
+    // body wait on the client's delayed acknowledgement of its headers
+    if(System.getProperty("sun.net.httpserver.nodelay") == null)
+      System.setProperty("sun.net.httpserver.nodelay", "true");
+
+    // configure and start server on this port, responding in this way
+    InetSocketAddress address = new InetSocketAddress(portNumber);
+    int backlog = Integer.getInteger("navigator.backlog", 64);
+    HttpServer server = HttpServer.create(address,backlog);
+    HttpContext context = server.createContext("/");
+    context.setHandler( WebApp::requestHandler );
+    // handle requests concurrently, instead of one at a time on the thread
+    // that accepts connections
+    server.setExecutor(createExecutor());
+    System.out.println("Starting Campus Navigator Server...");
+    server.start();
+  }
+
+  // http request handler handler for the context "/"
+  public static void requestHandler(HttpExchange exchange) {
+    try {
+      // extract the query (part of URI after?) part of URI
+      String query = exchange.getRequestURI().getQuery();
+      System.out.println("Received Request with query: " + query);
+      // extract argument key-value pairs from request query
+      Map<String,String> keyValuePairs = parseQuery(
+          exchange.getRequestURI().getQuery());
+      System.out.println("Query includes args: "+keyValuePairs);
+
+      // compute answer to user's requested problem based on query args:
+      byte[] response = generateResponseHTML(keyValuePairs,frontend);
+
+      // complete exchange response by writing the template around this
+      // response and the prompts straight back to requester
+      exchange.getResponseHeaders().set("Content-Type",
+          "text/html; charset=utf-8");
+      exchange.sendResponseHeaders(200,template.length(response,prompts));
+      OutputStream out = exchange.getResponseBody();
+      template.write(out,response,prompts);
+      out.close();
+
+      // unless something goes wrong, in which case report problem
+    } catch (Exception e) {
+      System.out.println("Exception Thrown: "+e.toString());
+      e.printStackTrace();
+      // attempt to send 500 Server Error Response to client
+      try { exchange.sendResponseHeaders(500,-1); }
+      catch(IOException i){} // do nothing when this fails
+    }
+  }
+
+  // creates the executor that requests are handled by, as selected by the
+  // navigator.executor and navigator.threads system properties, or returns
+  // null to handle them on the thread that accepts connections
+  private static ExecutorService createExecutor() {
+    int cores = Runtime.getRuntime().availableProcessors();
+    // with a single core, handing requests to other threads only adds
+    // switches between them, and lowers throughput under load
+    String mode = System.getProperty("navigator.executor",
+        cores > 1 ? "virtual" : "inline");
+    int threads = Integer.getInteger("navigator.threads", 4 * cores);
+    if(mode.equals("inline")) {
+      return null;
+    } else if(mode.equals("virtual")) {
+      try {
+        // looked up reflectively, so that this also compiles and runs on
+        // JVMs older than Java 21, which have no virtual threads
+        return (ExecutorService) Executors.class
+            .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+      } catch(ReflectiveOperationException e) {
+        System.out.println("Virtual threads are not supported, using " +
+            threads + " platform threads instead.");
+      }
+    } else if(!mode.equals("platform")) {
+      throw new IllegalArgumentException("Unknown navigator.executor: " +
+          mode + " (expected virtual, platform or inline)");
+    }
+    return Executors.newFixedThreadPool(threads);
+  }
+
+  // reads key value pairs from the query string of a URI into a map
+  private static Map<String,String> parseQuery(String query) {
+    HashMap<String,String> map = new HashMap<>();
+    if(query != null && query.contains("="))
+      Stream.of(query.split("&")).forEach(arg -> {
+        String[] pair = arg.split("=");
+        if(pair.length != 2)
+          throw new IllegalArgumentException("Unable to split "+
+              "arg: " + arg+" into a key value pair around a "+
+              "single = delimiter.");
+        map.put(pair[0],pair[1]);
+      });
+    return map;
+  }
+
+  // creates a working Frontend, Backend, DijkstraGraph, and HashtableMap
+  private static FrontendInterface createWorkingFrontend(String filename) throws IOException {
+    // answer every query from an immutable snapshot of the loaded graph
+    FrozenGraph<String> frozen = loadGraph(filename);
+    // which looks every route up in its matrix file when it has one
+    DistanceMatrix<String> matrix = loadMatrix(filename, frozen);
+    if(matrix != null)
+      return new Frontend(new Backend(new DistanceMatrixGraph<>(matrix)));
+    // or otherwise remembers the most recently requested routes, the number of them
+    // is set by -Dnavigator.routeCache=N (where 0 turns the cache off)
+    int routeCacheSize = Integer.getInteger("navigator.routeCache", 1024);
+    if(routeCacheSize > 0) {
+      routeCache = new RouteCache<>(routeCacheSize);
+      frozen.setRouteCache(routeCache);
+    }
+    BackendInterface backend = new Backend(frozen);
+    FrontendInterface frontend = new Frontend(backend);
+    return frontend;
+  }
+
+  // loads the graph in a dot file from its binary snapshot, which is much
+  // faster than parsing the file (as every cgi request would otherwise), or
+  // parses the file and writes that snapshot when it is missing or outdated
+  private static FrozenGraph<String> loadGraph(String filename) throws IOException {
+    String snapshot = System.getProperty("navigator.snapshot",
+        filename.replaceFirst("\\.dot$","") + ".snapshot");
+    // problems are reported on standard error, since standard out holds the
+    // response to a cgi request
+    if(!snapshot.isEmpty() && new File(snapshot).isFile() &&
+        new File(snapshot).lastModified() >= new File(filename).lastModified()) {
+      try {
+        return GraphSnapshot.load(snapshot);
+      } catch(IOException e) {
+        System.err.println("Parsing " + filename + " instead of loading " +
+            "its snapshot: " + e.getMessage());
+      }
+    }
+    DijkstraGraph<String,Double> graph = new DijkstraGraph<>();
+    new Backend(graph).loadGraphData(filename);
+    FrozenGraph<String> frozen = graph.freeze();
+    if(!snapshot.isEmpty()) {
+      try {
+        GraphSnapshot.write(frozen,snapshot);
+      } catch(IOException e) {
+        System.err.println("Unable to write snapshot " + snapshot + ": " +
+            e.getMessage());
+      }
+    }
+    return frozen;
+  }
+
+  // loads the matrix of shortest paths between every pair of locations in
+  // graph, or builds it when it is missing or was built for another graph,
+  // which only happens once the dot file changes; returns null when there is
+  // no matrix, and routes are searched for instead
+  private static DistanceMatrix<String> loadMatrix(String filename, FrozenGraph<String> graph) {
+    String matrix = System.getProperty("navigator.matrix",
+        filename.replaceFirst("\\.dot$","") + ".matrix");
+    if(matrix.isEmpty() || graph.getNodeCount() > MATRIX_NODES)
+      return null;
+    try {
+      return DistanceMatrix.loadOrBuild(graph,matrix);
+    } catch(IOException e) {
+      System.err.println("Searching for routes instead of loading " + matrix +
+          ": " + e.getMessage());
+      return null;
+    }
+  }
+
+  // creates the UTF-8 encoded html response for the kind of question
+  // requeted (if any), which the frontend writes straight into its encoder
+  private static byte[] generateResponseHTML(Map<String,String> keyValuePairs, FrontendInterface frontend) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+    Writer response = new OutputStreamWriter(bytes,StandardCharsets.UTF_8);
+    response.write("<div id=\"response\">");
+    // compute response for shortest path request
+    if(keyValuePairs.containsKey("start") &&
+        keyValuePairs.containsKey("end")) {
+      frontend.writeShortestPathResponseHTML(
+          keyValuePairs.get("start"),
+          keyValuePairs.get("end"),response);
+      // compute response for other request
+    } else if(keyValuePairs.containsKey("from")) {
+      frontend.writeClosestDestinationsFromAllResponseHTML(
+          keyValuePairs.get("from"),response);
+    } // otherwise, leave response div blank
+    response.write("</div>");
+    response.flush();
+    return bytes.toByteArray();
+  }
+
+  // generate separate div sections with a prompt for each kind of request
+  private static String generatePromptHTML(FrontendInterface frontend) {
+    String firstPrompt = "<div id=\"firstPrompt\">" +
+        frontend.generateShortestPathPromptHTML() + "</div>";
+    String secondPrompt = "<div id=\"secondPrompt\">" +
+        frontend.generateClosestDestinationsFromAllPromptHTML() + "</div>";
+    return firstPrompt + secondPrompt;
+  }
+
+  // reads the template that responses are composed into, and generates the
+  // prompts that follow every response, which never change
+  private static void loadTemplate() throws IOException {
+    template = HtmlTemplate.load("template.html",
+        "<!-- RESPONSE GOES HERE -->","<!-- PROMPTS GO HERE -->");
+    prompts = generatePromptHTML(frontend).getBytes(StandardCharsets.UTF_8);
+  }
+
+  // Since we cannot run a public webserver on the department's linux
+  // machines, we are using a cgi script to pass the query argument to
+  // the method below, and then displaying a response to standard out.
+  public static void handleSingleResponse(String query) {
+    // let a running daemon answer this query, when there is one
+    if(forwardToDaemon(query))
+      return;
+    try {
+      // create backend and frontend objects to respond to this request
+      frontend = createWorkingFrontend("./campus.dot");
+      loadTemplate();
+      writeSingleResponse(query,System.out);
+
+      // unless something goes wrong, in which case report problem
+    } catch (Exception e) {
+      System.out.println("Exception Thrown: "+e.toString());
+      e.printStackTrace();
+    }
+  }
+
+  // composes the response to a cgi query string and the prompts into the
+  // template, followed by a line separator, using the loaded navigator
+  private static void writeSingleResponse(String query, OutputStream out) throws IOException {
+    query = URLDecoder.decode(query, StandardCharsets.UTF_8);
+    Map<String,String> keyValuePairs = parseQuery(query);
+    // compute answer to user's requested problem based on query args:
+    byte[] response = generateResponseHTML(keyValuePairs,frontend);
+    template.write(out,response,prompts);
+    out.write(System.lineSeparator().getBytes(StandardCharsets.UTF_8));
+    out.flush();
+  }
+
+  // returns the path of the unix domain socket that the daemon listens on
+  private static Path getSocketPath() {
+    return Path.of(System.getProperty("navigator.socket", "navigator.sock"));
+  }
+
+  // sends a cgi query string to the daemon and copies its page to standard
+  // out, or returns false without writing anything when no daemon is running,
+  // or when it does not send its whole page within TIMEOUT_MILLIS
+  private static boolean forwardToDaemon(String query) {
+    Path socket = getSocketPath();
+    if(!Files.exists(socket))
+      return false;
+    long deadline = System.nanoTime() + TIMEOUT_MILLIS * 1_000_000;
+    // the page is only written out once all of it has arrived, so that
+    // the query can still be answered here when the daemon stops answering
+    ByteArrayOutputStream page = new ByteArrayOutputStream(16384);
+    try(SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+        Selector selector = Selector.open()) {
+      channel.configureBlocking(false);
+      SelectionKey key = channel.register(selector, SelectionKey.OP_CONNECT);
+      if(!channel.connect(UnixDomainSocketAddress.of(socket)))
+        do awaitReady(selector,deadline); while(!channel.finishConnect());
+      key.interestOps(SelectionKey.OP_WRITE);
+      ByteBuffer request =
+          ByteBuffer.wrap(query.getBytes(StandardCharsets.UTF_8));
+      while(request.hasRemaining()) {
+        awaitReady(selector,deadline);
+        channel.write(request);
+      }
+      channel.shutdownOutput();
+      key.interestOps(SelectionKey.OP_READ);
+      ByteBuffer buffer = ByteBuffer.allocate(16384);
+      while(true) {
+        awaitReady(selector,deadline);
+        if(channel.read(buffer) == -1)
+          break;
+        page.write(buffer.array(),0,buffer.position());
+        buffer.clear();
+      }
+    } catch(IOException e) {
+      // the daemon has stopped and left its socket behind, or is too slow
+      System.err.println("Not forwarding to the daemon: "+e.toString());
+      return false;
+    }
+    System.out.write(page.toByteArray(),0,page.size());
+    System.out.flush();
+    return true;
+  }
+
+  // waits until the channel registered with a selector is ready for the
+  // operations it is interested in, or throws a SocketTimeoutException once
+  // the deadline (a System.nanoTime()) has passed
+  private static void awaitReady(Selector selector, long deadline)
+      throws IOException {
+    while(true) {
+      long wait = (deadline - System.nanoTime()) / 1_000_000;
+      if(wait <= 0)
+        throw new SocketTimeoutException("No answer within " +
+            TIMEOUT_MILLIS + " ms");
+      if(selector.select(wait) > 0) {
+        selector.selectedKeys().clear();
+        return;
+      }
+    }
+  }
+
+  // loads the navigator and template once, and then answers the queries of
+  // every client that connects to the daemon's unix domain socket
+  private static void runDaemon() throws IOException {
+    Path socket = getSocketPath();
+    frontend = createWorkingFrontend("./campus.dot");
+    loadTemplate();
+    if(Files.exists(socket)) {
+      // replace the socket of a daemon that has stopped, but not a running one
+      boolean listening;
+      try {
+        SocketChannel.open(UnixDomainSocketAddress.of(socket)).close();
+        listening = true;
+      } catch(IOException e) {
+        listening = false;
+      }
+      if(listening)
+        throw new IOException("A daemon is already listening on " + socket);
+      Files.delete(socket);
+    }
+    ServerSocketChannel server =
+        ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+    server.bind(UnixDomainSocketAddress.of(socket),
+        Integer.getInteger("navigator.backlog", 64));
+    Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+      try { Files.deleteIfExists(socket); }
+      catch(IOException e){} // nothing left to do when this fails
+      if(routeCache != null)
+        System.out.println("Route cache: " + routeCache);
+    }));
+    ExecutorService executor = createExecutor();
+    System.out.println("Campus Navigator daemon listening on " +
+        socket.toAbsolutePath());
+    while(true) {
+      SocketChannel channel = server.accept();
+      if(executor == null)
+        answerClient(channel);
+      else
+        executor.execute(() -> answerClient(channel));
+    }
+  }
+
+  // reads the query string that a client sends to the daemon until the
+  // client shuts down its output, and writes the page back to that client,
+  // giving up on clients that take longer than TIMEOUT_MILLIS to do so
+  private static void answerClient(SocketChannel channel) {
+    try(channel; Selector selector = Selector.open()) {
+      long deadline = System.nanoTime() + TIMEOUT_MILLIS * 1_000_000;
+      channel.configureBlocking(false);
+      SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+      ByteBuffer query = ByteBuffer.allocate(1024);
+      while(true) {
+        awaitReady(selector,deadline);
+        if(channel.read(query) == -1)
+          break;
+        if(query.hasRemaining())
+          continue;
+        if(query.capacity() == MAX_QUERY_BYTES)
+          throw new IOException("Query is longer than " + MAX_QUERY_BYTES +
+              " bytes");
+        query = ByteBuffer.allocate(2 * query.capacity()).put(query.flip());
+      }
+      ByteArrayOutputStream page = new ByteArrayOutputStream(16384);
+      try {
+        writeSingleResponse(new String(query.array(),0,query.position(),
+            StandardCharsets.UTF_8),page);
+      } catch (RuntimeException e) {
+        // report the problem to the client, just as a single response would
+        page.write(("Exception Thrown: "+e.toString()+System.lineSeparator())
+            .getBytes(StandardCharsets.UTF_8));
+        e.printStackTrace();
+      }
+      key.interestOps(SelectionKey.OP_WRITE);
+      ByteBuffer response = ByteBuffer.wrap(page.toByteArray());
+      while(response.hasRemaining()) {
+        awaitReady(selector,deadline);
+        channel.write(response);
+      }
+    } catch (IOException e) {
+      System.out.println("Exception Thrown: "+e.toString());
+    }
+  }
+}
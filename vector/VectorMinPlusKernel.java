@@ -0,0 +1,45 @@
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * This VectorMinPlusKernel relaxes a row a whole vector of columns at a time
+ * with the incubating Vector API: it adds viaEdge to the successor's costs,
+ * compares the sums with the row's costs, stores the smaller of each pair,
+ * and blends hop into the next hops under the same mask. The columns left
+ * over after the last full vector are relaxed one at a time.
+ *
+ * MinPlusKernel.load() loads this class by name, so it is only used when it
+ * was compiled into the class path with --add-modules jdk.incubator.vector,
+ * and that module is added to the running process as well.
+ */
+public class VectorMinPlusKernel implements MinPlusKernel {
+
+  private static final VectorSpecies<Float> FLOATS = FloatVector.SPECIES_PREFERRED;
+  // ints are as wide as floats, so a vector of each holds the same columns
+  private static final VectorSpecies<Integer> INTS =
+      VectorSpecies.of(int.class, FLOATS.vectorShape());
+
+  public void relax(float[] rowCosts, int[] rowHops, float[] succCosts, float viaEdge, int hop) {
+    int n = rowCosts.length;
+    FloatVector via = FloatVector.broadcast(FLOATS, viaEdge);
+    IntVector hops = IntVector.broadcast(INTS, hop);
+    int j = 0;
+    for (int bound = FLOATS.loopBound(n); j < bound; j += FLOATS.length()) {
+      FloatVector costs = FloatVector.fromArray(FLOATS, rowCosts, j);
+      FloatVector candidates = via.add(FloatVector.fromArray(FLOATS, succCosts, j));
+      VectorMask<Float> better = candidates.lt(costs);
+      costs.min(candidates).intoArray(rowCosts, j);
+      IntVector.fromArray(INTS, rowHops, j).blend(hops, better.cast(INTS)).intoArray(rowHops, j);
+    }
+    for (; j < n; j++) {
+      float cost = viaEdge + succCosts[j];
+      if (cost < rowCosts[j]) {
+        rowCosts[j] = cost;
+        rowHops[j] = hop;
+      }
+    }
+  }
+
+}